@@ -18,12 +18,15 @@ package org.apache.wicket;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.MissingResourceException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.wicket.markup.html.WebPage;
 import org.apache.wicket.markup.html.basic.Label;
@@ -256,6 +259,77 @@ class LocalizerTest
 		}
 	}
 
+	/**
+	 * The cache is limited to its maximum size.
+	 */
+	@Test
+	void boundedCache()
+	{
+		Map<String, String>[] caches = new Map[1];
+		Localizer bounded = new Localizer(10)
+		{
+			@Override
+			protected Map<String, String> newCache()
+			{
+				caches[0] = super.newCache();
+				return caches[0];
+			}
+		};
+		assertEquals(10, bounded.getMaxCacheSize());
+
+		for (int i = 0; i < 50; i++)
+		{
+			assertEquals("default", bounded.getString("missing" + i, null, "default"));
+			assertTrue(caches[0].size() <= 10);
+		}
+
+		// evicted values are loaded again
+		assertEquals("This is a test", bounded.getString("test.string", null, null, "DEFAULT"));
+		assertEquals("This is a test", bounded.getString("test.string", null, null, "DEFAULT"));
+	}
+
+	/**
+	 * An entry evicted after a successful {@code containsKey()} is loaded again.
+	 */
+	@Test
+	void evictedConcurrently()
+	{
+		Localizer evicting = new Localizer()
+		{
+			@Override
+			protected Map<String, String> newCache()
+			{
+				return new ConcurrentHashMap<>()
+				{
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					public boolean containsKey(Object key)
+					{
+						// pretend the entry was evicted right after this check
+						return true;
+					}
+				};
+			}
+		};
+
+		assertEquals("This is a test", evicting.getString("test.string", null, null, "DEFAULT"));
+	}
+
+	/**
+	 * Components of the same class share the segment of the cache key.
+	 */
+	@Test
+	void cacheKeyOfComponents()
+	{
+		MyMockPage page = new MyMockPage();
+
+		String key1 = localizer.getCacheKey("k", page.drop1, Locale.ENGLISH, null, null);
+		String key2 = localizer.getCacheKey("k", page.drop2, Locale.ENGLISH, null, null);
+		assertEquals(key1.replace("drop1", "drop2"), key2);
+		assertEquals(key1, localizer.getCacheKey("k", page.drop1, Locale.ENGLISH, null, null));
+	}
+
 	public static class MyMockPage extends WebPage
 	{
 		private static final long serialVersionUID = 1L;
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.apache.wicket.core.request.handler.BookmarkablePageRequestHandler;
+import org.apache.wicket.core.request.handler.PageProvider;
+import org.apache.wicket.core.request.handler.RenderPageRequestHandler;
+import org.apache.wicket.core.request.mapper.MountedMapper;
+import org.apache.wicket.request.IRequestHandler;
+import org.apache.wicket.request.Request;
+import org.apache.wicket.request.Url;
+import org.apache.wicket.request.component.IRequestablePage;
+import org.apache.wicket.request.handler.EmptyRequestHandler;
+import org.apache.wicket.request.handler.resource.ResourceReferenceRequestHandler;
+import org.apache.wicket.request.resource.PackageResourceReference;
+import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SystemMapper}
+ */
+class SystemMapperTest extends WicketTestCase
+{
+	/**
+	 * Handlers of mounted pages and resources are keyed.
+	 */
+	@Test
+	void handlerKey()
+	{
+		ResourceReference reference = new PackageResourceReference(SystemMapperTest.class,
+			"test.js");
+		tester.getApplication().mountPage("/mounted", MockPageWithLink.class);
+		tester.getApplication().mountResource("/resource", reference);
+
+		SystemMapper mapper = (SystemMapper)tester.getApplication().getRootRequestMapper();
+
+		BookmarkablePageRequestHandler pageHandler = new BookmarkablePageRequestHandler(
+			new PageProvider(MockPageWithLink.class));
+		assertEquals(MockPageWithLink.class.getName(), mapper.getHandlerKey(pageHandler));
+		assertEquals("mounted", mapper.mapHandler(pageHandler).toString());
+
+		ResourceReferenceRequestHandler resourceHandler = new ResourceReferenceRequestHandler(
+			reference);
+		assertEquals(reference.getKey(), mapper.getHandlerKey(resourceHandler));
+		assertEquals("resource", mapper.mapHandler(resourceHandler).toString());
+
+		assertNull(mapper.getHandlerKey(new EmptyRequestHandler()));
+	}
+
+	/**
+	 * Mappers overriding {@code checkPageClass()} are asked to map handlers of other pages.
+	 */
+	@Test
+	void overriddenCheckPageClass()
+	{
+		tester.getApplication().mount(new MountedMapper("/mounted", MockPageWithLink.class)
+		{
+			@Override
+			protected boolean checkPageClass(Class<? extends IRequestablePage> pageClass)
+			{
+				return MockPageWithLink.class.isAssignableFrom(pageClass);
+			}
+		});
+
+		SystemMapper mapper = (SystemMapper)tester.getApplication().getRootRequestMapper();
+
+		BookmarkablePageRequestHandler pageHandler = new BookmarkablePageRequestHandler(
+			new PageProvider(SubPage.class));
+		assertEquals("mounted", mapper.mapHandler(pageHandler).toString());
+	}
+
+	/**
+	 * Mappers overriding {@code getCompatibilityScore()} keep their priority for any URL.
+	 */
+	@Test
+	void overriddenCompatibilityScore()
+	{
+		tester.getApplication().mountPage("/a/b", MockPageWithLink.class);
+		tester.getApplication().mount(new MountedMapper("/x", MockPageWithOneComponent.class)
+		{
+			@Override
+			public int getCompatibilityScore(Request request)
+			{
+				return Integer.MAX_VALUE;
+			}
+
+			@Override
+			public IRequestHandler mapRequest(Request request)
+			{
+				return new RenderPageRequestHandler(MockPageWithOneComponent.class);
+			}
+		});
+
+		SystemMapper mapper = (SystemMapper)tester.getApplication().getRootRequestMapper();
+
+		IRequestHandler handler = mapper.mapRequest(
+			tester.getRequestCycle().getRequest().cloneWithUrl(Url.parse("a/b")));
+		assertEquals(MockPageWithOneComponent.class,
+			((RenderPageRequestHandler)handler).getPageClass());
+	}
+
+	/**
+	 * A subclass of the mounted page.
+	 */
+	public static class SubPage extends MockPageWithLink
+	{
+		private static final long serialVersionUID = 1L;
+	}
+}
@@ -37,6 +37,7 @@ import org.apache.wicket.MockPageWithLinkAndComponent;
 import org.apache.wicket.Page;
 import org.apache.wicket.RuntimeConfigurationType;
 import org.apache.wicket.ajax.markup.html.AjaxLink;
+import org.apache.wicket.core.request.handler.EmptyAjaxRequestHandler;
 import org.apache.wicket.event.IEvent;
 import org.apache.wicket.markup.IMarkupResourceStreamProvider;
 import org.apache.wicket.markup.html.WebComponent;
@@ -57,6 +58,7 @@ import org.apache.wicket.util.tester.WicketTester;
 import org.apache.wicket.util.time.Instants;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import com.github.openjson.JSONArray;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -103,6 +105,82 @@ class AjaxRequestHandlerTest extends WicketTestCase
 		executeHeaderTest(MockComponent3.class, "MockComponent3-expected.html");
 	}
 
+	/**
+	 * Test that a streamed response has the same header contribution.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void headerContributionStreamed() throws IOException
+	{
+		tester.getApplication().getRequestCycleSettings().setStreamPartialPageUpdates(true);
+
+		executeHeaderTest(MockComponent1.class, "MockComponent1-expected.html");
+
+		assertTrue(tester.getLastResponseAsString().contains("<component id=\"" +
+			MockPageWithLinkAndComponent.COMPONENT_ID));
+	}
+
+	/**
+	 * Test that a JSON response is written if requested.
+	 */
+	@Test
+	void jsonResponse()
+	{
+		final MockPageWithLinkAndComponent page = new MockPageWithLinkAndComponent();
+		page.add(
+			new WebComponent(MockPageWithLinkAndComponent.COMPONENT_ID).setOutputMarkupId(true));
+		page.add(new AjaxLink<Void>(MockPageWithLinkAndComponent.LINK_ID)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void onClick(AjaxRequestTarget target)
+			{
+				target.add(page.get(MockPageWithLinkAndComponent.COMPONENT_ID));
+				target.appendJavaScript("alert('json');");
+			}
+		});
+		tester.startPage(page);
+
+		tester.getRequest().setHeader("Accept", "application/json, text/javascript, */*; q=0.01");
+		tester.clickLink(MockPageWithLinkAndComponent.LINK_ID);
+
+		assertTrue(tester.getLastResponse().getContentType().startsWith("application/json"));
+
+		JSONArray entries = new JSONArray(tester.getLastResponseAsString());
+		assertEquals(page.get(MockPageWithLinkAndComponent.COMPONENT_ID).getMarkupId(),
+			entries.getJSONObject(0).getString("c"));
+		assertTrue(entries.getJSONObject(1).getString("e").contains("alert('json');"));
+	}
+
+	/**
+	 * Test that an empty response is written as JSON if requested.
+	 */
+	@Test
+	void jsonEmptyResponse()
+	{
+		final MockPageWithLinkAndComponent page = new MockPageWithLinkAndComponent();
+		page.add(new WebComponent(MockPageWithLinkAndComponent.COMPONENT_ID));
+		page.add(new AjaxLink<Void>(MockPageWithLinkAndComponent.LINK_ID)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void onClick(AjaxRequestTarget target)
+			{
+				getRequestCycle().replaceAllRequestHandlers(EmptyAjaxRequestHandler.getInstance());
+			}
+		});
+		tester.startPage(page);
+
+		tester.getRequest().setHeader("Accept", "application/json, text/javascript, */*; q=0.01");
+		tester.clickLink(MockPageWithLinkAndComponent.LINK_ID);
+
+		assertTrue(tester.getLastResponse().getContentType().startsWith("application/json"));
+		assertEquals("[]", tester.getLastResponseAsString());
+	}
+
 	private <C extends Component> void executeHeaderTest(final Class<C> componentClass)
 		throws IOException
 	{
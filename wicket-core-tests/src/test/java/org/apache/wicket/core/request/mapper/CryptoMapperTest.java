@@ -18,12 +18,17 @@ package org.apache.wicket.core.request.mapper;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.apache.wicket.MockPage;
 import org.apache.wicket.core.request.handler.BookmarkableListenerRequestHandler;
 import org.apache.wicket.core.request.handler.ListenerRequestHandler;
@@ -295,6 +300,59 @@ class CryptoMapperTest extends AbstractMapperTest
 		assertEquals(ENCRYPTED_PAGE_INSTANCE_URL, mapper.mapHandler(requestHandler).toString());
 	}
 
+	/**
+	 * Each distinct URL is encrypted once per request.
+	 */
+	@Test
+	void encryptOncePerRequest()
+	{
+		SunJceCrypt crypt = new SunJceCrypt(SunJceCrypt.randomSalt(), 17);
+		AtomicInteger encryptions = new AtomicInteger();
+		ICrypt countingCrypt = new ICrypt()
+		{
+			@Override
+			public String encryptUrlSafe(String plainText)
+			{
+				encryptions.incrementAndGet();
+				return crypt.encryptUrlSafe(plainText);
+			}
+
+			@Override
+			public String decryptUrlSafe(String text)
+			{
+				return crypt.decryptUrlSafe(text);
+			}
+		};
+		CryptoMapper countingMapper = new CryptoMapper(
+			tester.getApplication().getRootRequestMapper(), () -> countingCrypt);
+
+		IRequestHandler requestHandler = new RenderPageRequestHandler(
+			new PageProvider(new MockPage(5)));
+
+		Url url = countingMapper.mapHandler(requestHandler);
+		Url sameUrl = countingMapper.mapHandler(requestHandler);
+		assertEquals(url, sameUrl);
+		assertNotSame(url, sameUrl);
+		assertEquals(1, encryptions.get());
+
+		Url otherUrl = countingMapper
+			.mapHandler(new RenderPageRequestHandler(new PageProvider(new MockPage(6))));
+		assertNotEquals(url, otherUrl);
+		assertEquals(2, encryptions.get());
+
+		// other mappers encrypt on their own
+		assertEquals(ENCRYPTED_PAGE_INSTANCE_URL, mapper.mapHandler(requestHandler).toString());
+
+		// a changed crypt does not get texts encrypted by its predecessor
+		AtomicReference<ICrypt> currentCrypt = new AtomicReference<>(crypt);
+		CryptoMapper switchingMapper = new CryptoMapper(
+			tester.getApplication().getRootRequestMapper(), currentCrypt::get);
+		Url oldCryptUrl = switchingMapper.mapHandler(requestHandler);
+		currentCrypt.set(new SunJceCrypt(SunJceCrypt.randomSalt(), 17));
+		Url newCryptUrl = switchingMapper.mapHandler(requestHandler);
+		assertNotEquals(oldCryptUrl, newCryptUrl);
+	}
+
 	/**
 	 * Make sure that encrypted page instance URLs are decrypted and the correct handler resolved.
 	 */
@@ -17,12 +17,19 @@
 package org.apache.wicket.core.util.crypt;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.apache.wicket.core.random.DefaultSecureRandomSupplier;
 import org.apache.wicket.util.crypt.CipherUtils;
 import org.junit.jupiter.api.Test;
 
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.crypto.SecretKey;
 
@@ -51,4 +58,40 @@ public class AESCryptTest
 		String decrypted2 = crypt.decryptUrlSafe(encrypted2);
 		assertEquals(decrypted2, japFlowerBirdsWindMoon);
 	}
+
+	@Test
+	public void concurrent() throws Exception
+	{
+		DefaultSecureRandomSupplier randomSupplier = new DefaultSecureRandomSupplier();
+
+		SecretKey secretKey = CipherUtils.generatePBEKey(
+			"myWeakPassword", "PBKDF2WithHmacSHA1", "AES",
+			randomSupplier.getRandomBytes(16), 1000, 256);
+
+		AbstractJceCrypt crypt = new AESCrypt(secretKey, randomSupplier);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < 200; i++)
+			{
+				String input = "input" + i;
+				results.add(executor
+					.submit(() -> input.equals(crypt.decryptUrlSafe(crypt.encryptUrlSafe(input)))));
+			}
+			for (Future<Boolean> result : results)
+			{
+				assertTrue(result.get());
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+
+		// failed decryption does not affect later use
+		assertNull(crypt.decryptUrlSafe("invalid0invalid0invalid0invalid0"));
+		assertEquals("input", crypt.decryptUrlSafe(crypt.encryptUrlSafe("input")));
+	}
 }
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.core.util.crypt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.apache.wicket.util.crypt.ICrypt;
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link KeyInSessionSunJceCryptFactory}.
+ */
+class KeyInSessionSunJceCryptFactoryTest extends WicketTestCase
+{
+	/**
+	 * The crypt is reused for the key of the session.
+	 */
+	@Test
+	void cryptPerSession()
+	{
+		KeyInSessionSunJceCryptFactory factory = new KeyInSessionSunJceCryptFactory();
+
+		ICrypt crypt = factory.newCrypt();
+		assertSame(crypt, factory.newCrypt());
+
+		String encrypted = crypt.encryptUrlSafe("input");
+
+		// a new key gets a new crypt
+		ICrypt otherCrypt = factory.createCrypt(factory.generateKey(tester.getSession()));
+		assertNotSame(crypt, otherCrypt);
+		assertNull(otherCrypt.decryptUrlSafe(encrypted));
+		assertEquals("input", otherCrypt.decryptUrlSafe(otherCrypt.encryptUrlSafe("input")));
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.core.util.lang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.wicket.WicketRuntimeException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ParallelTasks}.
+ */
+class ParallelTasksTest
+{
+	/**
+	 * Failed tasks are reported and do not stop the others.
+	 */
+	@Test
+	void failure()
+	{
+		List<Callable<String>> tasks = new ArrayList<>();
+		tasks.add(() -> "a");
+		tasks.add(() -> {
+			throw new IllegalStateException("b");
+		});
+		tasks.add(() -> "c");
+
+		List<String> failures = new ArrayList<>();
+		List<String> results = ParallelTasks.invokeAll(tasks, 2,
+			(i, cause) -> failures.add(i + ":" + cause.getClass().getSimpleName()));
+
+		assertEquals(Arrays.asList("a", null, "c"), results);
+		assertEquals(Arrays.asList("1:IllegalStateException"), failures);
+	}
+
+	/**
+	 * The interrupt flag is restored.
+	 */
+	@Test
+	void interrupted()
+	{
+		List<Callable<String>> tasks = new ArrayList<>();
+		tasks.add(() -> "a");
+
+		Thread.currentThread().interrupt();
+		try
+		{
+			assertThrows(WicketRuntimeException.class,
+				() -> ParallelTasks.invokeAll(tasks, 1, (i, cause) -> {
+				}));
+			assertTrue(Thread.currentThread().isInterrupted());
+		}
+		finally
+		{
+			Thread.interrupted();
+		}
+	}
+}
@@ -109,6 +109,8 @@ class ApacheLicenceHeaderTest extends ApacheLicenseHeaderTestCase
 		javaScriptIgnore.add("src/test/js/qunit/blanket.min.js");
 		javaScriptIgnore.add("src/test/js/amd/require.js");
 		javaScriptIgnore.add("src/test/js/data/ajax/nonWicketResponse.json"); // no way to add licence in JSON
+		javaScriptIgnore.add("src/test/js/data/ajax/componentId.json"); // no way to add licence in JSON
+		javaScriptIgnore.add("src/test/js/data/ajax/redirectAjaxResponse.json"); // no way to add licence in JSON
 	}
 
 	@BeforeEach
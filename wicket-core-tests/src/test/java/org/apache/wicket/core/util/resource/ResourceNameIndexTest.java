@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.core.util.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+
+import org.apache.wicket.core.util.resource.locator.ResourceStreamLocator;
+import org.apache.wicket.util.resource.IResourceStream;
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ResourceNameIndex}.
+ */
+class ResourceNameIndexTest extends WicketTestCase
+{
+	private static final String FOLDER = "org/apache/wicket/core/util/resource/";
+
+	/**
+	 * Resources in folders are indexed.
+	 */
+	@Test
+	void folder()
+	{
+		ResourceNameIndex index = new ResourceNameIndex(getClass().getClassLoader(), FOLDER)
+			.scan();
+		assertTrue(index.size() > 0);
+
+		assertTrue(index.mayExist(getClass().getClassLoader(), FOLDER + "ResourceStreamLocatorTest_de.txt"));
+		assertFalse(index.mayExist(getClass().getClassLoader(), FOLDER + "ResourceStreamLocatorTest_nl.txt"));
+
+		// not indexed
+		assertTrue(index.mayExist(getClass().getClassLoader(), "org/apache/wicket/Missing.txt"));
+	}
+
+	/**
+	 * Resources in jars are indexed.
+	 */
+	@Test
+	void jar()
+	{
+		ResourceNameIndex index = new ResourceNameIndex(getClass().getClassLoader(),
+			"/org/junit/jupiter/api");
+
+		assertTrue(index.mayExist(getClass().getClassLoader(), "org/junit/jupiter/api/Test.class"));
+		assertFalse(index.mayExist(getClass().getClassLoader(), "org/junit/jupiter/api/Test_de.class"));
+	}
+
+	/**
+	 * Roots which are not found are indexed as empty.
+	 */
+	@Test
+	void missingRoot()
+	{
+		ResourceNameIndex index = new ResourceNameIndex(getClass().getClassLoader(),
+			"does/not/exist");
+
+		assertEquals(0, index.size());
+		assertFalse(index.mayExist(getClass().getClassLoader(), "does/not/exist/Missing.txt"));
+	}
+
+	/**
+	 * Lookups with other class loaders are not answered.
+	 */
+	@Test
+	void otherClassLoader()
+	{
+		ResourceNameIndex index = new ResourceNameIndex(getClass().getClassLoader(), FOLDER);
+
+		ClassLoader other = new ClassLoader(getClass().getClassLoader())
+		{
+		};
+		assertTrue(index.mayExist(other, FOLDER + "ResourceStreamLocatorTest_nl.txt"));
+	}
+
+	/**
+	 * Class loaders with an unknown class path are not indexed.
+	 */
+	@Test
+	void unknownClassPath()
+	{
+		ClassLoader other = new ClassLoader(getClass().getClassLoader())
+		{
+		};
+		ResourceNameIndex index = new ResourceNameIndex(other, FOLDER);
+
+		assertEquals(0, index.size());
+		assertTrue(index.mayExist(other, FOLDER + "ResourceStreamLocatorTest_nl.txt"));
+	}
+
+	/**
+	 * The locator skips missing resources.
+	 */
+	@Test
+	void locate()
+	{
+		ResourceNameIndex index = new ResourceNameIndex(getClass().getClassLoader(), FOLDER);
+		tester.getApplication().getResourceSettings().setResourceNameIndex(index);
+
+		ClassPathResourceFinder finder = new ClassPathResourceFinder("");
+		assertNull(finder.find(getClass(), FOLDER + "ResourceStreamLocatorTest_nl.txt"));
+
+		IResourceStream stream = new ResourceStreamLocator(finder).locate(getClass(),
+			FOLDER + "ResourceStreamLocatorTest", "style", null, new Locale("de", "DE", "POSIX"),
+			"txt", false);
+		assertNotNull(stream);
+		assertEquals(new Locale("de", "DE", "POSIX"), stream.getLocale());
+
+		stream = new ResourceStreamLocator(finder).locate(getClass(),
+			FOLDER + "ResourceStreamLocatorTest", null, null, new Locale("nl"), "txt", false);
+		assertNotNull(stream);
+		assertNull(stream.getLocale());
+
+		index.clear();
+		assertTrue(index.mayExist(getClass().getClassLoader(), FOLDER + "ResourceStreamLocatorTest.txt"));
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.markup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.apache.wicket.markup.parser.XmlTag.TagType;
+import org.apache.wicket.response.StringResponse;
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ComponentTag}.
+ */
+class ComponentTagTest extends WicketTestCase
+{
+	/**
+	 * Output of immutable tags is cached, changed copies are written as changed.
+	 */
+	@Test
+	void writeOutput()
+	{
+		Markup markup = Markup.of("<span wicket:id=\"a\" class=\"x &amp; y\">b</span>");
+		ComponentTag tag = (ComponentTag)markup.get(0);
+
+		assertEquals("<span wicket:id=\"a\" class=\"x &amp; y\">", write(tag, false));
+		assertEquals("<span class=\"x &amp; y\">", write(tag, true));
+
+		ComponentTag copy = tag.mutable();
+		assertEquals("<span class=\"x &amp; y\">", write(copy, true));
+
+		copy.put("class", "z");
+		assertEquals("<span class=\"z\">", write(copy, true));
+
+		copy.put("class", "x & y");
+		assertEquals("<span class=\"x &amp; y\">", write(copy, true));
+
+		copy.setType(TagType.OPEN_CLOSE);
+		assertEquals("<span class=\"x &amp; y\"/>", write(copy, true));
+
+		assertEquals("</span>", write((ComponentTag)markup.get(2), true));
+	}
+
+	/**
+	 * Changes of a mutable copy are kept on top of the shared attributes, in the order of a map.
+	 */
+	@Test
+	void changedAttributes()
+	{
+		Markup markup = Markup.of("<span wicket:id=\"a\" class=\"x\" title=\"t\">b</span>");
+		ComponentTag tag = (ComponentTag)markup.get(0);
+
+		ComponentTag copy = tag.mutable();
+		assertTrue(copy.getXmlTag().hasEqualAttributes(tag.getXmlTag()));
+		assertEquals("x", copy.getAttribute("class"));
+
+		copy.put("class", "y");
+		copy.remove("title");
+		copy.put("style", "s");
+		copy.put("alt", "a");
+		copy.remove("alt");
+		assertEquals("y", copy.getAttribute("class"));
+		assertNull(copy.getAttribute("title"));
+		assertFalse(copy.getXmlTag().hasEqualAttributes(tag.getXmlTag()));
+		assertEquals("<span class=\"y\" style=\"s\">", write(copy, true));
+
+		// removed and put again moves to the end
+		copy.put("title", "u");
+		assertEquals("<span class=\"y\" style=\"s\" title=\"u\">", write(copy, true));
+
+		// original is untouched
+		assertEquals("<span class=\"x\" title=\"t\">", write(tag, true));
+
+		// the attribute map has the same order
+		assertEquals(Arrays.asList("wicket:id", "class", "style", "title"),
+			new ArrayList<>(copy.getAttributes().keySet()));
+		assertEquals("<span class=\"y\" style=\"s\" title=\"u\">", write(copy, true));
+
+		copy.remove("wicket:id");
+		copy.remove("class");
+		copy.remove("style");
+		copy.remove("title");
+		assertFalse(copy.getXmlTag().hasAttributes());
+	}
+
+	/**
+	 * Removing all shared attributes leaves no attributes.
+	 */
+	@Test
+	void removedAttributes()
+	{
+		Markup markup = Markup.of("<span wicket:id=\"a\" class=\"x\">b</span>");
+		ComponentTag copy = ((ComponentTag)markup.get(0)).mutable();
+
+		copy.remove("wicket:id");
+		copy.remove("class");
+		assertFalse(copy.getXmlTag().hasAttributes());
+		assertEquals("<span>", write(copy, true));
+
+		copy.put("class", "z");
+		assertTrue(copy.getXmlTag().hasAttributes());
+
+		copy.makeImmutable();
+		assertEquals(Arrays.asList("class"), new ArrayList<>(copy.getAttributes().keySet()));
+	}
+
+	private String write(ComponentTag tag, boolean strip)
+	{
+		StringResponse response = new StringResponse();
+		tag.writeOutput(response, strip, "wicket");
+		return response.toString();
+	}
+}
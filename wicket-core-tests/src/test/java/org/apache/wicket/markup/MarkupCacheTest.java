@@ -16,13 +16,17 @@
  */
 package org.apache.wicket.markup;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import org.apache.wicket.Application;
 import org.apache.wicket.MarkupContainer;
 import org.apache.wicket.markup.html.panel.Panel;
+import org.apache.wicket.util.lang.Bytes;
 import org.apache.wicket.util.resource.IResourceStream;
 import org.apache.wicket.util.resource.StringResourceStream;
 import org.apache.wicket.util.tester.WicketTestCase;
@@ -91,6 +95,62 @@ class MarkupCacheTest extends WicketTestCase
 		assertNull(markup);
 	}
 
+	/**
+	 * Least recently used entries are evicted by weight.
+	 */
+	@Test
+	void boundedCache()
+	{
+		MarkupCache.BoundedCacheImplementation<String, String> bounded = new MarkupCache.BoundedCacheImplementation<>(
+			150);
+
+		bounded.put("a", "aaaaaaaaaa");
+		bounded.put("b", "bbbbbbbbbb");
+		assertEquals(120, bounded.getWeight());
+
+		bounded.get("a");
+		bounded.put("c", "cccccccccc");
+
+		assertNotNull(bounded.get("a"));
+		assertNull(bounded.get("b"));
+		assertNotNull(bounded.get("c"));
+		assertEquals(120, bounded.getWeight());
+		assertEquals(1, bounded.getEvictionCount());
+		assertEquals(3, bounded.getHitCount());
+		assertEquals(1, bounded.getMissCount());
+
+		// too large
+		bounded.put("d", "d".repeat(100));
+		assertNull(bounded.get("d"));
+
+		assertTrue(bounded.remove("a"));
+		bounded.clear();
+		assertEquals(0, bounded.size());
+		assertEquals(0, bounded.getWeight());
+	}
+
+	/**
+	 * A bounded cache keeps markup and non-existing markup.
+	 */
+	@Test
+	void boundedMarkupCache()
+	{
+		Application.get().getMarkupSettings().setMarkupCacheSize(Bytes.kilobytes(100));
+		cache = new MarkupCache();
+		assertInstanceOf(MarkupCache.BoundedCacheImplementation.class, cache.getMarkupCache());
+
+		tester.startPage(MarkupInheritanceExtension_1.class);
+		tester.assertRenderedPage(MarkupInheritanceExtension_1.class);
+
+		MarkupCache.BoundedCacheImplementation<String, Markup> markupCache = (MarkupCache.BoundedCacheImplementation<String, Markup>)cache.getMarkupCache();
+		assertTrue(markupCache.size() > 0);
+		assertTrue(markupCache.getWeight() > 0);
+
+		component = new MarkupCachingAssumingComponent("panel");
+		tester.startComponentInPage(component);
+		assertNotNull(cache.getMarkup(component, null, false));
+	}
+
 	private static class MarkupCachingAssumingComponent extends Panel
 		implements
 			IMarkupResourceStreamProvider
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.markup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MarkupPreloader}.
+ */
+class MarkupPreloaderTest extends WicketTestCase
+{
+	/**
+	 * Preloaded markup is used for rendering.
+	 */
+	@Test
+	void preload()
+	{
+		tester.getApplication().mountPage("extension1", MarkupInheritanceExtension_1.class);
+		tester.getApplication().mountPage("extension10", MarkupInheritanceExtension_10.class);
+
+		Locale locale = tester.getSession().getLocale();
+
+		Map<String, Duration> durations = new MarkupPreloader(tester.getApplication())
+			.addMountedPages()
+			.addContainer(MarkupInheritanceExtensionPanel_6.class)
+			.addLocale(locale)
+			.addLocale(Locale.GERMAN)
+			.preload(4);
+
+		assertTrue(durations.containsKey(MarkupInheritanceExtension_1.class.getName() + "_" + locale));
+		assertTrue(durations.containsKey(MarkupInheritanceExtension_10.class.getName() + "_" + locale));
+		assertTrue(durations.containsKey(
+			MarkupInheritanceExtensionPanel_6.class.getName() + "_" + Locale.GERMAN));
+
+		IMarkupCache cache = MarkupCache.get();
+		int size = cache.size();
+		assertTrue(size > 0);
+
+		tester.startPage(MarkupInheritanceExtension_1.class);
+		tester.assertRenderedPage(MarkupInheritanceExtension_1.class);
+		tester.startPage(MarkupInheritanceExtension_10.class);
+		tester.assertRenderedPage(MarkupInheritanceExtension_10.class);
+
+		// nothing more loaded
+		assertEquals(size, cache.size());
+	}
+}
@@ -21,6 +21,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.apache.wicket.markup.parser.XmlTag.TagType;
+import org.apache.wicket.util.resource.StringResourceStream;
 import org.apache.wicket.util.tester.WicketTestCase;
 import org.junit.jupiter.api.Test;
 
@@ -163,4 +165,31 @@ class MarkupTest extends WicketTestCase
 		 */
 		assertNull(markup.find("c5"));
 	}
+
+	/**
+	 * Directly following raw markup is merged.
+	 */
+	@Test
+	void rawMarkupRuns()
+	{
+		Markup markup = new Markup(new MarkupResourceStream(new StringResourceStream("")));
+		markup.addMarkupElement(new RawMarkup("<p>"));
+		markup.addMarkupElement(new RawMarkup("<img src=\"foo\">"));
+		markup.addMarkupElement(new ComponentTag("span", TagType.OPEN_CLOSE));
+		markup.addMarkupElement(new RawMarkup("</p>"));
+		markup.makeImmutable();
+
+		MarkupStream stream = new MarkupStream(markup);
+		assertEquals("<p><img src=\"foo\">", stream.nextRawMarkupRun());
+		assertEquals(2, stream.getCurrentIndex());
+
+		// nothing to merge
+		assertNull(stream.nextRawMarkupRun());
+		stream.next();
+		assertNull(stream.nextRawMarkupRun());
+		assertEquals(3, stream.getCurrentIndex());
+
+		stream.setCurrentIndex(1);
+		assertNull(stream.nextRawMarkupRun());
+	}
 }
@@ -18,10 +18,19 @@ package org.apache.wicket.markup.html;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.apache.wicket.Application;
 import org.apache.wicket.SharedResources;
@@ -29,7 +38,9 @@ import org.apache.wicket.protocol.http.WebApplication;
 import org.apache.wicket.request.resource.JavaScriptPackageResource;
 import org.apache.wicket.request.resource.PackageResource;
 import org.apache.wicket.request.resource.PackageResourceReference;
+import org.apache.wicket.request.resource.ProcessedResourceCache;
 import org.apache.wicket.request.resource.ResourceReference;
+import org.apache.wicket.util.lang.Bytes;
 import org.apache.wicket.util.lang.Packages;
 import org.apache.wicket.util.tester.WicketTestCase;
 import org.junit.jupiter.api.BeforeEach;
@@ -193,4 +204,111 @@ public class PackageResourceTest extends WicketTestCase
 		final String contentType = tester.getLastResponse().getContentType();
 		assertEquals("text/javascript; charset=" + encoding, contentType);
 	}
+
+	/**
+	 * Processed contents are cached with an entity tag if a cache is set.
+	 */
+	@Test
+	void processedContentsCached()
+	{
+		final AtomicInteger processed = new AtomicInteger();
+		final PackageResource resource = new PackageResource(PackageResourceTest.class,
+			"packaged1.txt", null, null, null)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected byte[] processResponse(Attributes attributes, byte[] original)
+			{
+				processed.incrementAndGet();
+				return original;
+			}
+		};
+
+		// not cached by default
+		tester.startResource(resource);
+		tester.startResource(resource);
+		assertEquals(2, processed.get());
+		processed.set(0);
+
+		tester.getApplication()
+			.getResourceSettings()
+			.setProcessedResourceCache(new ProcessedResourceCache(Bytes.megabytes(1)));
+
+		tester.startResource(resource);
+		String etag = tester.getLastResponse().getHeader("ETag");
+		assertNotNull(etag);
+		String content = tester.getLastResponseAsString();
+
+		tester.startResource(resource);
+		assertEquals(etag, tester.getLastResponse().getHeader("ETag"));
+		assertEquals(content, tester.getLastResponseAsString());
+		assertEquals(1, processed.get());
+
+		tester.getRequest().setHeader("If-None-Match", etag);
+		tester.startResource(resource);
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, tester.getLastResponse().getStatus());
+		assertEquals(1, processed.get());
+	}
+
+	/**
+	 * Processed contents are written in gzip encoding if enabled and accepted.
+	 */
+	@Test
+	void gzipEncoding() throws Exception
+	{
+		final PackageResource resource = new PackageResource(PackageResourceTest.class,
+			"packaged1.txt", null, null, null)
+		{
+			private static final long serialVersionUID = 1L;
+		};
+
+		tester.getRequest().setHeader("Accept-Encoding", "gzip");
+		tester.startResource(resource);
+		assertNull(tester.getLastResponse().getHeader("Content-Encoding"));
+		assertNull(tester.getLastResponse().getHeader("Vary"));
+
+		tester.getApplication()
+			.getResourceSettings()
+			.setProcessedResourceCache(new ProcessedResourceCache(Bytes.megabytes(1)))
+			.setUseGzipEncoding(true);
+		tester.startResource(resource);
+		String identity = tester.getLastResponseAsString();
+		String etag = tester.getLastResponse().getHeader("ETag");
+		assertEquals("Accept-Encoding", tester.getLastResponse().getHeader("Vary"));
+
+		tester.getRequest().setHeader("Accept-Encoding", "deflate, gzip;q=0.5");
+		tester.startResource(resource);
+		assertEquals("gzip", tester.getLastResponse().getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", tester.getLastResponse().getHeader("Vary"));
+		String gzipEtag = tester.getLastResponse().getHeader("ETag");
+		assertNotEquals(etag, gzipEtag);
+
+		byte[] gzip = tester.getLastResponse().getBinaryContent();
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip)))
+		{
+			assertEquals(identity, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+		}
+
+		tester.getRequest().setHeader("Accept-Encoding", "gzip");
+		tester.getRequest().setHeader("If-None-Match", gzipEtag);
+		tester.startResource(resource);
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, tester.getLastResponse().getStatus());
+
+		tester.getRequest().setHeader("Accept-Encoding", "gzip;q=0");
+		tester.startResource(resource);
+		assertNull(tester.getLastResponse().getHeader("Content-Encoding"));
+		assertEquals(identity, tester.getLastResponseAsString());
+
+		tester.getRequest().setHeader("Accept-Encoding", "gzip");
+		tester.getRequest().setHeader("Range", "bytes=0-1");
+		tester.startResource(resource);
+		assertNull(tester.getLastResponse().getHeader("Content-Encoding"));
+
+		tester.getApplication().getResourceSettings().setUseGzipEncoding(false);
+		tester.getRequest().setHeader("Accept-Encoding", "gzip");
+		tester.startResource(resource);
+		assertNull(tester.getLastResponse().getHeader("Content-Encoding"));
+		assertNull(tester.getLastResponse().getHeader("Vary"));
+	}
 }
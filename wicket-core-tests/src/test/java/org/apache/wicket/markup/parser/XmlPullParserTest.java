@@ -20,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.UnsupportedEncodingException;
@@ -486,4 +487,32 @@ class XmlPullParserTest
 		type = parser.next();
 		assertEquals(HttpTagType.CONDITIONAL_COMMENT_ENDIF, type);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Names are shared between parsed tags.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	void internNames() throws Exception
+	{
+		final XmlPullParser parser = new XmlPullParser();
+		parser.parse("<wicket:panel><span class='a'></span><span class='b'></span></wicket:panel>");
+
+		parser.next();
+		XmlTag panel = parser.getElement();
+		assertEquals("panel", panel.getName());
+		assertEquals("wicket", panel.getNamespace());
+
+		parser.next();
+		XmlTag span1 = parser.getElement();
+		parser.next();
+		parser.next();
+		XmlTag span2 = parser.getElement();
+
+		assertSame(span1.getName(), span2.getName());
+		assertSame(span1.getAttributes().keySet().iterator().next(),
+			span2.getAttributes().keySet().iterator().next());
+		assertEquals("b", span2.getAttribute("class"));
+	}
+}
@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.page;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.wicket.MockPage;
+import org.apache.wicket.core.util.lang.WicketObjects;
+import org.apache.wicket.mock.MockPageManager;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link FairPageLockManager}.
+ */
+class FairPageLockManagerTest
+{
+	/**
+	 * Locks are granted in order of waiting.
+	 */
+	@Test
+	void fifo() throws Exception
+	{
+		FairPageLockManager manager = new FairPageLockManager(Duration.ofSeconds(10));
+		manager.lockPage(1);
+
+		List<String> order = new CopyOnWriteArrayList<>();
+		Thread[] threads = new Thread[3];
+		for (int t = 0; t < threads.length; t++)
+		{
+			String name = "locker" + t;
+			threads[t] = new Thread(() -> {
+				manager.lockPage(1);
+				order.add(name);
+				manager.unlockAllPages();
+			}, name);
+			threads[t].start();
+
+			awaitParked(threads[t]);
+		}
+
+		manager.unlockPage(1);
+
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+
+		assertEquals(List.of("locker0", "locker1", "locker2"), order);
+		assertTrue(manager.getLocks().isEmpty());
+
+		assertEquals(4, manager.getWaitTimes().getCount());
+		assertEquals(4, manager.getWaitTimes(1).getCount());
+	}
+
+	/**
+	 * A lock is reentrant and released at once.
+	 */
+	@Test
+	void reentrant()
+	{
+		FairPageLockManager manager = new FairPageLockManager(Duration.ofSeconds(1));
+		manager.lockPage(1);
+		manager.lockPage(1);
+
+		manager.unlockPage(1);
+
+		assertTrue(manager.getLocks().isEmpty());
+	}
+
+	/**
+	 * Waiting for a lock times out.
+	 */
+	@Test
+	void timeout() throws Exception
+	{
+		FairPageLockManager manager = new FairPageLockManager(Duration.ofMillis(100));
+		manager.lockPage(1);
+
+		CouldNotLockPageException[] exception = new CouldNotLockPageException[1];
+		Thread thread = new Thread(() -> {
+			try
+			{
+				manager.lockPage(1);
+			}
+			catch (CouldNotLockPageException ex)
+			{
+				exception[0] = ex;
+			}
+		});
+		thread.start();
+		thread.join();
+
+		assertNotNull(exception[0]);
+		assertEquals(1, exception[0].getPage());
+
+		// waiter was removed
+		manager.unlockPage(1);
+		assertTrue(manager.getLocks().isEmpty());
+	}
+
+	/**
+	 * An older duplicate request is dropped in favor of the newer one.
+	 */
+	@Test
+	void dropDuplicates() throws Exception
+	{
+		FairPageLockManager manager = new FairPageLockManager(Duration.ofSeconds(10), true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected Object getRequestKey(int pageId)
+			{
+				return "behavior".equals(Thread.currentThread().getName()) ? "behavior" : null;
+			}
+		};
+		manager.lockPage(1);
+
+		List<String> order = new CopyOnWriteArrayList<>();
+		CouldNotLockPageException[] exception = new CouldNotLockPageException[1];
+		Thread older = new Thread(() -> {
+			try
+			{
+				manager.lockPage(1);
+				order.add("older");
+				manager.unlockAllPages();
+			}
+			catch (CouldNotLockPageException ex)
+			{
+				exception[0] = ex;
+			}
+		}, "behavior");
+		older.start();
+		awaitParked(older);
+
+		Thread other = new Thread(() -> {
+			manager.lockPage(1);
+			order.add("other");
+			manager.unlockAllPages();
+		}, "other");
+		other.start();
+		awaitParked(other);
+
+		// another thread with the same key
+		Thread newer = new Thread(() -> {
+			manager.lockPage(1);
+			order.add("newer");
+			manager.unlockAllPages();
+		}, "behavior");
+		newer.start();
+
+		older.join();
+		assertNotNull(exception[0]);
+
+		awaitParked(newer);
+		manager.unlockPage(1);
+		other.join();
+		newer.join();
+
+		// newer took the place of older
+		assertEquals(List.of("newer", "other"), order);
+		assertTrue(manager.getLocks().isEmpty());
+	}
+
+	/**
+	 * An interrupted thread stops waiting.
+	 */
+	@Test
+	void interrupt() throws Exception
+	{
+		FairPageLockManager manager = new FairPageLockManager(Duration.ofSeconds(10));
+		manager.lockPage(1);
+
+		CouldNotLockPageException[] exception = new CouldNotLockPageException[1];
+		boolean[] interrupted = new boolean[1];
+		Thread thread = new Thread(() -> {
+			try
+			{
+				manager.lockPage(1);
+			}
+			catch (CouldNotLockPageException ex)
+			{
+				exception[0] = ex;
+				interrupted[0] = Thread.currentThread().isInterrupted();
+			}
+		});
+		thread.start();
+		awaitParked(thread);
+
+		thread.interrupt();
+		thread.join(5000);
+
+		assertNotNull(exception[0]);
+		assertTrue(interrupted[0]);
+
+		// waiter was removed
+		manager.unlockPage(1);
+		assertTrue(manager.getLocks().isEmpty());
+	}
+
+	/**
+	 * Works with {@link PageAccessSynchronizer#adapt(IPageManager)}.
+	 */
+	@Test
+	void adapt()
+	{
+		FairPageLockManager manager = new FairPageLockManager(Duration.ofSeconds(2));
+		IPageManager pageManager = new PageAccessSynchronizer(manager).adapt(new MockPageManager());
+
+		pageManager.getPage(0);
+		assertNull(manager.getLocks().get(0));
+
+		IManageablePage page = new MockPage(1);
+		pageManager.touchPage(page);
+		pageManager.getPage(1);
+		assertNotNull(manager.getLocks().get(1));
+
+		pageManager.detach();
+		assertTrue(manager.getLocks().isEmpty());
+	}
+
+	/**
+	 * Locks are not serialized.
+	 */
+	@Test
+	void serialize()
+	{
+		FairPageLockManager manager = new FairPageLockManager(Duration.ofSeconds(2));
+		manager.lockPage(1);
+
+		FairPageLockManager clone = WicketObjects.cloneObject(manager);
+		assertTrue(clone.getLocks().isEmpty());
+		assertEquals(1, clone.getWaitTimes().getCount());
+	}
+
+	private void awaitParked(Thread thread) throws InterruptedException
+	{
+		while (thread.getState() != Thread.State.TIMED_WAITING)
+		{
+			Thread.sleep(1);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.page;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.apache.wicket.mock.MockWebResponse;
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+import com.github.openjson.JSONArray;
+
+/**
+ * Test for {@link JsonPartialPageUpdate}.
+ */
+class JsonPartialPageUpdateTest extends WicketTestCase
+{
+	/**
+	 * Components and header contributions are written as entries.
+	 */
+	@Test
+	void writeEntries()
+	{
+		PageForPartialUpdate page = new PageForPartialUpdate();
+
+		JsonPartialPageUpdate update = new JsonPartialPageUpdate(page);
+		update.add(page.container, page.container.getMarkupId());
+		update.appendJavaScript("var a = \"b\";");
+
+		MockWebResponse response = new MockWebResponse();
+		update.setContentType(response, "UTF-8");
+		update.writeTo(response, "UTF-8");
+
+		assertEquals("application/json; charset=UTF-8", response.getContentType());
+
+		String json = response.getTextResponse().toString();
+		JSONArray entries = new JSONArray(json);
+		assertEquals(3, entries.length());
+
+		assertEquals("container1", entries.getJSONObject(0).getString("c"));
+		assertEquals(
+			"<span wicket:id=\"container\" id=\"container1\"> two brackets: ]] greater than: > CDATA end: ]]> </span>",
+			entries.getJSONObject(0).getString("m"));
+
+		assertEquals("<head xmlns:wicket=\"http://wicket.apache.org\"><script type=\"text/javascript\">\n" +
+			"/*<![CDATA[*/\n" + "// two brackets: ]] greater than: > CDATA end: ]]>\n" + "/*]]>*/\n" +
+			"</script>\n" + "</head>", entries.getJSONObject(1).getString("h"));
+
+		assertEquals(true, entries.getJSONObject(2).getString("e").contains("var a = \"b\";"));
+
+		// streamed the same
+		page = new PageForPartialUpdate();
+		update = new JsonPartialPageUpdate(page);
+		update.setStreaming(true);
+		update.add(page.container, page.container.getMarkupId());
+		update.appendJavaScript("var a = \"b\";");
+		response = new MockWebResponse();
+		update.writeTo(response, "UTF-8");
+		assertEquals(json.replace("container1", page.container.getMarkupId()),
+			response.getTextResponse().toString());
+	}
+
+	/**
+	 * Special characters are encoded.
+	 */
+	@Test
+	void encode()
+	{
+		JsonPartialPageUpdate update = new JsonPartialPageUpdate(new PageForPartialUpdate());
+
+		String plain = "<span id='a'>b</span>";
+		assertSame(plain, update.encode(plain));
+
+		assertEquals("a\\\"b\\\\c\\nd\\te\\u0001f", update.encode("a\"b\\c\nd\te\u0001f").toString());
+	}
+}
@@ -20,6 +20,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import org.apache.wicket.Component;
+import org.apache.wicket.markup.ComponentTag;
+import org.apache.wicket.markup.MarkupStream;
+import org.apache.wicket.markup.html.WebMarkupContainer;
 import org.apache.wicket.markup.html.basic.Label;
 import org.apache.wicket.markup.parser.filter.HtmlHeaderSectionHandler;
 import org.apache.wicket.mock.MockWebResponse;
@@ -55,6 +58,48 @@ class XmlPartialPageUpdateTest extends WicketTestCase
 				"</script>\n" + 
 				"</head>]]></header-contribution></ajax-response>";
 		assertEquals(expected, response.getTextResponse().toString());
+
+		// streamed the same
+		page = new PageForPartialUpdate();
+		update = new XmlPartialPageUpdate(page);
+		update.setStreaming(true);
+		update.add(page.container, page.container.getMarkupId());
+		response = new MockWebResponse();
+		update.writeTo(response, "UTF-8");
+		assertEquals(expected.replace("container1", page.container.getMarkupId()),
+			response.getTextResponse().toString());
+	}
+
+	/**
+	 * CData end is encoded when streamed in several writes.
+	 */
+	@Test
+	void encodeStreamedCdataEnd()
+	{
+		PageForPartialUpdate page = new PageForPartialUpdate();
+		page.replace(new WebMarkupContainer("container")
+		{
+			@Override
+			public void onComponentTagBody(MarkupStream markupStream, ComponentTag openTag)
+			{
+				getResponse().write("]");
+				getResponse().write("]");
+				getResponse().write(">]]]");
+				replaceComponentTagBody(markupStream, openTag, ">");
+			}
+		}.setOutputMarkupId(true));
+
+		XmlPartialPageUpdate update = new XmlPartialPageUpdate(page);
+		update.setStreaming(true);
+		update.add(page.get("container"), "container1");
+
+		MockWebResponse response = new MockWebResponse();
+		update.writeTo(response, "UTF-8");
+
+		assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?><ajax-response>" +
+			"<component id=\"container1\" ><![CDATA[<span wicket:id=\"container\" id=\"container1\">" +
+			"]]]]><![CDATA[>]]]]]><![CDATA[></span>]]></component></ajax-response>",
+			response.getTextResponse().toString());
 	}
 	
 	/**
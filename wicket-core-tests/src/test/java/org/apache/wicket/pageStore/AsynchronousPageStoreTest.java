@@ -165,6 +165,82 @@ public class AsynchronousPageStoreTest
 		store.destroy();
 	}
 
+	/**
+	 * Store passes pending pages in batches, dropping superseded adds of the same page.
+	 *
+	 * @throws InterruptedException
+	 */
+	@Test
+	void storeBatchesAndCoalescesPendingPages() throws InterruptedException
+	{
+		final CountDownLatch adding = new CountDownLatch(1);
+		final Semaphore semaphore = new Semaphore(0);
+		final List<List<IManageablePage>> batches = new ArrayList<>();
+
+		IPageStore store = new NoopPageStore() {
+
+			@Override
+			public void addPage(IPageContext context, IManageablePage page)
+			{
+				addPages(context, List.of(page));
+			}
+
+			@Override
+			public void addPages(IPageContext context, List<IManageablePage> pages)
+			{
+				adding.countDown();
+				try
+				{
+					// wait until further pages were added below
+					semaphore.acquire();
+				}
+				catch (InterruptedException e)
+				{
+				}
+
+				synchronized (batches)
+				{
+					batches.add(new ArrayList<>(pages));
+				}
+			}
+		};
+
+		AsynchronousPageStore asyncPageStore = new AsynchronousPageStore(store, 100, 2, 10);
+
+		IPageContext context = new MockPageContext("sessionId");
+
+		SerializedPage page0 = new SerializedPage(0, "", new byte[0]);
+		SerializedPage page1 = new SerializedPage(1, "", new byte[0]);
+		SerializedPage page2 = new SerializedPage(2, "", new byte[0]);
+		SerializedPage page1b = new SerializedPage(1, "", new byte[1]);
+
+		asyncPageStore.addPage(context, page0);
+		assertTrue(adding.await(5, TimeUnit.SECONDS));
+
+		asyncPageStore.addPage(context, page1);
+		asyncPageStore.addPage(context, page2);
+		asyncPageStore.addPage(context, page1b);
+		assertEquals(3, asyncPageStore.getQueueSize());
+		assertEquals(page1b, asyncPageStore.getPage(context, 1));
+
+		semaphore.release(2);
+
+		long start = System.currentTimeMillis();
+		while (asyncPageStore.getBatchedPageCount() < 3 && System.currentTimeMillis() - start < 5000)
+		{
+			Thread.sleep(10);
+		}
+
+		assertEquals(2, asyncPageStore.getBatchCount());
+		assertEquals(3, asyncPageStore.getBatchedPageCount());
+		assertEquals(1, asyncPageStore.getCoalescedPageCount());
+		assertEquals(0, asyncPageStore.getSynchronousPageCount());
+		assertEquals(List.of(page0), batches.get(0));
+		assertEquals(List.of(page2, page1b), batches.get(1));
+
+		asyncPageStore.destroy();
+	}
+
 	/**
 	 * Store returns the restored page instance from wrapped store when there is a distant request
 	 * for it back again.
@@ -416,7 +492,7 @@ public class AsynchronousPageStoreTest
 				assertEquals("value1", context.getSessionAttribute("key1", () -> null));
 				// .. but nothing new
 				try {
-					context.getSessionAttribute("key2", () -> null);
+					context.getSessionAttribute("key2", () -> "value2");
 					asyncFail.set(new Exception().fillInStackTrace());
 				} catch (WicketRuntimeException expected) {
 				}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.pageStore;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.wicket.mock.MockPageContext;
+import org.apache.wicket.page.IManageablePage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link DeltaPageStore}.
+ */
+class DeltaPageStoreTest
+{
+	private final InMemoryPageStore persistent = new InMemoryPageStore("test", Integer.MAX_VALUE);
+
+	@AfterEach
+	void destroy()
+	{
+		persistent.destroy();
+	}
+
+	/**
+	 * Pages are stored as deltas and restored completely.
+	 */
+	@Test
+	void store()
+	{
+		DeltaPageStore store = new DeltaPageStore(persistent, 5);
+		IPageContext context = new MockPageContext();
+
+		byte[] data = new byte[10000];
+		new Random(42).nextBytes(data);
+
+		for (int p = 0; p < 10; p++)
+		{
+			data = data.clone();
+			data[p * 100] = (byte)p;
+			store.addPage(context, new SerializedPage(p, "foo", data));
+
+			SerializedPage got = (SerializedPage)store.getPage(context, p);
+			assertEquals(p, got.getPageId());
+			assertEquals("foo", got.getPageType());
+			assertArrayEquals(data, got.getData());
+		}
+
+		List<IPersistedPage> persisted = persistent
+			.getPersistedPages(persistent.getSessionIdentifier(context));
+
+		// 10 pages and 2 bases
+		assertEquals(12, persisted.size());
+		for (IPersistedPage page : persisted)
+		{
+			assertEquals(10000, page.getLogicalSize().bytes());
+			if (page.getPageId() < 10 && page.getPageId() != 0 && page.getPageId() != 6)
+			{
+				assertTrue(page.getPageSize().bytes() < 100, "delta " + page.getPageSize());
+			}
+		}
+	}
+
+	/**
+	 * Re-adding a page keeps later pages intact.
+	 */
+	@Test
+	void readd()
+	{
+		DeltaPageStore store = new DeltaPageStore(persistent);
+		IPageContext context = new MockPageContext();
+
+		byte[] data0 = new byte[1000];
+		new Random(42).nextBytes(data0);
+		store.addPage(context, new SerializedPage(0, "foo", data0));
+
+		byte[] data1 = data0.clone();
+		data1[0]++;
+		store.addPage(context, new SerializedPage(1, "foo", data1));
+
+		byte[] data0changed = data0.clone();
+		data0changed[999]++;
+		store.addPage(context, new SerializedPage(0, "foo", data0changed));
+
+		assertArrayEquals(data0changed, ((SerializedPage)store.getPage(context, 0)).getData());
+		assertArrayEquals(data1, ((SerializedPage)store.getPage(context, 1)).getData());
+	}
+
+	/**
+	 * Pages without similarity are stored with a new base.
+	 */
+	@Test
+	void rebase()
+	{
+		DeltaPageStore store = new DeltaPageStore(persistent);
+		IPageContext context = new MockPageContext();
+
+		Random random = new Random(42);
+		for (int p = 0; p < 3; p++)
+		{
+			byte[] data = new byte[1000];
+			random.nextBytes(data);
+			store.addPage(context, new SerializedPage(p, "foo", data));
+
+			assertArrayEquals(data, ((SerializedPage)store.getPage(context, p)).getData());
+		}
+
+		// 3 complete pages
+		assertEquals(3,
+			persistent.getPersistedPages(persistent.getSessionIdentifier(context)).size());
+	}
+
+	/**
+	 * A delta without its base cannot be restored, a page stored completely can.
+	 */
+	@Test
+	void baseRemoved()
+	{
+		DeltaPageStore store = new DeltaPageStore(persistent);
+		IPageContext context = new MockPageContext();
+
+		store.addPage(context, new SerializedPage(0, "foo", new byte[1000]));
+		store.addPage(context, new SerializedPage(1, "foo", new byte[1000]));
+
+		// new base for same type
+		byte[] data = new byte[1000];
+		new Random(42).nextBytes(data);
+		store.addPage(context, new SerializedPage(2, "foo", data));
+
+		persistent.removePage(context, new SerializedPage(Integer.MAX_VALUE, new byte[0]));
+
+		assertArrayEquals(new byte[1000], ((SerializedPage)store.getPage(context, 0)).getData());
+		assertNull(store.getPage(context, 1));
+		assertArrayEquals(data, ((SerializedPage)store.getPage(context, 2)).getData());
+	}
+
+	/**
+	 * Deltas are created and restored without reading the current base from the delegate.
+	 */
+	@Test
+	void baseInMemory()
+	{
+		AtomicInteger reads = new AtomicInteger();
+		DeltaPageStore store = new DeltaPageStore(new DelegatingPageStore(persistent)
+		{
+			@Override
+			public IManageablePage getPage(IPageContext context, int id)
+			{
+				reads.incrementAndGet();
+				return super.getPage(context, id);
+			}
+		});
+		IPageContext context = new MockPageContext();
+
+		byte[] data = new byte[1000];
+		new Random(42).nextBytes(data);
+		for (int p = 0; p < 5; p++)
+		{
+			store.addPage(context, new SerializedPage(p, "foo", data));
+		}
+		assertEquals(0, reads.get());
+
+		// the current base is not read from the delegate
+		assertArrayEquals(data, ((SerializedPage)store.getPage(context, 4)).getData());
+		assertEquals(1, reads.get());
+	}
+
+	/**
+	 * Bases are removed with the last page referring to them.
+	 */
+	@Test
+	void removeOrphanedBases()
+	{
+		DeltaPageStore store = new DeltaPageStore(persistent, 1);
+		IPageContext context = new MockPageContext();
+
+		byte[] data = new byte[1000];
+		new Random(42).nextBytes(data);
+
+		// complete page
+		store.addPage(context, new SerializedPage(0, "foo", data));
+		// base and delta
+		store.addPage(context, new SerializedPage(1, "foo", data));
+		// complete page as new base
+		store.addPage(context, new SerializedPage(2, "foo", data));
+		assertEquals(4,
+			persistent.getPersistedPages(persistent.getSessionIdentifier(context)).size());
+
+		store.removePage(context, new SerializedPage(0, new byte[0]));
+		assertEquals(3,
+			persistent.getPersistedPages(persistent.getSessionIdentifier(context)).size());
+
+		// first base is no longer referred to
+		store.removePage(context, new SerializedPage(1, new byte[0]));
+		assertEquals(1,
+			persistent.getPersistedPages(persistent.getSessionIdentifier(context)).size());
+
+		// base and delta
+		store.removePage(context, new SerializedPage(2, new byte[0]));
+		store.addPage(context, new SerializedPage(3, "foo", data));
+		assertEquals(2,
+			persistent.getPersistedPages(persistent.getSessionIdentifier(context)).size());
+
+		// current base is kept, although no longer referred to
+		store.addPage(context, new SerializedPage(3, "bar", new byte[1000]));
+		assertArrayEquals(new byte[1000], ((SerializedPage)store.getPage(context, 3)).getData());
+		assertEquals(2,
+			persistent.getPersistedPages(persistent.getSessionIdentifier(context)).size());
+
+		// superseded base is removed
+		store.addPage(context, new SerializedPage(4, "foo", new byte[1000]));
+		assertEquals(2,
+			persistent.getPersistedPages(persistent.getSessionIdentifier(context)).size());
+	}
+
+	/**
+	 * Pages not encoded by the store are passed through.
+	 */
+	@Test
+	void notEncoded()
+	{
+		DeltaPageStore store = new DeltaPageStore(persistent);
+		IPageContext context = new MockPageContext();
+
+		byte[] data = new byte[] { 2, 0, 0, 0, 0, 1, 2, 3 };
+		persistent.addPage(context, new SerializedPage(0, "foo", data));
+
+		assertArrayEquals(data, ((SerializedPage)store.getPage(context, 0)).getData());
+	}
+}
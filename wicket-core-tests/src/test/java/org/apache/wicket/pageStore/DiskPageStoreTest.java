@@ -16,10 +16,17 @@
  */
 package org.apache.wicket.pageStore;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
 
+import org.apache.wicket.mock.MockPageContext;
 import org.apache.wicket.util.WicketTestTag;
 import org.apache.wicket.util.lang.Bytes;
 import org.junit.jupiter.api.Tag;
@@ -48,4 +55,81 @@ public class DiskPageStoreTest extends AbstractConcurrentPageStoreTest
 
 		pageStore.destroy();
 	}
+
+	/**
+	 * @throws IOException 
+	 */
+	@Test
+	void storeMemoryMapped() throws IOException
+	{
+		File fileStoreFolder = Files.createTempDirectory(null).toFile();
+
+		IPageStore pageStore = new DiskPageStore("app1", fileStoreFolder, MAX_SIZE_PER_SESSION, true);
+
+		doTestStore(pageStore);
+
+		pageStore.destroy();
+	}
+
+	/**
+	 * Memory mapped files grow with their content only.
+	 * 
+	 * @throws IOException 
+	 */
+	@Test
+	void memoryMappedGrowing() throws IOException
+	{
+		File fileStoreFolder = Files.createTempDirectory(null).toFile();
+
+		IPageStore pageStore = new DiskPageStore("app1", fileStoreFolder, MAX_SIZE_PER_SESSION,
+			true);
+
+		MockPageContext context = new MockPageContext();
+		pageStore.addPage(context, new SerializedPage(1, "type", new byte[] { 1, 2, 3 }));
+		assertEquals(64 * 1024, fileSize(fileStoreFolder));
+
+		pageStore.addPage(context, new SerializedPage(2, "type", new byte[100 * 1024]));
+		assertEquals(128 * 1024, fileSize(fileStoreFolder));
+
+		assertArrayEquals(new byte[] { 1, 2, 3 },
+			((SerializedPage)pageStore.getPage(context, 1)).getData());
+
+		pageStore.destroy();
+	}
+
+	private long fileSize(File folder) throws IOException
+	{
+		try (Stream<Path> files = Files.walk(folder.toPath()))
+		{
+			return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length())
+				.sum();
+		}
+	}
+
+	/**
+	 * Several pages are written at once.
+	 * 
+	 * @throws IOException 
+	 */
+	@Test
+	void addPages() throws IOException
+	{
+		File fileStoreFolder = Files.createTempDirectory(null).toFile();
+
+		IPageStore pageStore = new DiskPageStore("app1", fileStoreFolder, Bytes.bytes(250));
+
+		MockPageContext context = new MockPageContext();
+
+		SerializedPage page1 = new SerializedPage(1, "type", new byte[] { 1, 1, 1 });
+		SerializedPage page2 = new SerializedPage(2, "type", new byte[] { 2, 2 });
+		SerializedPage page3 = new SerializedPage(3, "type", new byte[] { 3, 3, 3, 3 });
+		pageStore.addPage(context, new SerializedPage(4, "type", new byte[200]));
+		pageStore.addPages(context, List.of(page1, page2, page3));
+
+		assertArrayEquals(page1.getData(), ((SerializedPage)pageStore.getPage(context, 1)).getData());
+		assertArrayEquals(page2.getData(), ((SerializedPage)pageStore.getPage(context, 2)).getData());
+		assertArrayEquals(page3.getData(), ((SerializedPage)pageStore.getPage(context, 3)).getData());
+
+		pageStore.destroy();
+	}
 }
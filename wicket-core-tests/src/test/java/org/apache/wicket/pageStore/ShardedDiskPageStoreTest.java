@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.pageStore;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.apache.wicket.mock.MockPageContext;
+import org.apache.wicket.util.WicketTestTag;
+import org.apache.wicket.util.lang.Bytes;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ShardedDiskPageStore}.
+ */
+@Tag(WicketTestTag.SLOW)
+public class ShardedDiskPageStoreTest extends AbstractConcurrentPageStoreTest
+{
+
+	private static final Bytes MAX_SIZE = Bytes.megabytes(160);
+
+	/**
+	 * @throws IOException 
+	 */
+	@Test
+	void store() throws IOException
+	{
+		File fileStoreFolder = Files.createTempDirectory(null).toFile();
+
+		IPageStore pageStore = new ShardedDiskPageStore("app1", fileStoreFolder, MAX_SIZE);
+
+		doTestStore(pageStore);
+
+		pageStore.destroy();
+	}
+
+	/**
+	 * Pages of different sessions share a single shard.
+	 * 
+	 * @throws IOException 
+	 */
+	@Test
+	void evictAcrossSessions() throws IOException
+	{
+		File fileStoreFolder = Files.createTempDirectory(null).toFile();
+
+		ShardedDiskPageStore pageStore = new ShardedDiskPageStore("app1", fileStoreFolder,
+			Bytes.bytes(300), 1);
+
+		MockPageContext context1 = new MockPageContext("session1");
+		MockPageContext context2 = new MockPageContext("session2");
+
+		byte[] data = new byte[100];
+		data[0] = 42;
+
+		pageStore.addPage(context1, new SerializedPage(1, "type1", data));
+		pageStore.addPage(context1, new SerializedPage(2, "type1", data));
+		pageStore.addPage(context2, new SerializedPage(1, "type2", data));
+		assertEquals(300, pageStore.getTotalSize().bytes());
+
+		// oldest page of session1 is overwritten
+		pageStore.addPage(context2, new SerializedPage(2, "type2", data));
+		assertNull(pageStore.getPage(context1, 1));
+		assertArrayEquals(data, ((SerializedPage)pageStore.getPage(context1, 2)).getData());
+		assertEquals(1, pageStore.getPersistedPages(pageStore.getSessionIdentifier(context1)).size());
+		assertEquals(2, pageStore.getPersistedPages(pageStore.getSessionIdentifier(context2)).size());
+
+		File shard = new File(fileStoreFolder, "app1-shardstore/shard-0");
+		assertTrue(shard.exists());
+
+		pageStore.removeAllPages(context2);
+		assertNull(pageStore.getPage(context2, 1));
+		assertNull(pageStore.getPage(context2, 2));
+		assertArrayEquals(data, ((SerializedPage)pageStore.getPage(context1, 2)).getData());
+
+		// file is kept
+		assertTrue(shard.exists());
+		assertEquals(1, pageStore.getSessionIdentifiers().size());
+
+		pageStore.destroy();
+	}
+
+	/**
+	 * The share of a shard must fit into int offsets.
+	 * 
+	 * @throws IOException 
+	 */
+	@Test
+	void shardTooLarge() throws IOException
+	{
+		File fileStoreFolder = Files.createTempDirectory(null).toFile();
+
+		assertThrows(IllegalArgumentException.class,
+			() -> new ShardedDiskPageStore("app1", fileStoreFolder, Bytes.gigabytes(3), 1));
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.protocol.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ResponseBufferSizeEstimator}.
+ */
+class ResponseBufferSizeEstimatorTest extends WicketTestCase
+{
+	/**
+	 * Capacities follow the recorded lengths.
+	 */
+	@Test
+	void estimate()
+	{
+		ResponseBufferSizeEstimator estimator = new ResponseBufferSizeEstimator(100000);
+
+		assertEquals(ResponseBufferSizeEstimator.DEFAULT_CAPACITY,
+			estimator.getInitialCapacity(MockPage.class));
+
+		estimator.record(MockPage.class, ResponseBufferSizeEstimator.DEFAULT_CAPACITY, 40000);
+		assertEquals(45000, estimator.getInitialCapacity(MockPage.class));
+		assertEquals(ResponseBufferSizeEstimator.DEFAULT_CAPACITY,
+			estimator.getInitialCapacity(FirstPage.class));
+
+		estimator.record(MockPage.class, 45000, 80000);
+		assertEquals(56250, estimator.getInitialCapacity(MockPage.class));
+
+		// limited by maximum
+		estimator.record(MockPage.class, 56250, 1000000);
+		assertEquals(100000, estimator.getInitialCapacity(MockPage.class));
+
+		assertEquals(0, estimator.getHitCount());
+		assertEquals(3, estimator.getMissCount());
+
+		estimator.clear();
+		assertEquals(ResponseBufferSizeEstimator.DEFAULT_CAPACITY,
+			estimator.getInitialCapacity(MockPage.class));
+	}
+
+	/**
+	 * Rendered pages are recorded.
+	 */
+	@Test
+	void render()
+	{
+		ResponseBufferSizeEstimator estimator = new ResponseBufferSizeEstimator(100000);
+		tester.getApplication().getRequestCycleSettings().setResponseBufferSizeEstimator(estimator);
+
+		tester.startPage(MockPage.class);
+		tester.startPage(MockPage.class);
+
+		assertEquals(2, estimator.getHitCount());
+		assertEquals(0, estimator.getMissCount());
+	}
+}
@@ -34,6 +34,7 @@ import org.apache.wicket.protocol.http.mock.MockHttpServletResponse;
 import org.apache.wicket.request.Url;
 import org.apache.wicket.request.UrlRenderer;
 import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.util.string.AppendingStringBuffer;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 
@@ -84,6 +85,44 @@ class ServletWebResponseTest
 
 	}
 
+	/**
+	 * Redirects in Ajax requests accepting JSON should produce a JSON response with relative url
+	 * 
+	 * @throws IOException
+	 */
+	@Test
+	void sendRedirectAjaxJson() throws IOException
+	{
+		final String url = "./relative/path";
+
+		ServletWebRequest webRequest = mock(ServletWebRequest.class);
+		when(webRequest.isAjax()).thenReturn(Boolean.TRUE);
+		when(webRequest.getHeader("Accept")).thenReturn(
+			"application/json, text/javascript, */*; q=0.01");
+		Url baseUrl = Url.parse("./baseUrl");
+		baseUrl.setProtocol("http");
+		baseUrl.setHost("someHost");
+		baseUrl.setPort(80);
+		when(webRequest.getClientUrl()).thenReturn(baseUrl);
+
+		HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
+		when(webRequest.getContainerRequest()).thenReturn(httpServletRequest);
+		when(httpServletRequest.getCharacterEncoding()).thenReturn("UTF-8");
+
+		HttpServletResponse httpServletResponse = mock(HttpServletResponse.class);
+		when(httpServletResponse.encodeRedirectURL(ArgumentMatchers.anyString())).thenReturn(url);
+		StringWriter writer = new StringWriter();
+		when(httpServletResponse.getWriter()).thenReturn(new PrintWriter(writer));
+
+		ServletWebResponse webResponse = new ServletWebResponse(webRequest, httpServletResponse);
+		webResponse.sendRedirect(url);
+
+		verify(httpServletResponse).setHeader("Ajax-Location", url);
+		verify(httpServletResponse).setContentType("application/json;charset=UTF-8");
+		assertEquals("[{\"r\":\"./relative/path\"}]", writer.toString());
+		assertTrue(webResponse.isRedirect());
+	}
+
 	/**
 	 * https://issues.apache.org/jira/browse/WICKET-3885
 	 * 
@@ -214,4 +253,33 @@ class ServletWebResponseTest
 		ServletWebResponse webResponse = new ServletWebResponse(webRequest, httpServletResponse);
 		assertEquals(url + ";foo", webResponse.encodeRedirectURL(url));
 	}
+
+	/**
+	 * All kinds of character sequences are written completely.
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	void writeCharSequences() throws IOException
+	{
+		HttpServletResponse httpServletResponse = mock(HttpServletResponse.class);
+		StringWriter writer = new StringWriter();
+		when(httpServletResponse.getWriter()).thenReturn(new PrintWriter(writer));
+
+		ServletWebResponse webResponse = new ServletWebResponse(mock(ServletWebRequest.class),
+			httpServletResponse);
+
+		StringBuilder large = new StringBuilder();
+		for (int i = 0; i < 20000; i++)
+		{
+			large.append(i % 10);
+		}
+
+		webResponse.write("string");
+		webResponse.write(new AppendingStringBuffer("buffer"));
+		webResponse.write(new StringBuilder("builder"));
+		webResponse.write(large);
+
+		assertEquals("stringbufferbuilder" + large, writer.toString());
+	}
 }
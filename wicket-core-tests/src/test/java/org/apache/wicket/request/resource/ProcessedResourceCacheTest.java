@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.request.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.wicket.util.lang.Bytes;
+import org.apache.wicket.util.watch.IModifiable;
+import org.apache.wicket.util.watch.ModificationWatcher;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ProcessedResourceCache}.
+ */
+class ProcessedResourceCacheTest
+{
+	private final Instant version = Instant.ofEpochSecond(1000);
+
+	/**
+	 * Entries are found by key and version only.
+	 */
+	@Test
+	void version()
+	{
+		ProcessedResourceCache cache = new ProcessedResourceCache(Bytes.bytes(100));
+
+		ProcessedResourceCache.Entry entry = cache.put("a", version, new byte[] { 1, 2, 3 });
+		assertEquals(3, entry.getLength());
+
+		assertEquals(entry, cache.get("a", version));
+		assertNull(cache.get("a", version.plusSeconds(1)));
+		assertNull(cache.get("b", version));
+
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	/**
+	 * Entity tags differ with contents.
+	 */
+	@Test
+	void etag()
+	{
+		ProcessedResourceCache cache = new ProcessedResourceCache(Bytes.bytes(100));
+
+		String etag1 = cache.put("a", version, new byte[] { 1, 2, 3 }).getETag();
+		String etag2 = cache.put("a", version, new byte[] { 1, 2, 4 }).getETag();
+
+		assertNotEquals(etag1, etag2);
+		assertEquals(Bytes.bytes(3), cache.getSize());
+	}
+
+	/**
+	 * Least recently used entries are evicted.
+	 */
+	@Test
+	void evict()
+	{
+		ProcessedResourceCache cache = new ProcessedResourceCache(Bytes.bytes(10));
+
+		cache.put("a", version, new byte[4]);
+		cache.put("b", version, new byte[4]);
+		cache.get("a", version);
+		cache.put("c", version, new byte[4]);
+
+		assertNotNull(cache.get("a", version));
+		assertNull(cache.get("b", version));
+		assertNotNull(cache.get("c", version));
+		assertEquals(Bytes.bytes(8), cache.getSize());
+
+		// too large
+		cache.put("d", version, new byte[11]);
+		assertNull(cache.get("d", version));
+
+		cache.remove("a");
+		cache.clear();
+		assertEquals(Bytes.bytes(0), cache.getSize());
+	}
+
+	/**
+	 * The size stays consistent while entries are compressed, replaced, removed and evicted
+	 * concurrently.
+	 */
+	@Test
+	void concurrent() throws Exception
+	{
+		ProcessedResourceCache cache = new ProcessedResourceCache(Bytes.bytes(2000));
+
+		String[] keys = { "a", "b", "c", "d", "e" };
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try
+		{
+			Future<?>[] futures = new Future<?>[8];
+			for (int t = 0; t < futures.length; t++)
+			{
+				futures[t] = executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int i = 0; i < 2000; i++)
+					{
+						String key = keys[random.nextInt(keys.length)];
+						switch (random.nextInt(3))
+						{
+							case 0 :
+								byte[] data = new byte[random.nextInt(100, 600)];
+								random.nextBytes(data);
+								cache.put(key, version, data).getGzipData();
+								break;
+							case 1 :
+								ProcessedResourceCache.Entry entry = cache.get(key, version);
+								if (entry != null)
+								{
+									entry.getGzipData();
+								}
+								break;
+							default :
+								cache.remove(key);
+						}
+					}
+				});
+			}
+			for (Future<?> future : futures)
+			{
+				future.get();
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+
+		for (String key : keys)
+		{
+			cache.remove(key);
+		}
+		assertEquals(Bytes.bytes(0), cache.getSize());
+	}
+
+	/**
+	 * Resources are watched once per key, modification removes the entry.
+	 */
+	@Test
+	void watch()
+	{
+		ProcessedResourceCache cache = new ProcessedResourceCache(Bytes.bytes(100));
+
+		AtomicReference<Instant> lastModified = new AtomicReference<>(version);
+		TestWatcher watcher = new TestWatcher();
+
+		// each miss passes a new resource stream
+		for (int i = 0; i < 3; i++)
+		{
+			cache.put("a", version, new byte[] { 1, 2, 3 });
+			IModifiable resource = lastModified::get;
+			cache.watch("a", Collections.singletonList(resource), watcher);
+		}
+		assertEquals(1, watcher.getEntries().size());
+
+		lastModified.set(version.plusSeconds(1));
+		watcher.checkModified();
+
+		assertNull(cache.get("a", version));
+		assertEquals(1, watcher.getEntries().size());
+	}
+
+	private static class TestWatcher extends ModificationWatcher
+	{
+		@Override
+		protected void checkModified()
+		{
+			super.checkModified();
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link PropertiesFactory}.
+ */
+class PropertiesFactoryTest extends WicketTestCase
+{
+	private static final String PATH = "org/apache/wicket/resource/DummyComponent";
+
+	/**
+	 * Properties are preloaded for all locales.
+	 */
+	@Test
+	void preload()
+	{
+		PropertiesFactory factory = new PropertiesFactory(
+			tester.getApplication().getResourceSettings());
+
+		List<Class<?>> classes = Arrays.asList(DummyComponent.class, DummyPage.class);
+		int loaded = factory.preload(classes, Arrays.asList(new Locale("zz"), Locale.GERMAN), 2);
+
+		// DummyComponent, DummyComponent_zz and DummyPage
+		assertEquals(3, loaded);
+		assertTrue(factory.getCache().containsKey(PATH + "_zz"));
+		assertSame(Properties.EMPTY_PROPERTIES, factory.getCache().get(PATH + "_de"));
+
+		Properties properties = factory.getCache().get(PATH);
+		assertSame(properties, factory.load(DummyComponent.class, PATH));
+	}
+
+	/**
+	 * A single path can be removed from the cache.
+	 */
+	@Test
+	void clearPath()
+	{
+		PropertiesFactory factory = new PropertiesFactory(
+			tester.getApplication().getResourceSettings());
+
+		Properties properties = factory.load(DummyComponent.class, PATH);
+		Properties zz = factory.load(DummyComponent.class, PATH + "_zz");
+
+		factory.clearCache(PATH);
+		assertFalse(factory.getCache().containsKey(PATH));
+		assertSame(zz, factory.load(DummyComponent.class, PATH + "_zz"));
+		assertEquals(properties.getAll(), factory.load(DummyComponent.class, PATH).getAll());
+	}
+}
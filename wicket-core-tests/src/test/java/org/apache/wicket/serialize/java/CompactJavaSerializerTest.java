@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.serialize.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.wicket.AttributeModifier;
+import org.apache.wicket.MockPageWithLink;
+import org.apache.wicket.markup.html.WebComponent;
+import org.apache.wicket.markup.html.WebMarkupContainer;
+import org.apache.wicket.markup.html.basic.Label;
+import org.apache.wicket.markup.html.list.ListItem;
+import org.apache.wicket.markup.html.list.ListView;
+import org.apache.wicket.model.Model;
+import org.apache.wicket.model.PropertyModel;
+import org.apache.wicket.util.tester.WicketTestCase;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link CompactJavaSerializer}.
+ */
+class CompactJavaSerializerTest extends WicketTestCase
+{
+	/**
+	 * A page tree is serialized smaller than with {@link JavaSerializer} and can be read back.
+	 */
+	@Test
+	void serializePageTree()
+	{
+		MockPageWithLink page = new MockPageWithLink();
+		WebMarkupContainer container = new WebMarkupContainer("container");
+		page.add(container);
+
+		List<Person> persons = new ArrayList<>();
+		for (int i = 0; i < 20; i++)
+		{
+			persons.add(new Person("name" + i));
+		}
+		container.add(new PersonListView("persons", persons));
+		container.add(new Label("label", Model.of("text")).add(AttributeModifier.append("class", "foo")));
+
+		byte[] java = new JavaSerializer("CompactJavaSerializerTest").serialize(page);
+
+		CompactJavaSerializer serializer = new CompactJavaSerializer("CompactJavaSerializerTest");
+		byte[] compact = serializer.serialize(page);
+
+		assertTrue(compact.length < java.length / 2, compact.length + " vs " + java.length);
+
+		MockPageWithLink deserialized = (MockPageWithLink)serializer.deserialize(compact);
+		assertEquals(page.getId(), deserialized.getId());
+
+		@SuppressWarnings("unchecked")
+		ListView<Person> listView = (ListView<Person>)deserialized.get("container:persons");
+		assertEquals(20, listView.getModelObject().size());
+		assertEquals("name19", listView.getModelObject().get(19).name);
+
+		// buffer is reused
+		assertEquals(compact.length, serializer.serialize(page).length);
+	}
+
+	/**
+	 * Classes can be registered additionally.
+	 */
+	@Test
+	void registerClass()
+	{
+		Person person = new Person("name");
+
+		CompactJavaSerializer serializer = new CompactJavaSerializer("CompactJavaSerializerTest");
+		byte[] named = serializer.serialize(person);
+
+		serializer.register(Person.class);
+		byte[] registered = serializer.serialize(person);
+
+		assertTrue(registered.length < named.length);
+		assertEquals("name", ((Person)serializer.deserialize(registered)).name);
+	}
+
+	/**
+	 * Data written with a different dictionary or serializer is treated as missing.
+	 */
+	@Test
+	void incompatible()
+	{
+		Person person = new Person("name");
+
+		CompactJavaSerializer serializer = new CompactJavaSerializer("CompactJavaSerializerTest");
+		byte[] data = serializer.serialize(person);
+
+		CompactJavaSerializer other = new CompactJavaSerializer("CompactJavaSerializerTest");
+		assertEquals("name", ((Person)other.deserialize(data)).name);
+
+		other.register(Person.class);
+		assertNull(other.deserialize(data));
+
+		assertNull(serializer.deserialize(new JavaSerializer("CompactJavaSerializerTest").serialize(person)));
+	}
+
+	/**
+	 * Errors are logged as with {@link JavaSerializer}.
+	 */
+	@Test
+	void notSerializable()
+	{
+		CompactJavaSerializer serializer = new CompactJavaSerializer("CompactJavaSerializerTest");
+		WebComponent component = new WebComponent("id")
+		{
+			@SuppressWarnings("unused")
+			private final Object member = new Object();
+		};
+		assertNull(serializer.serialize(component));
+	}
+
+	private static class PersonListView extends ListView<Person>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private PersonListView(String id, List<Person> persons)
+		{
+			super(id, persons);
+		}
+
+		@Override
+		protected void populateItem(ListItem<Person> item)
+		{
+			item.add(new Label("name", new PropertyModel<>(item.getModel(), "name")));
+		}
+	}
+
+	private static class Person implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String name;
+
+		private Person(String name)
+		{
+			this.name = name;
+		}
+	}
+}
@@ -112,6 +112,7 @@ module org.apache.wicket.core {
     exports org.apache.wicket.page;
     exports org.apache.wicket.pageStore;
     exports org.apache.wicket.pageStore.crypt;
+    exports org.apache.wicket.pageStore.delta;
     exports org.apache.wicket.pageStore.disk;
     exports org.apache.wicket.protocol.http;
     exports org.apache.wicket.protocol.http.mock;
@@ -21,6 +21,7 @@ import java.io.Serializable;
 import org.apache.wicket.behavior.AttributeAppender;
 import org.apache.wicket.behavior.Behavior;
 import org.apache.wicket.markup.ComponentTag;
+import org.apache.wicket.markup.parser.XmlTag;
 import org.apache.wicket.markup.parser.XmlTag.TagType;
 import org.apache.wicket.model.IComponentAssignedModel;
 import org.apache.wicket.model.IDetachable;
@@ -28,7 +29,6 @@ import org.apache.wicket.model.IModel;
 import org.apache.wicket.model.Model;
 import org.apache.wicket.util.io.IClusterable;
 import org.apache.wicket.util.lang.Args;
-import org.apache.wicket.util.value.IValueMap;
 
 /**
  * This class allows a tag attribute of a component to be modified dynamically with a value obtained
@@ -169,28 +169,33 @@ public class AttributeModifier extends Behavior implements IClusterable
 	{
 		if (isEnabled(component))
 		{
-			final IValueMap attributes = tag.getAttributes();
+			// change the xml tag directly, so shared attributes are not copied
+			final XmlTag xmlTag = tag.getXmlTag();
 			final Object replacementValue = getReplacementOrNull(component);
 
 			if (VALUELESS_ATTRIBUTE_ADD == replacementValue)
 			{
-				attributes.put(attribute, null);
+				xmlTag.put(attribute, (CharSequence)null);
 			}
 			else if (VALUELESS_ATTRIBUTE_REMOVE == replacementValue)
 			{
-				attributes.remove(attribute);
+				xmlTag.remove(attribute);
 			}
 			else
 			{
-				final String value = toStringOrNull(attributes.get(attribute));
+				final String value = toStringOrNull(xmlTag.getAttribute(attribute));
 				final Serializable newValue = newValue(value, toStringOrNull(replacementValue));
 				if (newValue == VALUELESS_ATTRIBUTE_REMOVE)
 				{
-					attributes.remove(attribute);
+					xmlTag.remove(attribute);
+				}
+				else if (newValue instanceof CharSequence)
+				{
+					xmlTag.put(attribute, (CharSequence)newValue);
 				}
 				else if (newValue != null)
 				{
-					attributes.put(attribute, newValue);
+					xmlTag.put(attribute, newValue.toString());
 				}
 			}
 		}
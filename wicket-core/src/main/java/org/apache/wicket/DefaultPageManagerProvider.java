@@ -23,6 +23,7 @@ import org.apache.wicket.page.PageManager;
 import org.apache.wicket.pageStore.AsynchronousPageStore;
 import org.apache.wicket.pageStore.CachingPageStore;
 import org.apache.wicket.pageStore.CryptingPageStore;
+import org.apache.wicket.pageStore.DeltaPageStore;
 import org.apache.wicket.pageStore.DiskPageStore;
 import org.apache.wicket.pageStore.FilePageStore;
 import org.apache.wicket.pageStore.GroupingPageStore;
@@ -47,6 +48,7 @@ import org.apache.wicket.util.lang.Bytes;
  * <li>{@link InSessionPageStore} keeping the last accessed page in the session</li>
  * <li>{@link SerializingPageStore} serializing all pages (so they are available for back-button)</li>
  * <li>{@link AsynchronousPageStore} moving storage of pages to an asynchronous worker thread (enabled by default with {@link StoreSettings#isAsynchronous()})</li>
+ * <li>{@link DeltaPageStore} storing pages as deltas (disabled by default in {@link StoreSettings#getMaxDeltasPerBase()})</li>
  * <li>{@link CryptingPageStore} encrypting all pages (disabled by default in {@link StoreSettings#isEncrypted()})</li>
  * <li>{@link DiskPageStore} persisting all pages, configured according to {@link StoreSettings}</li>
  * </ol>
@@ -102,6 +104,8 @@ public class DefaultPageManagerProvider implements IPageManagerProvider
 		
 		store = newCryptingStore(store);
 
+		store = newDeltaStore(store);
+
 		store = newAsynchronousStore(store);
 		
 		store = newSerializingStore(store);
@@ -162,7 +166,8 @@ public class DefaultPageManagerProvider implements IPageManagerProvider
 		if (storeSettings.isAsynchronous())
 		{
 			int capacity = storeSettings.getAsynchronousQueueCapacity();
-			pageStore = new AsynchronousPageStore(pageStore, capacity);
+			pageStore = new AsynchronousPageStore(pageStore, capacity,
+				storeSettings.getAsynchronousThreadCount(), storeSettings.getAsynchronousBatchSize());
 		}
 
 		return pageStore;
@@ -178,6 +183,24 @@ public class DefaultPageManagerProvider implements IPageManagerProvider
 		return new SerializingPageStore(pageStore, getSerializer());
 	}
 
+	/**
+	 * Store pages as deltas, if enabled in {@link StoreSettings#getMaxDeltasPerBase()}.
+	 * 
+	 * @see DeltaPageStore
+	 */
+	protected IPageStore newDeltaStore(IPageStore pageStore)
+	{
+		StoreSettings storeSettings = application.getStoreSettings();
+
+		int maxDeltas = storeSettings.getMaxDeltasPerBase();
+		if (maxDeltas > 0)
+		{
+			pageStore = new DeltaPageStore(pageStore, maxDeltas);
+		}
+
+		return pageStore;
+	}
+
 	/**
 	 * Crypt all pages, if enabled in {@link StoreSettings#isEncrypted()}.
 	 * 
@@ -201,6 +224,7 @@ public class DefaultPageManagerProvider implements IPageManagerProvider
 	 * @see DiskPageStore
 	 * @see StoreSettings#getMaxSizePerSession()
 	 * @see StoreSettings#getFileStoreFolder()
+	 * @see StoreSettings#isMemoryMapped()
 	 */
 	protected IPageStore newPersistentStore()
 	{
@@ -208,7 +232,8 @@ public class DefaultPageManagerProvider implements IPageManagerProvider
 		Bytes maxSizePerSession = storeSettings.getMaxSizePerSession();
 		File fileStoreFolder = storeSettings.getFileStoreFolder();
 
-		return new DiskPageStore(application.getName(), fileStoreFolder, maxSizePerSession);
+		return new DiskPageStore(application.getName(), fileStoreFolder, maxSizePerSession,
+			storeSettings.isMemoryMapped());
 	}
 	
 	private static class InSessionCache extends InSessionPageStore {
@@ -22,7 +22,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.wicket.core.util.string.interpolator.ConvertingPropertyVariableInterpolator;
@@ -31,7 +31,7 @@ import org.apache.wicket.model.IModel;
 import org.apache.wicket.model.Model;
 import org.apache.wicket.resource.loader.IStringResourceLoader;
 import org.apache.wicket.settings.ResourceSettings;
-import org.apache.wicket.util.lang.Generics;
+import org.apache.wicket.util.lang.Args;
 import org.apache.wicket.util.string.AppendingStringBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,8 +60,14 @@ public class Localizer
 	/** ConcurrentHashMap does not allow null values */
 	private static final String NULL_VALUE = "<null-value>";
 
+	/** Default maximum count of cached values. */
+	public static final int DEFAULT_MAX_CACHE_SIZE = 50000;
+
+	/** Maximum count of cached values */
+	private final int maxCacheSize;
+
 	/** Cache properties */
-	private Map<String, String> cache = newCache();
+	private Map<String, String> cache;
 
 	/** Database that maps class names to an integer id. */
 	private final ClassMetaDatabase metaDatabase = new ClassMetaDatabase();
@@ -80,6 +86,28 @@ public class Localizer
 	 */
 	public Localizer()
 	{
+		this(DEFAULT_MAX_CACHE_SIZE);
+	}
+
+	/**
+	 * Constructor with a maximum count of cached values.
+	 * 
+	 * @param maxCacheSize
+	 *            maximum count of values to cache
+	 */
+	public Localizer(final int maxCacheSize)
+	{
+		this.maxCacheSize = Args.withinRange(1, Integer.MAX_VALUE, maxCacheSize, "maxCacheSize");
+
+		cache = newCache();
+	}
+
+	/**
+	 * @return the maximum count of cached values
+	 */
+	public final int getMaxCacheSize()
+	{
+		return maxCacheSize;
 	}
 
 	/**
@@ -369,10 +397,12 @@ public class Localizer
 			cacheKey = getCacheKey(key, component, locale, style, variation);
 		}
 
-		// Value not found are cached as well (value = null)
-		if ((cacheKey != null) && cache.containsKey(cacheKey))
+		// Value not found are cached as well (value = NULL_VALUE), a single lookup is required
+		// since entries might be evicted concurrently
+		String cached = (cacheKey != null) ? cache.get(cacheKey) : null;
+		if (cached != null)
 		{
-			value = getFromCache(cacheKey);
+			value = (NULL_VALUE == cached) ? null : cached;
 			if (log.isDebugEnabled())
 			{
 				log.debug("Property found in cache: '" + key + "'; Component: '" +
@@ -498,14 +528,14 @@ public class Localizer
 	{
 		if (component != null)
 		{
-			StringBuilder buffer = new StringBuilder(200);
+			StringBuilder buffer = new StringBuilder(key.length() + 128);
 			buffer.append(key);
 
 			Component cursor = component;
 
 			while (cursor != null)
 			{
-				buffer.append('-').append(metaDatabase.id(cursor.getClass()));
+				buffer.append(metaDatabase.id(cursor.getClass()));
 
 				if (cursor instanceof Page)
 				{
@@ -608,50 +638,100 @@ public class Localizer
 	}
 
 	/**
-	 * Create a new cache, override this method if you want a different map to store the cache keys,
-	 * for example a map that hold only the last X number of elements..
+	 * Create a new cache, override this method if you want a different map to store the cache keys.
 	 * 
-	 * By default it uses the {@link ConcurrentHashMap}
+	 * By default it uses a {@link ConcurrentHashMap} which evicts entries when it holds more than
+	 * {@link #getMaxCacheSize()} values.
 	 * 
 	 * @return cache
 	 */
 	protected Map<String, String> newCache()
 	{
-		return new ConcurrentHashMap<>();
+		return new BoundedCache(maxCacheSize);
+	}
+
+	/**
+	 * A concurrent map evicting entries beyond a maximum size. Lookups are not affected by
+	 * eviction, evicted values are simply loaded again from the string resource loaders.
+	 */
+	private static final class BoundedCache extends ConcurrentHashMap<String, String>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int maxSize;
+
+		private final AtomicBoolean evicting = new AtomicBoolean();
+
+		private BoundedCache(final int maxSize)
+		{
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		public String put(final String key, final String value)
+		{
+			String previous = super.put(key, value);
+			if (previous == null && size() > maxSize)
+			{
+				evict();
+			}
+			return previous;
+		}
+
+		private void evict()
+		{
+			// a single thread evicts, others go on without waiting
+			if (evicting.compareAndSet(false, true))
+			{
+				try
+				{
+					// make room for some more entries, so eviction does not happen on every put
+					int count = size() - maxSize + Math.max(1, maxSize / 10);
+					Iterator<String> keys = keySet().iterator();
+					while (count-- > 0 && keys.hasNext())
+					{
+						keys.next();
+						keys.remove();
+					}
+				}
+				finally
+				{
+					evicting.set(false);
+				}
+			}
+		}
 	}
 
 	/**
-	 * Database that maps class names to an integer id. This is used to make localizer keys shorter
+	 * Database that maps classes to an integer id. This is used to make localizer keys shorter
 	 * because sometimes they can contain a large number of class names.
 	 * 
 	 * @author igor.vaynberg
 	 */
 	private static class ClassMetaDatabase
 	{
-		private final ConcurrentMap<String, Long> nameToId = Generics.newConcurrentHashMap();
 		private final AtomicLong nameCounter = new AtomicLong();
 
+		/** The key segment of each class, computed once per class */
+		private final ClassValue<String> segments = new ClassValue<>()
+		{
+			@Override
+			protected String computeValue(Class<?> type)
+			{
+				return "-" + nameCounter.incrementAndGet();
+			}
+		};
+
 		/**
-		 * Returns a unique id that represents this class' name. This can be used for compressing
-		 * class names. Notice this id should not be used across cluster nodes.
+		 * Returns the key segment with a unique id that represents this class. This can be used
+		 * for compressing class names. Notice this id should not be used across cluster nodes.
 		 * 
 		 * @param clazz
-		 * @return long id of class name
+		 * @return key segment with id of class
 		 */
-		public long id(Class<?> clazz)
+		public String id(Class<?> clazz)
 		{
-			final String name = clazz.getName();
-			Long id = nameToId.get(name);
-			if (id == null)
-			{
-				id = nameCounter.incrementAndGet();
-				Long previousId = nameToId.putIfAbsent(name, id);
-				if (previousId != null)
-				{
-					id = previousId;
-				}
-			}
-			return id;
+			return segments.get(clazz);
 		}
 	}
 }
@@ -1640,6 +1640,14 @@ public abstract class MarkupContainer extends Component implements Iterable<Comp
 				break;
 			}
 
+			// Render runs of raw markup at once
+			CharSequence rawMarkupRun = markupStream.nextRawMarkupRun();
+			if (rawMarkupRun != null)
+			{
+				getResponse().write(rawMarkupRun);
+				continue;
+			}
+
 			// Remember where we are
 			final int index = markupStream.getCurrentIndex();
 
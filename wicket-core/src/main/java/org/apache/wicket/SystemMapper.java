@@ -18,13 +18,21 @@ package org.apache.wicket;
 
 import java.util.function.Supplier;
 
+import org.apache.wicket.core.request.handler.BookmarkableListenerRequestHandler;
+import org.apache.wicket.core.request.handler.BookmarkablePageRequestHandler;
+import org.apache.wicket.core.request.handler.IPageClassRequestHandler;
+import org.apache.wicket.core.request.handler.ListenerRequestHandler;
+import org.apache.wicket.core.request.handler.RenderPageRequestHandler;
 import org.apache.wicket.core.request.mapper.BookmarkableMapper;
 import org.apache.wicket.core.request.mapper.BufferedResponseMapper;
 import org.apache.wicket.core.request.mapper.HomePageMapper;
 import org.apache.wicket.core.request.mapper.PageInstanceMapper;
 import org.apache.wicket.core.request.mapper.ResourceReferenceMapper;
+import org.apache.wicket.request.IRequestHandler;
+import org.apache.wicket.request.IRequestHandlerDelegate;
 import org.apache.wicket.request.IRequestMapper;
 import org.apache.wicket.request.component.IRequestablePage;
+import org.apache.wicket.request.handler.resource.ResourceReferenceRequestHandler;
 import org.apache.wicket.request.mapper.CompoundRequestMapper;
 import org.apache.wicket.request.mapper.parameter.PageParametersEncoder;
 import org.apache.wicket.request.resource.caching.IResourceCachingStrategy;
@@ -94,6 +102,37 @@ public class SystemMapper extends CompoundRequestMapper
 		return () -> application.getResourceSettings().getCachingStrategy();
 	}
 
+	/**
+	 * The name of the page class for page handlers and the key of the resource reference for
+	 * resource handlers.
+	 * 
+	 * @see org.apache.wicket.core.request.mapper.MountedMapper#getHandlerKey()
+	 * @see org.apache.wicket.core.request.mapper.ResourceMapper#getHandlerKey()
+	 */
+	@Override
+	protected Object getHandlerKey(IRequestHandler handler)
+	{
+		while (handler instanceof IRequestHandlerDelegate)
+		{
+			handler = ((IRequestHandlerDelegate)handler).getDelegateHandler();
+		}
+
+		if (handler instanceof BookmarkablePageRequestHandler ||
+			handler instanceof RenderPageRequestHandler ||
+			handler instanceof BookmarkableListenerRequestHandler ||
+			handler instanceof ListenerRequestHandler)
+		{
+			Class<? extends IRequestablePage> pageClass = ((IPageClassRequestHandler)handler)
+				.getPageClass();
+			return pageClass == null ? null : pageClass.getName();
+		}
+		else if (handler instanceof ResourceReferenceRequestHandler)
+		{
+			return ((ResourceReferenceRequestHandler)handler).getResourceReference().getKey();
+		}
+		return null;
+	}
+
 	protected static class ParentFolderPlaceholderProvider implements Supplier<String>
 	{
 		private final Application application;
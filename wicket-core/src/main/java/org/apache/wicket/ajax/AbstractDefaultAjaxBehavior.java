@@ -150,6 +150,7 @@ public abstract class AbstractDefaultAjaxBehavior extends AbstractAjaxBehavior
 	{
 		AjaxRequestAttributes attributes = new AjaxRequestAttributes();
 		WebApplication application = (WebApplication)getComponent().getApplication();
+		attributes.setDataType(application.getRequestCycleSettings().getAjaxResponseDataType());
 		AjaxRequestTargetListenerCollection ajaxRequestTargetListeners = application
 			.getAjaxRequestTargetListeners();
 		for (AjaxRequestTarget.IListener listener : ajaxRequestTargetListeners)
@@ -32,6 +32,7 @@ import org.apache.wicket.core.request.handler.PageProvider;
 import org.apache.wicket.core.request.handler.RenderPageRequestHandler;
 import org.apache.wicket.core.request.handler.logger.PageLogData;
 import org.apache.wicket.event.Broadcast;
+import org.apache.wicket.page.JsonPartialPageUpdate;
 import org.apache.wicket.page.PartialPageUpdate;
 import org.apache.wicket.page.XmlPartialPageUpdate;
 import org.apache.wicket.request.IRequestCycle;
@@ -104,54 +105,94 @@ public class AjaxRequestHandler extends AbstractPartialPageRequestHandler implem
 	{
 		super(page);
 
-		update = new XmlPartialPageUpdate(page)
+		if (isJsonRequested())
 		{
-			/**
-			 * Freezes the {@link AjaxRequestHandler#listeners} before firing the event and
-			 * un-freezes them afterwards to allow components to add more
-			 * {@link AjaxRequestTarget.IListener}s for the second event.
-			 */
-			@Override
-			protected void onBeforeRespond(final Response response)
+			update = new JsonPartialPageUpdate(page)
 			{
-				listenersFrozen = true;
+				@Override
+				protected void onBeforeRespond(final Response response)
+				{
+					fireOnBeforeRespond(markupIdToComponent);
+				}
 
-				if (listeners != null)
+				@Override
+				protected void onAfterRespond(final Response response)
 				{
-					for (AjaxRequestTarget.IListener listener : listeners)
-					{
-						listener.onBeforeRespond(markupIdToComponent, AjaxRequestHandler.this);
-					}
+					fireOnAfterRespond(markupIdToComponent);
+				}
+			};
+		}
+		else
+		{
+			update = new XmlPartialPageUpdate(page)
+			{
+				@Override
+				protected void onBeforeRespond(final Response response)
+				{
+					fireOnBeforeRespond(markupIdToComponent);
 				}
 
-				listenersFrozen = false;
-			}
+				@Override
+				protected void onAfterRespond(final Response response)
+				{
+					fireOnAfterRespond(markupIdToComponent);
+				}
+			};
+		}
+
+		update.setStreaming(page.getApplication().getRequestCycleSettings()
+			.getStreamPartialPageUpdates());
+	}
+
+	/**
+	 * Whether the client requested a JSON response, see
+	 * {@link org.apache.wicket.ajax.attributes.AjaxRequestAttributes#JSON_DATA_TYPE}.
+	 */
+	private static boolean isJsonRequested()
+	{
+		RequestCycle requestCycle = RequestCycle.get();
+		return requestCycle != null && JsonPartialPageUpdate.isAccepted(requestCycle.getRequest());
+	}
 
-			/**
-			 * Freezes the {@link AjaxRequestHandler#listeners}, and does not un-freeze them as the
-			 * events will have been fired by now.
-			 * 
-			 * @param response
-			 *            the response to write to
-			 */
-			@Override
-			protected void onAfterRespond(final Response response)
+	/**
+	 * Freezes the {@link AjaxRequestHandler#listeners} before firing the event and un-freezes them
+	 * afterwards to allow components to add more {@link AjaxRequestTarget.IListener}s for the
+	 * second event.
+	 */
+	private void fireOnBeforeRespond(Map<String, Component> markupIdToComponent)
+	{
+		listenersFrozen = true;
+
+		if (listeners != null)
+		{
+			for (AjaxRequestTarget.IListener listener : listeners)
 			{
-				listenersFrozen = true;
+				listener.onBeforeRespond(markupIdToComponent, this);
+			}
+		}
 
-				// invoke onAfterRespond event on listeners
-				if (listeners != null)
-				{
-					final Map<String, Component> components = Collections
-						.unmodifiableMap(markupIdToComponent);
+		listenersFrozen = false;
+	}
 
-					for (AjaxRequestTarget.IListener listener : listeners)
-					{
-						listener.onAfterRespond(components, AjaxRequestHandler.this);
-					}
-				}
+	/**
+	 * Freezes the {@link AjaxRequestHandler#listeners}, and does not un-freeze them as the events
+	 * will have been fired by now.
+	 */
+	private void fireOnAfterRespond(Map<String, Component> markupIdToComponent)
+	{
+		listenersFrozen = true;
+
+		// invoke onAfterRespond event on listeners
+		if (listeners != null)
+		{
+			final Map<String, Component> components = Collections
+				.unmodifiableMap(markupIdToComponent);
+
+			for (AjaxRequestTarget.IListener listener : listeners)
+			{
+				listener.onAfterRespond(components, this);
 			}
-		};
+		}
 	}
 
 	@Override
@@ -273,6 +314,13 @@ public class AjaxRequestHandler extends AbstractPartialPageRequestHandler implem
 		final List<IResponseFilter> filters = Application.get()
 			.getRequestCycleSettings()
 			.getResponseFilters();
+		if (update.isStreaming() && (filters == null || filters.isEmpty()))
+		{
+			// write directly, accepting a malformed response on exceptions
+			update.writeTo(response, encoding);
+			return;
+		}
+
 		// WICKET-7074 we need to write to a temporary buffer, otherwise, if an exception is produced,
 		// and a redirect is done we will end up with a malformed XML
 		final StringResponse bodyResponse = new StringResponse();
@@ -74,6 +74,13 @@ public final class AjaxRequestAttributes
 
 	public static final String XML_DATA_TYPE = "xml";
 
+	/**
+	 * Data type for a compact JSON response instead of {@code <ajax-response>}.
+	 *
+	 * @see org.apache.wicket.page.JsonPartialPageUpdate
+	 */
+	public static final String JSON_DATA_TYPE = "json";
+
 	private boolean multipart = false;
 
 	private Method method = Method.GET;
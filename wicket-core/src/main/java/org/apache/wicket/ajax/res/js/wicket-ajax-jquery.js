@@ -719,7 +719,8 @@
 					}
 				},
 				error: function(jqXHR, textStatus, errorMessage) {
-					if (jqXHR.status === 301 && jqXHR.getResponseHeader('Ajax-Location')) {
+					// a redirect with a response body not matching the data type fails to parse
+					if ((jqXHR.status === 301 || textStatus === 'parsererror') && jqXHR.getResponseHeader('Ajax-Location')) {
 						self.processAjaxResponse(data, textStatus, jqXHR, context);
 					} else {
 						self.failure(context, jqXHR, errorMessage, textStatus);
@@ -752,17 +753,17 @@
 		},
 
 		/**
-		 * Method that processes a manually supplied <ajax-response>.
+		 * Method that processes a manually supplied <ajax-response> or JSON response.
 		 *
-		 * @param data {XmlDocument} - the <ajax-response> XML document
+		 * @param data {String} - the <ajax-response> XML document or the JSON response
 		 */
 		process: function(data) {
 			var context =  {
 					attrs: {},
 					steps: []
 				};
-			var xmlDocument = Wicket.Xml.parse(data);
-			this.loadedCallback(xmlDocument, context);
+			var envelope = jQuery.trim(data).charAt(0) === '[' ? JSON.parse(data) : Wicket.Xml.parse(data);
+			this.loadedCallback(envelope, context);
 			var executer = new FunctionsExecuter(context.steps);
 			executer.start();
 		},
@@ -834,50 +835,55 @@
 
 		// Processes the response
 		loadedCallback: function (envelope, context) {
-			// To process the response, we go through the xml document and add a function for every action (step).
+			// To process the response, we go through the entries and add a function for every action (step).
 			// After this is done, a FunctionExecuter object asynchronously executes these functions.
 			// The asynchronous execution is necessary, because some steps might involve loading external javascript,
 			// which must be asynchronous, so that it doesn't block the browser, but we also have to maintain
 			// the order in which scripts are loaded and we have to delay the next steps until the script is
 			// loaded.
 			try {
-				var root = envelope.getElementsByTagName("ajax-response")[0];
+				var entries = envelope;
+				if (!jQuery.isArray(envelope)) {
+					var root = envelope.getElementsByTagName("ajax-response")[0];
 
-				// the root element must be <ajax-response
-				if (isUndef(root) || root.tagName !== "ajax-response") {
-					this.failure(context, null, "Could not find root <ajax-response> element", null);
-					return;
+					// the root element must be <ajax-response
+					if (isUndef(root) || root.tagName !== "ajax-response") {
+						this.failure(context, null, "Could not find root <ajax-response> element", null);
+						return;
+					}
+
+					entries = this.toEntries(root);
 				}
 
 				var steps = context.steps;
+				var i, entry;
 
 				// go through the ajax response and process priority evaluations and
 				// header contributions first
-				for (var i = 0; i < root.childNodes.length; ++i) {
-					var childNode = root.childNodes[i];
-					if (childNode.tagName === "header-contribution") {
-						this.processHeaderContribution(context, childNode);
-					} else if (childNode.tagName === "priority-evaluate") {
-						this.processHeaderContribution(context, childNode);
+				for (i = 0; i < entries.length; ++i) {
+					entry = entries[i];
+					if (!isUndef(entry.h)) {
+						this.processHeaderContribution(context, entry.h);
+					} else if (!isUndef(entry.p)) {
+						this.processHeaderContribution(context, entry.p);
 					}
 				}
 
 				// ... then add components, process remaining evaluations and a
 				// possible redirect
 				var stepIndexOfLastReplacedComponent = -1;
-				for (var c = 0; c < root.childNodes.length; ++c) {
-					var node = root.childNodes[c];
-
-					if (node.tagName === "component") {
+				for (i = 0; i < entries.length; ++i) {
+					entry = entries[i];
+					if (!isUndef(entry.c)) {
 						if (stepIndexOfLastReplacedComponent === -1) {
 							this.processFocusedComponentMark(context);
 						}
 						stepIndexOfLastReplacedComponent = steps.length;
-						this.processComponent(context, node);
-					} else if (node.tagName === "evaluate") {
-						this.processHeaderContribution(context, node);
-					} else if (node.tagName === "redirect") {
-						this.processRedirect(context, node);
+						this.processComponentMarkup(context, entry.c, entry.m);
+					} else if (!isUndef(entry.e)) {
+						this.processHeaderContribution(context, entry.e);
+					} else if (!isUndef(entry.r)) {
+						this.processRedirect(context, entry.r);
 					}
 				}
 				if (stepIndexOfLastReplacedComponent !== -1) {
@@ -892,6 +898,26 @@
 			}
 		},
 
+		// Converts the elements of an <ajax-response> to the entries of a JSON response
+		toEntries: function (root) {
+			var entries = [];
+			for (var i = 0; i < root.childNodes.length; ++i) {
+				var node = root.childNodes[i];
+				if (node.tagName === "header-contribution") {
+					entries.push({ h: node });
+				} else if (node.tagName === "priority-evaluate") {
+					entries.push({ p: node });
+				} else if (node.tagName === "component") {
+					entries.push({ c: node.getAttribute("id"), m: Wicket.DOM.text(node) });
+				} else if (node.tagName === "evaluate") {
+					entries.push({ e: node });
+				} else if (node.tagName === "redirect") {
+					entries.push({ r: Wicket.DOM.text(node) });
+				}
+			}
+			return entries;
+		},
+
 		// Adds a closure to steps that should be invoked after all other steps have been successfully executed
 		success: function (context) {
 			context.steps.push(jQuery.proxy(function (notify) {
@@ -931,10 +957,12 @@
 
 		// Adds a closure that replaces a component
 		processComponent: function (context, node) {
-			context.steps.push(function (notify) {
-				// get the component id
-				var compId = node.getAttribute("id");
+			this.processComponentMarkup(context, node.getAttribute("id"), Wicket.DOM.text(node));
+		},
 
+		// Adds a closure that replaces a component with the given markup
+		processComponentMarkup: function (context, compId, text) {
+			context.steps.push(function (notify) {
 				// get existing component
 				var element = Wicket.$(compId);
 
@@ -942,8 +970,6 @@
 					Wicket.Log.error("Wicket.Ajax.Call.processComponent: Component with id '%s' was not found while trying to perform markup update. " +
 						"Make sure you called component.setOutputMarkupId(true) on the component whose markup you are trying to update.", compId);
 				} else {
-					var text = Wicket.DOM.text(node);
-
 					// replace the component
 					Wicket.DOM.replace(element, text);
 				}
@@ -958,9 +984,9 @@
 			c.processContribution(context, node);
 		},
 
-		// Adds a closure that processes a redirect
+		// Adds a closure that processes a redirect, given as <redirect> element or url
 		processRedirect: function (context, node) {
-			var text = Wicket.DOM.text(node);
+			var text = typeof(node) === "string" ? node : Wicket.DOM.text(node);
 			Wicket.Log.info("Redirecting to: %s", text);
 			context.isRedirecting = true;
 			Wicket.Ajax.redirect(text);
@@ -1734,13 +1760,13 @@
 		Head: {
 			Contributor: {
 
-				// Parses the header contribution element (returns a DOM tree with the contribution)
+				// Parses the header contribution element or text (returns a DOM tree with the contribution)
 				parse: function (headerNode) {
 					// the header contribution is stored as CDATA section in the header-contribution element,
 					// we need to parse it since each header contribution needs to be treated separately
 					
 					// get the header contribution text and unescape it if necessary
-					var text = Wicket.DOM.text(headerNode);
+					var text = typeof(headerNode) === 'string' ? headerNode : Wicket.DOM.text(headerNode);
 
 					// build a DOM tree of the contribution
 					var xmldoc = Wicket.Xml.parse(text);
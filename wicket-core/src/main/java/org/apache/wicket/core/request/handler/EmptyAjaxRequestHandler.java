@@ -17,12 +17,14 @@
 package org.apache.wicket.core.request.handler;
 
 import org.apache.wicket.Application;
+import org.apache.wicket.page.JsonPartialPageUpdate;
 import org.apache.wicket.request.IRequestCycle;
 import org.apache.wicket.request.IRequestHandler;
 import org.apache.wicket.request.http.WebResponse;
 
 /**
- * The empty AJAX request target does output an empty AJAX response.
+ * The empty AJAX request target does output an empty AJAX response, either XML or JSON as accepted
+ * by the request.
  * <br/>
  * May be used as a light, "do nothing" Ajax response.
  *
@@ -62,12 +64,19 @@ public final class EmptyAjaxRequestHandler implements IRequestHandler
 			.getRequestCycleSettings()
 			.getResponseRequestEncoding();
 
-		// Set content type based on markup type for page
-		response.setContentType("text/xml; charset=" + encoding);
-
 		// Make sure it is not cached by a client
 		response.disableCaching();
 
+		if (JsonPartialPageUpdate.isAccepted(requestCycle.getRequest()))
+		{
+			response.setContentType("application/json; charset=" + encoding);
+			response.write("[]");
+			return;
+		}
+
+		// Set content type based on markup type for page
+		response.setContentType("text/xml; charset=" + encoding);
+
 		response.write("<?xml version=\"1.0\" encoding=\"");
 		response.write(encoding);
 		response.write("\"?><ajax-response></ajax-response>");
@@ -364,6 +364,35 @@ public abstract class AbstractBookmarkableMapper extends AbstractComponentMapper
 		return true;
 	}
 
+	/**
+	 * Is a method declared by a subclass of the given class, i.e. was it overridden.
+	 * 
+	 * @param base
+	 *            class declaring the method
+	 * @param name
+	 *            name of the method
+	 * @param parameterTypes
+	 *            types of the method's parameters
+	 * @return whether the class of this mapper overrides the method
+	 */
+	final boolean isOverridden(Class<?> base, String name, Class<?>... parameterTypes)
+	{
+		for (Class<?> clazz = getClass(); clazz != base && clazz != null; clazz = clazz
+			.getSuperclass())
+		{
+			try
+			{
+				clazz.getDeclaredMethod(name, parameterTypes);
+				return true;
+			}
+			catch (NoSuchMethodException ex)
+			{
+				// not declared by this class
+			}
+		}
+		return false;
+	}
+
 	@Override
 	public Url mapHandler(IRequestHandler requestHandler)
 	{
@@ -16,17 +16,22 @@
  */
 package org.apache.wicket.core.request.mapper;
 
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import org.apache.wicket.Application;
+import org.apache.wicket.MetaDataKey;
 import org.apache.wicket.core.request.handler.RequestSettingRequestHandler;
 import org.apache.wicket.protocol.http.PageExpiredException;
 import org.apache.wicket.request.IRequestHandler;
 import org.apache.wicket.request.IRequestMapper;
 import org.apache.wicket.request.Request;
 import org.apache.wicket.request.Url;
+import org.apache.wicket.request.cycle.RequestCycle;
 import org.apache.wicket.request.mapper.IRequestMapperDelegate;
 import org.apache.wicket.request.mapper.info.PageComponentInfo;
 import org.apache.wicket.util.crypt.ICrypt;
@@ -101,6 +106,14 @@ public class CryptoMapper implements IRequestMapperDelegate
 
 	private static final String ENCRYPTED_URL_MARKER_PREFIX = "crypt.";
 
+	/**
+	 * Encrypted texts of the current request, for each crypt.
+	 */
+	private static final MetaDataKey<Map<ICrypt, Map<String, String>>> ENCRYPTED_TEXTS = new MetaDataKey<>()
+	{
+		private static final long serialVersionUID = 1L;
+	};
+
 	private final IRequestMapper wrappedMapper;
 	private final Supplier<ICrypt> cryptProvider;
 
@@ -245,6 +258,46 @@ public class CryptoMapper implements IRequestMapperDelegate
 		return cryptProvider.get();
 	}
 
+	/**
+	 * Encrypts a text with {@link #getCrypt()}. Within a request each distinct text is encrypted
+	 * once only by each crypt, e.g. for pages with many links to the same listener. A crypt
+	 * changing during the request, e.g. with a new key in a new session, does not get texts
+	 * encrypted by its predecessor.
+	 * 
+	 * @param plainText
+	 *            the text to encrypt
+	 * @return encrypted text
+	 */
+	private String encryptUrlSafe(final String plainText)
+	{
+		final ICrypt crypt = getCrypt();
+
+		RequestCycle requestCycle = RequestCycle.get();
+		if (requestCycle == null)
+		{
+			return crypt.encryptUrlSafe(plainText);
+		}
+
+		Map<ICrypt, Map<String, String>> crypts = requestCycle.getMetaData(ENCRYPTED_TEXTS);
+		if (crypts == null)
+		{
+			crypts = new IdentityHashMap<>();
+			requestCycle.setMetaData(ENCRYPTED_TEXTS, crypts);
+		}
+		Map<String, String> encryptedTexts = crypts.computeIfAbsent(crypt, c -> new HashMap<>());
+
+		String encryptedText = encryptedTexts.get(plainText);
+		if (encryptedText == null)
+		{
+			encryptedText = crypt.encryptUrlSafe(plainText);
+			if (encryptedText != null)
+			{
+				encryptedTexts.put(plainText, encryptedText);
+			}
+		}
+		return encryptedText;
+	}
+
 	/**
 	 * @return the wrapped root request mapper
 	 */
@@ -296,7 +349,7 @@ public class CryptoMapper implements IRequestMapperDelegate
 	 */
 	protected Url encryptEntireUrl(final Url url)
 	{
-		String encryptedUrlString = getCrypt().encryptUrlSafe(url.toString());
+		String encryptedUrlString = encryptUrlSafe(url.toString());
 
 		Url encryptedUrl = new Url(url.getCharset());
 
@@ -338,7 +391,7 @@ public class CryptoMapper implements IRequestMapperDelegate
 			if (MapperUtils.parsePageComponentInfoParameter(qp) != null)
 			{
 				it.remove();
-				String encryptedParameterValue = getCrypt().encryptUrlSafe(qp.getName());
+				String encryptedParameterValue = encryptUrlSafe(qp.getName());
 				Url.QueryParameter encryptedParameter
 					= new Url.QueryParameter(ENCRYPTED_PAGE_COMPONENT_INFO_PARAMETER, encryptedParameterValue);
 				encryptedUrl.getQueryParameters().add(0, encryptedParameter);
@@ -16,6 +16,7 @@
  */
 package org.apache.wicket.core.request.mapper;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
 
@@ -24,6 +25,7 @@ import org.apache.wicket.request.IRequestHandler;
 import org.apache.wicket.request.Request;
 import org.apache.wicket.request.Url;
 import org.apache.wicket.request.component.IRequestablePage;
+import org.apache.wicket.request.mapper.IMountedRequestMapper;
 import org.apache.wicket.request.mapper.info.ComponentInfo;
 import org.apache.wicket.request.mapper.info.PageComponentInfo;
 import org.apache.wicket.request.mapper.info.PageInfo;
@@ -62,7 +64,7 @@ import org.apache.wicket.util.string.Strings;
  * 
  * @author Matej Knopp
  */
-public class MountedMapper extends AbstractBookmarkableMapper
+public class MountedMapper extends AbstractBookmarkableMapper implements IMountedRequestMapper
 {
 	/** bookmarkable page class. */
 	private final Supplier<Class<? extends IRequestablePage>> pageClassProvider;
@@ -257,11 +259,49 @@ public class MountedMapper extends AbstractBookmarkableMapper
 		return Objects.equals(pageClass, this.getPageClass());
 	}
 
-	private Class<? extends IRequestablePage> getPageClass()
+	/**
+	 * @return the class of the mounted page
+	 */
+	public Class<? extends IRequestablePage> getPageClass()
 	{
 		return pageClassProvider.get();
 	}
 
+	/**
+	 * The leading segments of the mount path without placeholders, none if
+	 * {@link #getCompatibilityScore(Request)} is overridden, since subclasses might score other
+	 * URLs then.
+	 */
+	@Override
+	public List<String> getFixedSegments()
+	{
+		if (isOverridden(MountedMapper.class, "getCompatibilityScore", Request.class))
+		{
+			return List.of();
+		}
+		return getFixedSegments(mountSegments);
+	}
+
+	/**
+	 * The name of the page class, if not provided dynamically and neither
+	 * {@link #checkPageClass(Class)} nor {@link #mapHandler(IRequestHandler)} is overridden, since
+	 * subclasses might map handlers of other pages then.
+	 * 
+	 * @see org.apache.wicket.SystemMapper#getHandlerKey(IRequestHandler)
+	 */
+	@Override
+	public Object getHandlerKey()
+	{
+		if (pageClassProvider instanceof ClassReference &&
+			isOverridden(MountedMapper.class, "checkPageClass", Class.class) == false &&
+			isOverridden(MountedMapper.class, "mapHandler", IRequestHandler.class) == false)
+		{
+			Class<? extends IRequestablePage> pageClass = getPageClass();
+			return pageClass == null ? null : pageClass.getName();
+		}
+		return null;
+	}
+
 	@Override
 	public String toString()
 	{
@@ -27,6 +27,7 @@ import org.apache.wicket.request.Request;
 import org.apache.wicket.request.Url;
 import org.apache.wicket.request.handler.resource.ResourceReferenceRequestHandler;
 import org.apache.wicket.request.http.flow.AbortWithHttpErrorCodeException;
+import org.apache.wicket.request.mapper.IMountedRequestMapper;
 import org.apache.wicket.request.mapper.parameter.INamedParameters;
 import org.apache.wicket.request.mapper.parameter.IPageParametersEncoder;
 import org.apache.wicket.request.mapper.parameter.PageParameters;
@@ -71,7 +72,7 @@ import org.apache.wicket.util.string.Strings;
  *
  * @author Peter Ertl
  */
-public class ResourceMapper extends AbstractBookmarkableMapper
+public class ResourceMapper extends AbstractBookmarkableMapper implements IMountedRequestMapper
 {
 	// encode page parameters into url + decode page parameters from url
 	private final IPageParametersEncoder parametersEncoder;
@@ -198,6 +199,48 @@ public class ResourceMapper extends AbstractBookmarkableMapper
 		return score;
 	}
 
+	/**
+	 * The leading segments of the mount path without placeholders, none if
+	 * {@link #getCompatibilityScore(Request)} is overridden, since subclasses might score other
+	 * URLs then.
+	 */
+	@Override
+	public List<String> getFixedSegments()
+	{
+		if (isOverridden(ResourceMapper.class, "getCompatibilityScore", Request.class))
+		{
+			return List.of();
+		}
+
+		List<String> fixedSegments = getFixedSegments(mountSegments);
+
+		// the last segment of the URL might be decorated by the caching strategy
+		for (int index = fixedSegments.size(); index < mountSegments.length; index++)
+		{
+			if (getOptionalPlaceholder(mountSegments[index]) == null)
+			{
+				return fixedSegments;
+			}
+		}
+		return fixedSegments.subList(0, Math.max(0, fixedSegments.size() - 1));
+	}
+
+	/**
+	 * The key of the resource reference, if {@link #mapHandler(IRequestHandler)} is not
+	 * overridden.
+	 * 
+	 * @see org.apache.wicket.SystemMapper#getHandlerKey(IRequestHandler)
+	 */
+	@Override
+	public Object getHandlerKey()
+	{
+		if (isOverridden(ResourceMapper.class, "mapHandler", IRequestHandler.class))
+		{
+			return null;
+		}
+		return resourceReference.getKey();
+	}
+
 	@Override
 	public Url mapHandler(IRequestHandler requestHandler)
 	{
@@ -23,6 +23,8 @@ import org.apache.wicket.util.lang.Args;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
@@ -44,6 +46,8 @@ public class AESCrypt extends AbstractJceCrypt
 	private final String algorithm;
 	private final ISecureRandomSupplier randomSupplier;
 
+	/** Ciphers for reuse, each is initialized before use */
+	private final Queue<Cipher> ciphers = new ConcurrentLinkedQueue<>();
 	
 	/**
 	 * Constructor
@@ -85,7 +89,7 @@ public class AESCrypt extends AbstractJceCrypt
 	{
 		try
 		{
-			Cipher cipher = Cipher.getInstance(algorithm);
+			Cipher cipher = getCipher();
 			
 			int ivSize = cipher.getBlockSize();
 			byte[] iv = new byte[ivSize];
@@ -95,7 +99,10 @@ public class AESCrypt extends AbstractJceCrypt
 			System.arraycopy(encrypted, ivSize, ciphertext, 0, ciphertext.length);
 
 			cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(iv));
-			return cipher.doFinal(ciphertext);
+			byte[] result = cipher.doFinal(ciphertext);
+
+			ciphers.offer(cipher);
+			return result;
 		}
 		catch (IllegalBlockSizeException | BadPaddingException | NoSuchAlgorithmException | NoSuchPaddingException 
 			| InvalidKeyException | InvalidAlgorithmParameterException e)
@@ -109,12 +116,14 @@ public class AESCrypt extends AbstractJceCrypt
 	{
 		try
 		{
-			Cipher cipher = Cipher.getInstance(algorithm);
+			Cipher cipher = getCipher();
 			int ivSize = cipher.getBlockSize();
 			byte[] iv = randomSupplier.getRandomBytes(ivSize);
 			cipher.init(Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(iv));
 
 			byte[] ciphertext = cipher.doFinal(plainBytes);
+			ciphers.offer(cipher);
+
 			byte[] finalRes = new byte[ciphertext.length + ivSize];
 			
 			System.arraycopy(iv, 0, finalRes, 0, ivSize);
@@ -129,4 +138,19 @@ public class AESCrypt extends AbstractJceCrypt
 		}
 
 	}
+
+	/**
+	 * Get a cipher for the algorithm, reusing a previously created one if available. Ciphers are
+	 * given back after successful use only, the pool does not grow beyond the count of concurrent
+	 * callers.
+	 */
+	private Cipher getCipher() throws NoSuchAlgorithmException, NoSuchPaddingException
+	{
+		Cipher cipher = ciphers.poll();
+		if (cipher == null)
+		{
+			cipher = Cipher.getInstance(algorithm);
+		}
+		return cipher;
+	}
 }
\ No newline at end of file
@@ -25,7 +25,10 @@ import org.apache.wicket.util.lang.Args;
 
 import java.security.Provider;
 import java.security.Security;
+import java.util.Collections;
+import java.util.Map;
 import java.util.UUID;
+import java.util.WeakHashMap;
 
 /**
  * Crypt factory that produces {@link SunJceCrypt} instances based on session-specific
@@ -33,6 +36,9 @@ import java.util.UUID;
  * attacks.
  * <br>
  * Note that the use of this crypt factory will result in an immediate creation of a session.
+ * <br>
+ * Crypts are reused for the same session key, so the secret key is generated only once per
+ * session.
  *
  * @author igor.vaynberg
  */
@@ -41,6 +47,9 @@ public class KeyInSessionSunJceCryptFactory extends AbstractKeyInSessionCryptFac
 
 	private final String cryptMethod;
 
+	/** Crypts by key, weakly referenced as the keys are held by the sessions */
+	private final Map<CryptData, ICrypt> crypts = Collections.synchronizedMap(new WeakHashMap<>());
+
 	/**
 	 * Constructor using {@link javax.crypto.Cipher} {@value org.apache.wicket.util.crypt.SunJceCrypt#DEFAULT_CRYPT_METHOD}
 	 */
@@ -92,10 +101,12 @@ public class KeyInSessionSunJceCryptFactory extends AbstractKeyInSessionCryptFac
 	@Override
 	protected ICrypt createCrypt(CryptData keyParams)
 	{
-	    SunJceCrypt crypt = new SunJceCrypt(cryptMethod, keyParams.salt, 1000);
-        crypt.setKey(keyParams.key);
-        
-        return crypt;
+		return crypts.computeIfAbsent(keyParams, data -> {
+			SunJceCrypt crypt = new SunJceCrypt(cryptMethod, data.salt, 1000);
+			crypt.setKey(data.key);
+
+			return crypt;
+		});
 	}
 
     static final class CryptData implements IClusterable
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.core.util.lang;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.util.lang.Args;
+
+/**
+ * Utilities to run tasks in parallel, e.g. to preload resources at startup.
+ */
+public class ParallelTasks
+{
+	private ParallelTasks()
+	{
+	}
+
+	/**
+	 * Run all tasks on a new pool and wait for them to finish. A failing task does not stop the
+	 * others, its result is {@code null}.
+	 * <p>
+	 * If the calling thread is interrupted while waiting, its interrupt flag is restored and a
+	 * {@link WicketRuntimeException} is thrown.
+	 *
+	 * @param <T>
+	 *            type of results
+	 * @param tasks
+	 *            tasks to run
+	 * @param parallelism
+	 *            count of threads to use
+	 * @param onFailure
+	 *            called with the index and cause of each failed task
+	 * @return results in the order of the tasks
+	 */
+	public static <T> List<T> invokeAll(final List<? extends Callable<T>> tasks,
+		final int parallelism, final BiConsumer<Integer, Throwable> onFailure)
+	{
+		Args.notNull(tasks, "tasks");
+		Args.notNull(onFailure, "onFailure");
+
+		List<T> results = new ArrayList<>(tasks.size());
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try
+		{
+			List<Future<T>> futures = pool.invokeAll(tasks);
+			for (int i = 0; i < futures.size(); i++)
+			{
+				T result = null;
+				try
+				{
+					result = futures.get(i).get();
+				}
+				catch (ExecutionException ex)
+				{
+					onFailure.accept(i, ex.getCause());
+				}
+				results.add(result);
+			}
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new WicketRuntimeException(ex);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+
+		return results;
+	}
+}
@@ -18,6 +18,7 @@ package org.apache.wicket.core.util.resource;
 
 import java.net.URL;
 
+import org.apache.wicket.Application;
 import org.apache.wicket.util.file.IResourceFinder;
 import org.apache.wicket.util.lang.Args;
 import org.apache.wicket.util.resource.IResourceStream;
@@ -57,10 +58,14 @@ public class ClassPathResourceFinder implements IResourceFinder
 	{
 		Args.notEmpty(path, "path");
 		String fullPath = prefix + (path.startsWith("/") ? path.substring(1) : path);
+
+		ResourceNameIndex index = getResourceNameIndex();
+
 		IResourceStream resourceStream;
 		if (clazz != null)
 		{
-			resourceStream = getResourceStreamWithClassLoader(clazz.getClassLoader(), fullPath);
+			resourceStream = getResourceStreamWithClassLoader(index, clazz.getClassLoader(),
+				fullPath);
 			if (resourceStream != null)
 			{
 				return resourceStream;
@@ -69,7 +74,7 @@ public class ClassPathResourceFinder implements IResourceFinder
 
 		// use context classloader when no specific classloader is set
 		// (package resources for instance)
-		resourceStream = getResourceStreamWithClassLoader(Thread.currentThread()
+		resourceStream = getResourceStreamWithClassLoader(index, Thread.currentThread()
 			.getContextClassLoader(), fullPath);
 		if (resourceStream != null)
 		{
@@ -77,7 +82,8 @@ public class ClassPathResourceFinder implements IResourceFinder
 		}
 
 		// use Wicket classloader when no specific classloader is set
-		resourceStream = getResourceStreamWithClassLoader(getClass().getClassLoader(), fullPath);
+		resourceStream = getResourceStreamWithClassLoader(index, getClass().getClassLoader(),
+			fullPath);
 		if (resourceStream != null)
 		{
 			return resourceStream;
@@ -86,9 +92,22 @@ public class ClassPathResourceFinder implements IResourceFinder
 		return null;
 	}
 
-	private IResourceStream getResourceStreamWithClassLoader(ClassLoader classLoader, String path)
+	/**
+	 * Get the index to answer lookups of missing resources with.
+	 * 
+	 * @return index or {@code null}
+	 * @see org.apache.wicket.settings.ResourceSettings#getResourceNameIndex()
+	 */
+	protected ResourceNameIndex getResourceNameIndex()
+	{
+		return Application.exists() ? Application.get().getResourceSettings()
+			.getResourceNameIndex() : null;
+	}
+
+	private IResourceStream getResourceStreamWithClassLoader(ResourceNameIndex index,
+		ClassLoader classLoader, String path)
 	{
-		if (classLoader != null)
+		if (classLoader != null && (index == null || index.mayExist(classLoader, path)))
 		{
 			URL url = classLoader.getResource(path);
 			if (url != null)
@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.core.util.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+import org.apache.wicket.util.lang.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An index of the resources in the classpath below some root folders, so lookups of resources
+ * which do not exist do not have to ask the class loader.
+ * <p>
+ * Locating a resource tries many combinations of style, variation, locale and extension, most of
+ * them missing. With an index in the resource settings, {@link ClassPathResourceFinder} answers
+ * these misses from memory:
+ *
+ * <pre>
+ * getResourceSettings().setResourceNameIndex(
+ * 	new ResourceNameIndex(getClass().getClassLoader(), "com/mycompany", "org/apache/wicket").scan());
+ * </pre>
+ *
+ * The index lists all folders and jars in the class path of the class loader and its parents,
+ * including jars referenced by a manifest's {@code Class-Path}. This is possible for
+ * {@link URLClassLoader}s and the system class loader only, for any other class loader nothing is
+ * indexed. Missing resources are answered for lookups with the same class loader only, for roots
+ * found in folders and jars only. All other resources are looked up as usual.
+ *
+ * @see org.apache.wicket.settings.ResourceSettings#setResourceNameIndex(ResourceNameIndex)
+ */
+public class ResourceNameIndex
+{
+	private static final Logger log = LoggerFactory.getLogger(ResourceNameIndex.class);
+
+	private final ClassLoader classLoader;
+
+	private final List<String> roots = new ArrayList<>();
+
+	/** The scanned state, {@code null} if not scanned yet */
+	private volatile State state;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param classLoader
+	 *            class loader to find roots with
+	 * @param roots
+	 *            root folders in the classpath, e.g. {@code "com/mycompany"}
+	 */
+	public ResourceNameIndex(ClassLoader classLoader, String... roots)
+	{
+		this.classLoader = Args.notNull(classLoader, "classLoader");
+
+		for (String root : roots)
+		{
+			Args.notEmpty(root, "root");
+
+			root = root.startsWith("/") ? root.substring(1) : root;
+			this.roots.add(root.endsWith("/") ? root : root + "/");
+		}
+	}
+
+	/**
+	 * Scan the roots now, otherwise this is done on the first lookup.
+	 *
+	 * @return {@code this} for chaining
+	 */
+	public ResourceNameIndex scan()
+	{
+		getState();
+		return this;
+	}
+
+	/**
+	 * Clear the index, the roots are scanned again on the next lookup. Useful when resources were
+	 * added, e.g. in development mode.
+	 */
+	public void clear()
+	{
+		state = null;
+	}
+
+	/**
+	 * Whether a resource may exist.
+	 *
+	 * @param classLoader
+	 *            class loader to look up the resource with
+	 * @param path
+	 *            full path of the resource in the classpath
+	 * @return {@code false} only if the class loader is the indexed one and the path is below an
+	 *         indexed root and does not exist
+	 */
+	public boolean mayExist(ClassLoader classLoader, String path)
+	{
+		if (classLoader != this.classLoader)
+		{
+			return true;
+		}
+
+		State current = getState();
+		for (String root : current.roots)
+		{
+			if (path.startsWith(root))
+			{
+				return current.names.contains(path);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return count of indexed resources
+	 */
+	public int size()
+	{
+		return getState().names.size();
+	}
+
+	private State getState()
+	{
+		State current = state;
+		if (current == null)
+		{
+			synchronized (this)
+			{
+				current = state;
+				if (current == null)
+				{
+					current = newState();
+					state = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private State newState()
+	{
+		long start = System.nanoTime();
+
+		List<String> indexedRoots = new ArrayList<>();
+		Set<String> names = new HashSet<>();
+		try
+		{
+			List<Path> classPath = getClassPath();
+			if (classPath == null)
+			{
+				log.debug("Class path of {} cannot be indexed", classLoader);
+			}
+			else
+			{
+				for (String root : roots)
+				{
+					if (isIndexable(root))
+					{
+						for (Path location : classPath)
+						{
+							scan(location, root, names);
+						}
+						indexedRoots.add(root);
+					}
+					else
+					{
+						log.debug("Root '{}' cannot be indexed", root);
+					}
+				}
+			}
+		}
+		catch (IOException | URISyntaxException ex)
+		{
+			log.warn("Cannot index roots", ex);
+			indexedRoots.clear();
+			names.clear();
+		}
+
+		log.debug("Indexed {} resources in {} ms", names.size(),
+			(System.nanoTime() - start) / 1000000);
+
+		return new State(indexedRoots, names);
+	}
+
+	/**
+	 * Get all folders and jars in the class path of the class loader and its parents.
+	 *
+	 * @return locations or {@code null} if the class path cannot be determined completely
+	 */
+	private List<Path> getClassPath() throws IOException, URISyntaxException
+	{
+		Deque<URL> urls = new ArrayDeque<>();
+		for (ClassLoader loader = classLoader; loader != null &&
+			loader != ClassLoader.getPlatformClassLoader(); loader = loader.getParent())
+		{
+			if (loader instanceof URLClassLoader)
+			{
+				Collections.addAll(urls, ((URLClassLoader)loader).getURLs());
+			}
+			else if (loader == ClassLoader.getSystemClassLoader())
+			{
+				for (String entry : System.getProperty("java.class.path", "")
+					.split(File.pathSeparator))
+				{
+					if (entry.isEmpty() == false)
+					{
+						urls.add(Paths.get(entry).toUri().toURL());
+					}
+				}
+			}
+			else
+			{
+				return null;
+			}
+		}
+
+		List<Path> locations = new ArrayList<>();
+		while (urls.isEmpty() == false)
+		{
+			URL url = urls.poll();
+			if ("file".equals(url.getProtocol()) == false)
+			{
+				return null;
+			}
+
+			Path location = Paths.get(url.toURI());
+			if (locations.contains(location) || Files.exists(location) == false)
+			{
+				continue;
+			}
+			locations.add(location);
+
+			if (Files.isRegularFile(location))
+			{
+				// jars referenced by the manifest are in the class path too
+				try (JarFile jar = new JarFile(location.toFile()))
+				{
+					Manifest manifest = jar.getManifest();
+					String classPath = manifest != null
+						? manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) : null;
+					if (classPath != null)
+					{
+						for (String entry : classPath.trim().split("\\s+"))
+						{
+							if (entry.isEmpty() == false)
+							{
+								urls.add(new URL(url, entry));
+							}
+						}
+					}
+				}
+			}
+		}
+		return locations;
+	}
+
+	/**
+	 * Is the root found in folders and jars only.
+	 */
+	private boolean isIndexable(String root) throws IOException
+	{
+		Enumeration<URL> urls = classLoader.getResources(root);
+		while (urls.hasMoreElements())
+		{
+			String protocol = urls.nextElement().getProtocol();
+			if ("file".equals(protocol) == false && "jar".equals(protocol) == false)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Scan a root in a folder or jar, jars do not need to contain directory entries.
+	 */
+	private void scan(Path location, String root, Set<String> names) throws IOException
+	{
+		if (Files.isDirectory(location))
+		{
+			Path folder = location.resolve(root);
+			if (Files.isDirectory(folder))
+			{
+				try (Stream<Path> files = Files.walk(folder))
+				{
+					files.filter(Files::isRegularFile).forEach(file -> names
+						.add(root + folder.relativize(file).toString().replace('\\', '/')));
+				}
+			}
+		}
+		else
+		{
+			try (JarFile jar = new JarFile(location.toFile()))
+			{
+				Enumeration<JarEntry> entries = jar.entries();
+				while (entries.hasMoreElements())
+				{
+					JarEntry entry = entries.nextElement();
+					if (entry.isDirectory() == false && entry.getName().startsWith(root))
+					{
+						names.add(entry.getName());
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The scanned roots and resources.
+	 */
+	private static final class State
+	{
+		private final List<String> roots;
+
+		private final Set<String> names;
+
+		private State(List<String> roots, Set<String> names)
+		{
+			this.roots = Collections.unmodifiableList(roots);
+			this.names = Collections.unmodifiableSet(names);
+		}
+	}
+}
@@ -37,6 +37,7 @@ import java.util.List;
 import org.apache.wicket.Application;
 import org.apache.wicket.ThreadContext;
 import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.core.util.resource.ResourceNameIndex;
 import org.apache.wicket.util.io.IOUtils;
 import org.apache.wicket.util.string.Strings;
 import org.apache.wicket.util.thread.ICode;
@@ -48,7 +49,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * An extension of ModificationWatcher that removes the NotFound entries from
- * the MarkupCache for newly created files.
+ * the MarkupCache for newly created files, and clears the
+ * {@link org.apache.wicket.core.util.resource.ResourceNameIndex}.
  *
  * By default MarkupCache registers Markup.NO_MARKUP value for each requested but
  * not found markup file. Later when the user creates the markup file the MarkupCache
@@ -200,6 +202,12 @@ public class Nio2ModificationWatcher extends ModificationWatcher
 				ThreadContext.setApplication(application);
 				application.getMarkupSettings()
 						.getMarkupFactory().getMarkupCache().removeMarkup(absolutePath);
+
+				ResourceNameIndex index = application.getResourceSettings().getResourceNameIndex();
+				if (index != null)
+				{
+					index.clear();
+				}
 			} finally {
 				ThreadContext.setApplication(null);
 			}
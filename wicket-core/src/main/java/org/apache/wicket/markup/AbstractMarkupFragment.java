@@ -27,6 +27,32 @@ public abstract class AbstractMarkupFragment implements IMarkupFragment
 		return TagUtils.findTagMarkup(this, id, null, streamOffset);
 	}
 
+	/**
+	 * Get the count of directly following {@link RawMarkup}s starting at the given index, if more
+	 * than one.
+	 * 
+	 * @param index
+	 *            index of element
+	 * @return count of merged raw markup elements, or 0 if there is nothing to merge
+	 */
+	int getRawMarkupRunLength(final int index)
+	{
+		return 0;
+	}
+
+	/**
+	 * Get the merged output of directly following {@link RawMarkup}s starting at the given index.
+	 * 
+	 * @param index
+	 *            index of element
+	 * @return merged raw markup or <code>null</code> if there is nothing to merge
+	 * @see #getRawMarkupRunLength(int)
+	 */
+	CharSequence getRawMarkupRun(final int index)
+	{
+		return null;
+	}
+
 	@Override
 	public String toString()
 	{
@@ -23,6 +23,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.apache.wicket.Component;
 import org.apache.wicket.MarkupContainer;
@@ -33,6 +34,7 @@ import org.apache.wicket.markup.parser.filter.HtmlHandler;
 import org.apache.wicket.request.Response;
 import org.apache.wicket.util.lang.Args;
 import org.apache.wicket.util.lang.Generics;
+import org.apache.wicket.util.string.AppendingStringBuffer;
 import org.apache.wicket.util.string.StringValue;
 import org.apache.wicket.util.string.Strings;
 import org.apache.wicket.util.value.IValueMap;
@@ -125,6 +127,12 @@ public class ComponentTag extends MarkupElement
 
 	private IAutoComponentFactory autoComponentFactory;
 
+	/** If mutable, the immutable tag this tag is a copy of */
+	private ComponentTag copyOf;
+
+	/** Cached output of an immutable tag */
+	private volatile Output output;
+
 	/**
 	 * Automatically create a XmlTag, assign the name and the type, and construct a ComponentTag
 	 * based on this XmlTag.
@@ -284,7 +292,8 @@ public class ComponentTag extends MarkupElement
 	 */
 	public final String getAttribute(String name)
 	{
-		return xmlTag.getAttributes().getString(name);
+		CharSequence value = xmlTag.getAttribute(name);
+		return value != null ? value.toString() : null;
 	}
 
 	/**
@@ -449,6 +458,7 @@ public class ComponentTag extends MarkupElement
 		dest.id = id;
 		dest.flags = flags;
 		dest.autoComponentFactory = autoComponentFactory;
+		dest.copyOf = xmlTag.isMutable() ? copyOf : this;
 
 		if (markupClassRef != null)
 		{
@@ -718,20 +728,71 @@ public class ComponentTag extends MarkupElement
 	public final void writeOutput(final Response response, final boolean stripWicketAttributes,
 		final String namespace)
 	{
-		response.write("<");
+		// immutable tags and unchanged copies are written from the cached output
+		ComponentTag immutable = xmlTag.isMutable() ? copyOf : this;
+		if (immutable != null && (immutable == this || isUnchangedCopyOf(immutable)))
+		{
+			Output output = immutable.output;
+			if (output == null || output.stripWicketAttributes != stripWicketAttributes ||
+				Objects.equals(output.namespace, namespace) == false)
+			{
+				output = new Output(stripWicketAttributes, namespace,
+					immutable.toOutput(stripWicketAttributes, namespace).toString());
+				immutable.output = output;
+			}
+			response.write(output.text);
+		}
+		else
+		{
+			response.write(toOutput(stripWicketAttributes, namespace));
+		}
+	}
+
+	/**
+	 * Does this mutable tag still render as the tag it is a copy of.
+	 * 
+	 * @param original
+	 *            original tag
+	 * @return whether name, type and attributes are unchanged
+	 */
+	private boolean isUnchangedCopyOf(final ComponentTag original)
+	{
+		if (getType() != original.getType() || Objects.equals(getName(), original.getName()) == false ||
+			Objects.equals(getNamespace(), original.getNamespace()) == false)
+		{
+			return false;
+		}
+
+		return xmlTag.hasEqualAttributes(original.xmlTag);
+	}
+
+	/**
+	 * Render the tag.
+	 * 
+	 * @param stripWicketAttributes
+	 *            if true, wicket:id are removed from output
+	 * @param namespace
+	 *            Wicket's namespace to use
+	 * @return output
+	 */
+	private CharSequence toOutput(final boolean stripWicketAttributes, final String namespace)
+	{
+		final AppendingStringBuffer buffer = new AppendingStringBuffer(64);
+
+		buffer.append('<');
 
 		if (getType() == TagType.CLOSE)
 		{
-			response.write("/");
+			buffer.append('/');
 		}
 
 		if (getNamespace() != null)
 		{
-			response.write(getNamespace());
-			response.write(":");
+			buffer.append(getNamespace());
+			buffer.append(':');
 		}
 
-		response.write(getName());
+		buffer.append(getName());
 
 		String namespacePrefix = null;
 		if (stripWicketAttributes == true)
@@ -739,39 +800,59 @@ public class ComponentTag extends MarkupElement
 			namespacePrefix = namespace + ":";
 		}
 
-		if (getAttributes().size() > 0)
-		{
-			for (String key : getAttributes().keySet())
+		final String namespacePrefixToStrip = namespacePrefix;
+		xmlTag.forEachAttribute((key, rawValue) -> {
+			if (key == null)
 			{
-				if (key == null)
-				{
-					continue;
-				}
+				return;
+			}
 
-				if ((namespacePrefix == null) || (key.startsWith(namespacePrefix) == false))
+			if ((namespacePrefixToStrip == null) ||
+				(key.startsWith(namespacePrefixToStrip) == false))
+			{
+				buffer.append(' ');
+				buffer.append(key);
+				CharSequence value = rawValue instanceof CharSequence ? (CharSequence)rawValue
+					: getAttribute(key);
+
+				// attributes without values are possible, e.g.' disabled'
+				if (value != null)
 				{
-					response.write(" ");
-					response.write(key);
-					CharSequence value = getAttribute(key);
-
-					// attributes without values are possible, e.g.' disabled'
-					if (value != null)
-					{
-						response.write("=\"");
-						value = Strings.escapeMarkup(value);
-						response.write(value);
-						response.write("\"");
-					}
+					buffer.append("=\"");
+					buffer.append(Strings.escapeMarkup(value));
+					buffer.append('"');
 				}
 			}
-		}
+		});
 
 		if (getType() == TagType.OPEN_CLOSE)
 		{
-			response.write("/");
+			buffer.append('/');
 		}
 
-		response.write(">");
+		buffer.append('>');
+
+		return buffer;
+	}
+
+	/**
+	 * Output of an immutable tag.
+	 */
+	private static final class Output
+	{
+		private final boolean stripWicketAttributes;
+
+		private final String namespace;
+
+		private final String text;
+
+		private Output(final boolean stripWicketAttributes, final String namespace,
+			final String text)
+		{
+			this.stripWicketAttributes = stripWicketAttributes;
+			this.namespace = namespace;
+			this.text = text;
+		}
 	}
 
 	/**
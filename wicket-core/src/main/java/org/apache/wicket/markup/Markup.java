@@ -48,6 +48,9 @@ public class Markup extends AbstractMarkupFragment
 	/** The associated markup file */
 	private final MarkupResourceStream markupResourceStream;
 
+	/** Merged runs of raw markup, created lazily */
+	private volatile RawMarkupRuns rawMarkupRuns;
+
 	/**
 	 * Take the markup string, parse it and return the Markup (list of MarkupElements).
 	 * <p>
@@ -145,6 +148,7 @@ public class Markup extends AbstractMarkupFragment
 		}
 
 		markupElements.set(index, elem);
+		rawMarkupRuns = null;
 	}
 
 	/**
@@ -171,6 +175,7 @@ public class Markup extends AbstractMarkupFragment
 	final public void addMarkupElement(final MarkupElement markupElement)
 	{
 		markupElements.add(markupElement);
+		rawMarkupRuns = null;
 	}
 
 	/**
@@ -182,6 +187,7 @@ public class Markup extends AbstractMarkupFragment
 	final public void addMarkupElement(final int pos, final MarkupElement markupElement)
 	{
 		markupElements.add(pos, markupElement);
+		rawMarkupRuns = null;
 	}
 
 	/**
@@ -207,6 +213,79 @@ public class Markup extends AbstractMarkupFragment
 		return find(id, 0);
 	}
 
+	@Override
+	final int getRawMarkupRunLength(final int index)
+	{
+		return getRawMarkupRuns().getLength(index);
+	}
+
+	@Override
+	final CharSequence getRawMarkupRun(final int index)
+	{
+		return getRawMarkupRuns().get(index);
+	}
+
+	private RawMarkupRuns getRawMarkupRuns()
+	{
+		RawMarkupRuns runs = rawMarkupRuns;
+		if (runs == null)
+		{
+			runs = new RawMarkupRuns(markupElements);
+			rawMarkupRuns = runs;
+		}
+		return runs;
+	}
+
+	/**
+	 * Runs of directly following {@link RawMarkup}s, merged so they can be rendered at once.
+	 */
+	private static class RawMarkupRuns
+	{
+		private final int[] lengths;
+
+		private final CharSequence[] runs;
+
+		RawMarkupRuns(final List<MarkupElement> elements)
+		{
+			int size = elements.size();
+			lengths = new int[size];
+			runs = new CharSequence[size];
+
+			int start = 0;
+			while (start < size)
+			{
+				int end = start;
+				while (end < size && elements.get(end) instanceof RawMarkup)
+				{
+					end++;
+				}
+
+				if (end - start > 1)
+				{
+					AppendingStringBuffer buffer = new AppendingStringBuffer();
+					for (int index = start; index < end; index++)
+					{
+						buffer.append(elements.get(index).toCharSequence());
+					}
+					runs[start] = buffer.toString();
+					lengths[start] = end - start;
+				}
+
+				start = Math.max(end, start + 1);
+			}
+		}
+
+		int getLength(final int index)
+		{
+			return index < lengths.length ? lengths[index] : 0;
+		}
+
+		CharSequence get(final int index)
+		{
+			return index < runs.length ? runs[index] : null;
+		}
+	}
+
 	@Override
 	public final String toString()
 	{
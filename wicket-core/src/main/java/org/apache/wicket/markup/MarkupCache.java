@@ -16,14 +16,21 @@
  */
 package org.apache.wicket.markup;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.wicket.Application;
 import org.apache.wicket.MarkupContainer;
 import org.apache.wicket.WicketRuntimeException;
 import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.lang.Bytes;
 import org.apache.wicket.util.listener.IChangeListener;
 import org.apache.wicket.util.watch.IModifiable;
 import org.apache.wicket.util.watch.IModificationWatcher;
@@ -567,6 +574,8 @@ public class MarkupCache implements IMarkupCache
 	/**
 	 * Allows you to change the map implementation which will hold the cache data. By default it is
 	 * a ConcurrentHashMap() in order to allow multiple thread to access the data in a secure way.
+	 * If {@link org.apache.wicket.settings.MarkupSettings#getMarkupCacheSize()} is set, a
+	 * {@link BoundedCacheImplementation} is used instead.
 	 * 
 	 * @param <K>
 	 * @param <V>
@@ -574,6 +583,11 @@ public class MarkupCache implements IMarkupCache
 	 */
 	protected <K, V> ICache<K, V> newCacheImplementation()
 	{
+		Bytes size = application.getMarkupSettings().getMarkupCacheSize();
+		if (size != null)
+		{
+			return new BoundedCacheImplementation<K, V>(size.bytes());
+		}
 		return new DefaultCacheImplementation<K, V>();
 	}
 
@@ -737,4 +751,269 @@ public class MarkupCache implements IMarkupCache
 			clear();
 		}
 	}
+
+	/**
+	 * A cache limited by the estimated size of its entries. When the limit is exceeded, the least
+	 * recently used entries are evicted. Lookups do not lock the cache.
+	 * <p>
+	 * Negative entries (i.e. {@link Markup#NO_MARKUP}) are cached too, they just have a small
+	 * weight.
+	 * 
+	 * @param <K>
+	 * @param <V>
+	 */
+	public static class BoundedCacheImplementation<K, V> implements ICache<K, V>
+	{
+		private final ConcurrentHashMap<K, Node<V>> cache = new ConcurrentHashMap<>();
+
+		private final long maxWeight;
+
+		private final AtomicLong weight = new AtomicLong();
+
+		private final AtomicLong hits = new AtomicLong();
+
+		private final AtomicLong misses = new AtomicLong();
+
+		private final AtomicLong evictions = new AtomicLong();
+
+		/**
+		 * Construct.
+		 * 
+		 * @param maxWeight
+		 *            maximum total weight of all entries
+		 */
+		public BoundedCacheImplementation(long maxWeight)
+		{
+			this.maxWeight = Args.withinRange(1L, Long.MAX_VALUE, maxWeight, "maxWeight");
+		}
+
+		/**
+		 * Estimate the weight of a value, roughly its size in bytes.
+		 * 
+		 * @param value
+		 * @return weight
+		 */
+		protected long weigh(V value)
+		{
+			if (value == Markup.NO_MARKUP)
+			{
+				return 16;
+			}
+			else if (value instanceof Markup)
+			{
+				Markup markup = (Markup)value;
+				long weight = 64;
+				for (int i = 0; i < markup.size(); i++)
+				{
+					MarkupElement element = markup.get(i);
+					if (element instanceof ComponentTag)
+					{
+						weight += 128 + ((ComponentTag)element).getLength() * 2L;
+					}
+					else
+					{
+						weight += 32 + element.toCharSequence().length() * 2L;
+					}
+				}
+				return weight;
+			}
+			else if (value instanceof CharSequence)
+			{
+				return 40 + ((CharSequence)value).length() * 2L;
+			}
+			return 16;
+		}
+
+		@Override
+		public void clear()
+		{
+			for (K key : cache.keySet())
+			{
+				remove(key);
+			}
+		}
+
+		@Override
+		public boolean containsKey(final Object key)
+		{
+			if (key == null)
+			{
+				return false;
+			}
+			return cache.containsKey(key);
+		}
+
+		@Override
+		public V get(final Object key)
+		{
+			Node<V> node = key != null ? cache.get(key) : null;
+			if (node == null)
+			{
+				misses.incrementAndGet();
+				return null;
+			}
+
+			hits.incrementAndGet();
+			node.accessed = System.nanoTime();
+			return node.value;
+		}
+
+		@Override
+		public Collection<K> getKeys()
+		{
+			return Collections.unmodifiableSet(cache.keySet());
+		}
+
+		@Override
+		public Collection<V> getValues()
+		{
+			List<V> values = new ArrayList<>(cache.size());
+			for (Node<V> node : cache.values())
+			{
+				values.add(node.value);
+			}
+			return values;
+		}
+
+		@Override
+		public void put(K key, V value)
+		{
+			Node<V> node = new Node<>(value, weigh(value));
+			if (node.weight > maxWeight)
+			{
+				// too large to be cached
+				remove(key);
+				return;
+			}
+
+			Node<V> previous = cache.put(key, node);
+			long delta = node.weight - (previous != null ? previous.weight : 0);
+			if (weight.addAndGet(delta) > maxWeight)
+			{
+				evict();
+			}
+		}
+
+		/**
+		 * Evict least recently used entries until the weight is below the maximum.
+		 */
+		private synchronized void evict()
+		{
+			if (weight.get() <= maxWeight)
+			{
+				return;
+			}
+
+			List<Map.Entry<K, Node<V>>> entries = new ArrayList<>(cache.entrySet());
+			for (Map.Entry<K, Node<V>> entry : entries)
+			{
+				// sort by a stable snapshot, lookups continue to update the access time
+				entry.getValue().evictionOrder = entry.getValue().accessed;
+			}
+			entries.sort(Comparator.comparingLong(entry -> entry.getValue().evictionOrder));
+
+			// evict some more to not evict on each put
+			long target = maxWeight - maxWeight / 10;
+			for (Map.Entry<K, Node<V>> entry : entries)
+			{
+				if (weight.get() <= target)
+				{
+					break;
+				}
+
+				Node<V> node = entry.getValue();
+				if (cache.remove(entry.getKey(), node))
+				{
+					weight.addAndGet(-node.weight);
+					evictions.incrementAndGet();
+				}
+			}
+		}
+
+		@Override
+		public boolean remove(K key)
+		{
+			if (key == null)
+			{
+				return false;
+			}
+
+			Node<V> node = cache.remove(key);
+			if (node == null)
+			{
+				return false;
+			}
+			weight.addAndGet(-node.weight);
+			return true;
+		}
+
+		@Override
+		public int size()
+		{
+			return cache.size();
+		}
+
+		@Override
+		public void shutdown()
+		{
+			clear();
+		}
+
+		/**
+		 * @return total weight of all entries
+		 */
+		public long getWeight()
+		{
+			return weight.get();
+		}
+
+		/**
+		 * @return maximum total weight of all entries
+		 */
+		public long getMaxWeight()
+		{
+			return maxWeight;
+		}
+
+		/**
+		 * @return count of lookups finding an entry
+		 */
+		public long getHitCount()
+		{
+			return hits.get();
+		}
+
+		/**
+		 * @return count of lookups not finding an entry
+		 */
+		public long getMissCount()
+		{
+			return misses.get();
+		}
+
+		/**
+		 * @return count of entries evicted because of the maximum weight
+		 */
+		public long getEvictionCount()
+		{
+			return evictions.get();
+		}
+
+		private static final class Node<V>
+		{
+			private final V value;
+
+			private final long weight;
+
+			private volatile long accessed = System.nanoTime();
+
+			private long evictionOrder;
+
+			private Node(V value, long weight)
+			{
+				this.value = value;
+				this.weight = weight;
+			}
+		}
+	}
 }
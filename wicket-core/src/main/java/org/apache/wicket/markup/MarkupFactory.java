@@ -350,19 +350,36 @@ public class MarkupFactory
 	{
 		Args.notNull(container, "container");
 
+		Class<?> actualClass = (container instanceof StandIn) ? ((StandIn)container).getStandInClass()
+			: container.getClass();
+
 		Class<?> containerClass = clazz;
 		if (clazz == null)
 		{
-			containerClass = container.getClass();
+			containerClass = actualClass;
 		}
-		else if (!clazz.isAssignableFrom(container.getClass()))
+		else if (!clazz.isAssignableFrom(actualClass))
 		{
 			throw new IllegalArgumentException("Parameter clazz must be an instance of " +
-				container.getClass().getName() + ", but is a " + clazz.getName());
+				actualClass.getName() + ", but is a " + clazz.getName());
 		}
 		return containerClass;
 	}
 
+	/**
+	 * A container standing in for instances of another class, which are not instantiated, e.g. to
+	 * load their markup in advance.
+	 * 
+	 * @see MarkupPreloader
+	 */
+	interface StandIn
+	{
+		/**
+		 * @return the class of the containers stood in for
+		 */
+		Class<? extends MarkupContainer> getStandInClass();
+	}
+
 	/**
 	 * Loads markup from a resource stream. It'll call the registered markup loader to load the
 	 * markup.
@@ -144,6 +144,30 @@ public class MarkupFragment extends AbstractMarkupFragment
 		return markup.get(startIndex + index);
 	}
 
+	@Override
+	final int getRawMarkupRunLength(final int index)
+	{
+		if (markup instanceof AbstractMarkupFragment)
+		{
+			int length = ((AbstractMarkupFragment)markup).getRawMarkupRunLength(startIndex + index);
+			if (index + length <= size)
+			{
+				return length;
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	final CharSequence getRawMarkupRun(final int index)
+	{
+		if (getRawMarkupRunLength(index) > 0)
+		{
+			return ((AbstractMarkupFragment)markup).getRawMarkupRun(startIndex + index);
+		}
+		return null;
+	}
+
 	@Override
 	public final IMarkupFragment find(final String id)
 	{
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.markup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.wicket.Application;
+import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.Session;
+import org.apache.wicket.ThreadContext;
+import org.apache.wicket.core.request.mapper.MountedMapper;
+import org.apache.wicket.core.util.lang.ParallelTasks;
+import org.apache.wicket.markup.html.WebMarkupContainer;
+import org.apache.wicket.mock.MockWebRequest;
+import org.apache.wicket.protocol.http.BufferedWebResponse;
+import org.apache.wicket.request.IRequestMapper;
+import org.apache.wicket.request.Url;
+import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.request.mapper.ICompoundRequestMapper;
+import org.apache.wicket.util.lang.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads the markup of pages and other containers into the {@link MarkupCache} in parallel, e.g.
+ * at the end of {@link Application#init()}, so the first requests after startup do not have to
+ * parse it:
+ *
+ * <pre>
+ * new MarkupPreloader(this).addMountedPages().addContainer(MyPanel.class).preload(4);
+ * </pre>
+ *
+ * The markup is looked up for each locale without style and variation. Containers providing their
+ * own markup or markup cache key (see {@link IMarkupResourceStreamProvider} and
+ * {@link IMarkupCacheKeyProvider}) are skipped, since their markup depends on the instance.
+ * <p>
+ * Base markup of inherited markup is loaded through the cache too, so concurrent loading of a
+ * sub- and super class results in a single cached base markup.
+ *
+ * @see MarkupFactory#getMarkup(MarkupContainer, Class, boolean)
+ */
+public class MarkupPreloader
+{
+	private static final Logger log = LoggerFactory.getLogger(MarkupPreloader.class);
+
+	private final Application application;
+
+	private final Set<Class<? extends MarkupContainer>> containers = new LinkedHashSet<>();
+
+	private final Set<Locale> locales = new LinkedHashSet<>();
+
+	private MarkupType markupType = MarkupType.HTML_MARKUP_TYPE;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param application
+	 *            the application to load markup for
+	 */
+	public MarkupPreloader(Application application)
+	{
+		this.application = Args.notNull(application, "application");
+	}
+
+	/**
+	 * Add a container class to load markup for.
+	 *
+	 * @param container
+	 *            container class
+	 * @return {@code this} for chaining
+	 */
+	public MarkupPreloader addContainer(Class<? extends MarkupContainer> container)
+	{
+		Args.notNull(container, "container");
+
+		if (IMarkupResourceStreamProvider.class.isAssignableFrom(container) ||
+			IMarkupCacheKeyProvider.class.isAssignableFrom(container))
+		{
+			log.debug("Skipping container with instance specific markup: {}", container.getName());
+		}
+		else
+		{
+			containers.add(container);
+		}
+		return this;
+	}
+
+	/**
+	 * Add the classes of all pages mounted with a {@link MountedMapper}.
+	 *
+	 * @return {@code this} for chaining
+	 */
+	public MarkupPreloader addMountedPages()
+	{
+		addMountedPages(application.getRootRequestMapperAsCompound());
+		return this;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void addMountedPages(ICompoundRequestMapper compound)
+	{
+		for (IRequestMapper mapper : compound)
+		{
+			if (mapper instanceof MountedMapper)
+			{
+				Class<?> pageClass = ((MountedMapper)mapper).getPageClass();
+				if (pageClass != null && MarkupContainer.class.isAssignableFrom(pageClass))
+				{
+					addContainer((Class<? extends MarkupContainer>)pageClass);
+				}
+			}
+			else if (mapper instanceof ICompoundRequestMapper)
+			{
+				addMountedPages((ICompoundRequestMapper)mapper);
+			}
+		}
+	}
+
+	/**
+	 * Add a locale to load markup for. If no locale is added, the default locale is used.
+	 *
+	 * @param locale
+	 *            locale
+	 * @return {@code this} for chaining
+	 */
+	public MarkupPreloader addLocale(Locale locale)
+	{
+		locales.add(Args.notNull(locale, "locale"));
+		return this;
+	}
+
+	/**
+	 * Set the markup type to load, defaults to {@link MarkupType#HTML_MARKUP_TYPE}.
+	 *
+	 * @param markupType
+	 *            markup type
+	 * @return {@code this} for chaining
+	 */
+	public MarkupPreloader setMarkupType(MarkupType markupType)
+	{
+		this.markupType = Args.notNull(markupType, "markupType");
+		return this;
+	}
+
+	/**
+	 * Load the markup of all added containers and locales.
+	 *
+	 * @param parallelism
+	 *            count of threads to use for loading
+	 * @return the time taken to load the markup, keyed by container class and locale
+	 */
+	public Map<String, Duration> preload(int parallelism)
+	{
+		Set<Locale> preloadLocales = locales.isEmpty() ? Collections.singleton(Locale.getDefault())
+			: locales;
+
+		// a throwaway session per locale, shared by all tasks
+		Map<Locale, Session> sessions = new ConcurrentHashMap<>();
+
+		List<String> names = new ArrayList<>();
+		List<Callable<Duration>> tasks = new ArrayList<>();
+		for (Class<? extends MarkupContainer> container : containers)
+		{
+			for (Locale locale : preloadLocales)
+			{
+				names.add(container.getName() + "_" + locale);
+				tasks.add(() -> preload(container, locale, sessions));
+			}
+		}
+
+		List<Duration> results = ParallelTasks.invokeAll(tasks, parallelism,
+			(i, cause) -> log.warn("Failed to preload markup " + names.get(i), cause));
+
+		Map<String, Duration> durations = new LinkedHashMap<>();
+		for (int i = 0; i < results.size(); i++)
+		{
+			Duration duration = results.get(i);
+			if (duration != null)
+			{
+				durations.put(names.get(i), duration);
+
+				log.info("Preloaded markup {} in {} ms", names.get(i), duration.toMillis());
+			}
+		}
+		return durations;
+	}
+
+	/**
+	 * Load the markup for a single container class and locale.
+	 */
+	private Duration preload(Class<? extends MarkupContainer> container, Locale locale,
+		Map<Locale, Session> sessions)
+	{
+		long start = System.nanoTime();
+
+		ThreadContext previous = ThreadContext.detach();
+		try
+		{
+			ThreadContext.setApplication(application);
+
+			MockWebRequest request = new MockWebRequest(Url.parse("/"));
+			request.setLocale(locale);
+			RequestCycle cycle = application.createRequestCycle(request,
+				new BufferedWebResponse(null));
+			ThreadContext.setRequestCycle(cycle);
+
+			// a temporary session is needed for locale and style, it is not modified afterwards
+			Session session = sessions.computeIfAbsent(locale, l -> {
+				Session s = application.newSession(request, cycle.getResponse());
+				s.setLocale(l);
+				return s;
+			});
+			ThreadContext.setSession(session);
+
+			MarkupFactory.get().getMarkup(new Probe(container, markupType), container, false);
+		}
+		finally
+		{
+			ThreadContext.restore(previous);
+		}
+
+		return Duration.ofNanos(System.nanoTime() - start);
+	}
+
+	/**
+	 * A container standing in for instances of a container class, its markup is located and cached
+	 * exactly as for instances of that class.
+	 *
+	 * @see MarkupFactory#getContainerClass(MarkupContainer, Class)
+	 */
+	private static final class Probe extends WebMarkupContainer implements MarkupFactory.StandIn
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Class<? extends MarkupContainer> standInClass;
+
+		private final MarkupType markupType;
+
+		private Probe(Class<? extends MarkupContainer> standInClass, MarkupType markupType)
+		{
+			super("markupPreloader");
+
+			this.standInClass = standInClass;
+			this.markupType = markupType;
+		}
+
+		@Override
+		public Class<? extends MarkupContainer> getStandInClass()
+		{
+			return standInClass;
+		}
+
+		@Override
+		public MarkupType getMarkupType()
+		{
+			return markupType;
+		}
+	}
+}
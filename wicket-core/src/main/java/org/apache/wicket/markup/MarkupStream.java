@@ -310,6 +310,31 @@ public class MarkupStream
 		return null;
 	}
 
+	/**
+	 * Get the raw markup at the current position merged with all directly following raw markup,
+	 * moving behind it.
+	 * 
+	 * @return merged raw markup, or <code>null</code> without moving if there is nothing to merge
+	 */
+	public CharSequence nextRawMarkupRun()
+	{
+		if (markup instanceof AbstractMarkupFragment)
+		{
+			AbstractMarkupFragment fragment = (AbstractMarkupFragment)markup;
+			int length = fragment.getRawMarkupRunLength(currentIndex);
+			if (length > 0)
+			{
+				CharSequence run = fragment.getRawMarkupRun(currentIndex);
+
+				setCurrentIndex(currentIndex + length - 1);
+				next();
+
+				return run;
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Note:
 	 * 
@@ -22,6 +22,8 @@ import java.io.InputStream;
 import java.io.StringReader;
 import java.text.ParseException;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.wicket.markup.parser.XmlTag.TagType;
 import org.apache.wicket.markup.parser.XmlTag.TextSegment;
@@ -48,6 +50,12 @@ public final class XmlPullParser implements IXmlPullParser
 	/** */
 	public static final String SCRIPT = "script";
 
+	/** Maximum count of interned names */
+	private static final int MAX_NAMES = 4096;
+
+	/** Tag names, namespaces and attribute keys shared by all parsed markup */
+	private static final ConcurrentMap<String, String> NAMES = new ConcurrentHashMap<>();
+
 	/**
 	 * The encoding of the XML.
 	 */
@@ -652,8 +660,8 @@ public final class XmlPullParser implements IXmlPullParser
 		if (tagnameParser.matcher().lookingAt())
 		{
 			// Extract the tag from the pattern matcher
-			tag.name = tagnameParser.getName();
-			tag.namespace = tagnameParser.getNamespace();
+			tag.name = intern(tagnameParser.getName());
+			tag.namespace = intern(tagnameParser.getNamespace());
 
 			// Are we at the end? Then there are no attributes, so we just
 			// return the tag
@@ -692,7 +700,7 @@ public final class XmlPullParser implements IXmlPullParser
 				value = Strings.unescapeMarkup(value).toString();
 
 				// Get key
-				final String key = attributeParser.getKey();
+				final String key = intern(attributeParser.getKey());
 
 				// Put the attribute in the attributes hash
 				if (null != tag.getAttributes().put(key, value))
@@ -714,4 +722,37 @@ public final class XmlPullParser implements IXmlPullParser
 
 		return false;
 	}
+
+	/**
+	 * Get a shared instance of a name, so parsed markup does not hold many copies of common tag
+	 * names and attribute keys.
+	 * 
+	 * @param name
+	 *            name, may be {@code null}
+	 * @return shared instance
+	 */
+	static String intern(final String name)
+	{
+		if (name == null)
+		{
+			return null;
+		}
+
+		String shared = NAMES.get(name);
+		if (shared == null)
+		{
+			if (NAMES.size() >= MAX_NAMES)
+			{
+				// do not grow with arbitrary names
+				return name;
+			}
+
+			shared = NAMES.putIfAbsent(name, name);
+			if (shared == null)
+			{
+				shared = name;
+			}
+		}
+		return shared;
+	}
 }
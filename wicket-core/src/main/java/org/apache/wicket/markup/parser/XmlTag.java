@@ -16,7 +16,12 @@
  */
 package org.apache.wicket.markup.parser;
 
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import org.apache.wicket.util.lang.Objects;
 import org.apache.wicket.util.string.AppendingStringBuffer;
@@ -49,9 +54,27 @@ public class XmlTag
 
 	TextSegment text;
 
-	/** Attribute map. */
+	/** Marker of an attribute removed from the shared attributes. */
+	private static final Object REMOVED = new Object();
+
+	/** Attribute map, {@code null} if not yet created or the attributes are shared. */
 	private AttributeMap attributes;
 
+	/** Immutable attributes of another tag, shared until the attribute map is needed. */
+	private AttributeMap sharedAttributes;
+
+	/** Keys of attributes changed on top of the shared attributes. */
+	private String[] changedKeys;
+
+	/** Values of changed attributes, {@link #REMOVED} for removed shared attributes. */
+	private Object[] changedValues;
+
+	/** Whether a changed attribute is positioned after the shared attributes. */
+	private boolean[] changedAppended;
+
+	/** Count of changed attributes. */
+	private int changeCount;
+
 	/** Name of tag, such as "img" or "input". */
 	String name;
 
@@ -134,24 +157,300 @@ public class XmlTag
 	{
 		if (attributes == null)
 		{
-			if ((copyOf == this) || (copyOf == null) || (copyOf.attributes == null))
+			AttributeMap shared = sharedAttributes();
+			if (shared == null)
 			{
 				attributes = new AttributeMap();
 			}
 			else
 			{
-				attributes = new AttributeMap(copyOf.attributes);
+				attributes = new AttributeMap(shared);
 			}
+
+			// apply changes in order, so the attributes are ordered as if changed in the map
+			for (int i = 0; i < changeCount; i++)
+			{
+				Object value = changedValues[i];
+				if (value == REMOVED || changedAppended[i])
+				{
+					attributes.remove(changedKeys[i]);
+				}
+				if (value != REMOVED)
+				{
+					attributes.put(changedKeys[i], value);
+				}
+			}
+
+			sharedAttributes = null;
+			changedKeys = null;
+			changedValues = null;
+			changedAppended = null;
+			changeCount = 0;
 		}
 		return attributes;
 	}
 
+	/**
+	 * @return the immutable attributes to read through, if no attribute map exists
+	 */
+	private AttributeMap sharedAttributes()
+	{
+		if (sharedAttributes != null)
+		{
+			return sharedAttributes;
+		}
+		if ((copyOf != this) && (copyOf != null))
+		{
+			return copyOf.attributes;
+		}
+		return null;
+	}
+
+	/**
+	 * @return the shared attributes if changes are to be recorded on top of them
+	 */
+	private AttributeMap changeableSharedAttributes()
+	{
+		if (attributes == null && isMutable)
+		{
+			return sharedAttributes();
+		}
+		return null;
+	}
+
+	private int indexOfChange(final String key)
+	{
+		for (int i = 0; i < changeCount; i++)
+		{
+			if (changedKeys[i].equals(key))
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void addChange(final String key, final Object value, final boolean appended)
+	{
+		if (changedKeys == null)
+		{
+			changedKeys = new String[4];
+			changedValues = new Object[4];
+			changedAppended = new boolean[4];
+		}
+		else if (changeCount == changedKeys.length)
+		{
+			changedKeys = Arrays.copyOf(changedKeys, changeCount * 2);
+			changedValues = Arrays.copyOf(changedValues, changeCount * 2);
+			changedAppended = Arrays.copyOf(changedAppended, changeCount * 2);
+		}
+		changedKeys[changeCount] = key;
+		changedValues[changeCount] = value;
+		changedAppended[changeCount] = appended;
+		changeCount++;
+	}
+
+	private void removeChange(final int index)
+	{
+		int moved = changeCount - index - 1;
+		System.arraycopy(changedKeys, index + 1, changedKeys, index, moved);
+		System.arraycopy(changedValues, index + 1, changedValues, index, moved);
+		System.arraycopy(changedAppended, index + 1, changedAppended, index, moved);
+		changeCount--;
+		changedKeys[changeCount] = null;
+		changedValues[changeCount] = null;
+	}
+
+	/**
+	 * Put an attribute, recording only the change if the attributes are shared.
+	 */
+	private Object putAttribute(final String key, final Object value)
+	{
+		AttributeMap shared = changeableSharedAttributes();
+		if (shared == null)
+		{
+			return attributes().put(key, value);
+		}
+
+		int index = indexOfChange(key);
+		if (index >= 0)
+		{
+			Object previous = changedValues[index];
+			if (previous == REMOVED)
+			{
+				// like in a map a removed attribute is added to the end again
+				removeChange(index);
+				addChange(key, value, true);
+				return null;
+			}
+			changedValues[index] = value;
+			return previous;
+		}
+
+		boolean existing = shared.containsKey(key);
+		addChange(key, value, existing == false);
+		return existing ? shared.get(key) : null;
+	}
+
+	/**
+	 * Remove an attribute, recording only the change if the attributes are shared.
+	 */
+	private Object removeAttribute(final String key)
+	{
+		AttributeMap shared = changeableSharedAttributes();
+		if (shared == null)
+		{
+			return attributes().remove(key);
+		}
+
+		int index = indexOfChange(key);
+		if (index >= 0)
+		{
+			Object previous = changedValues[index];
+			if (previous == REMOVED)
+			{
+				return null;
+			}
+			if (shared.containsKey(key))
+			{
+				changedValues[index] = REMOVED;
+				changedAppended[index] = false;
+			}
+			else
+			{
+				removeChange(index);
+			}
+			return previous;
+		}
+
+		if (shared.containsKey(key))
+		{
+			addChange(key, REMOVED, false);
+			return shared.get(key);
+		}
+		return null;
+	}
+
+	/**
+	 * Get the value of an attribute without creating an attribute map.
+	 */
+	private Object getAttributeValue(final String key)
+	{
+		if (attributes != null)
+		{
+			return attributes.get(key);
+		}
+
+		int index = indexOfChange(key);
+		if (index >= 0)
+		{
+			Object value = changedValues[index];
+			return value == REMOVED ? null : value;
+		}
+
+		AttributeMap shared = sharedAttributes();
+		return shared != null ? shared.get(key) : null;
+	}
+
+	/**
+	 * Performs the given action for each attribute in order, without creating an attribute map
+	 * for shared attributes.
+	 * 
+	 * @param action
+	 *            action to perform with key and value of each attribute
+	 */
+	public final void forEachAttribute(final BiConsumer<String, Object> action)
+	{
+		if (attributes != null)
+		{
+			for (Map.Entry<String, Object> entry : attributes.entrySet())
+			{
+				action.accept(entry.getKey(), entry.getValue());
+			}
+			return;
+		}
+
+		AttributeMap shared = sharedAttributes();
+		if (shared != null)
+		{
+			for (Map.Entry<String, Object> entry : shared.entrySet())
+			{
+				int index = indexOfChange(entry.getKey());
+				if (index < 0)
+				{
+					action.accept(entry.getKey(), entry.getValue());
+				}
+				else if (changedAppended[index] == false && changedValues[index] != REMOVED)
+				{
+					action.accept(entry.getKey(), changedValues[index]);
+				}
+			}
+		}
+
+		for (int i = 0; i < changeCount; i++)
+		{
+			if (changedAppended[i])
+			{
+				action.accept(changedKeys[i], changedValues[i]);
+			}
+		}
+	}
+
+	/**
+	 * Gets whether this tag has the same attributes as the given tag, in the same order.
+	 * 
+	 * @param tag
+	 *            other tag
+	 * @return true if attributes are equal
+	 */
+	public final boolean hasEqualAttributes(final XmlTag tag)
+	{
+		AttributeMap readOnly = attributes != null ? attributes
+			: (changeCount == 0 ? sharedAttributes() : null);
+		AttributeMap otherReadOnly = tag.attributes != null ? tag.attributes
+			: (tag.changeCount == 0 ? tag.sharedAttributes() : null);
+		if (readOnly != null && readOnly == otherReadOnly)
+		{
+			return true;
+		}
+
+		List<Object> entries = new ArrayList<>();
+		forEachAttribute((key, value) -> {
+			entries.add(key);
+			entries.add(value);
+		});
+		List<Object> otherEntries = new ArrayList<>();
+		tag.forEachAttribute((key, value) -> {
+			otherEntries.add(key);
+			otherEntries.add(value);
+		});
+		return entries.equals(otherEntries);
+	}
+
 	/**
 	 * @return true if there 1 or more attributes.
 	 */
 	public boolean hasAttributes()
 	{
-		return attributes != null && attributes.size() > 0;
+		if (attributes != null)
+		{
+			return attributes.size() > 0;
+		}
+
+		AttributeMap shared = sharedAttributes();
+		int count = shared != null ? shared.size() : 0;
+		for (int i = 0; i < changeCount; i++)
+		{
+			if (changedValues[i] == REMOVED)
+			{
+				count--;
+			}
+			else if (changedAppended[i] && (shared == null || shared.containsKey(changedKeys[i]) == false))
+			{
+				count++;
+			}
+		}
+		return count > 0;
 	}
 
 	/**
@@ -233,7 +532,25 @@ public class XmlTag
 	 */
 	public CharSequence getAttribute(final String key)
 	{
-		return getAttributes().getCharSequence(key);
+		// same conversion as ValueMap#getCharSequence(String)
+		Object value = getAttributeValue(key);
+		if (value == null)
+		{
+			return null;
+		}
+		else if (value.getClass().isArray() && (Array.getLength(value) > 0))
+		{
+			value = Array.get(value, 0);
+			if (value == null)
+			{
+				return null;
+			}
+		}
+		if (value instanceof CharSequence)
+		{
+			return (CharSequence)value;
+		}
+		return value.toString();
 	}
 
 	/**
@@ -295,6 +612,16 @@ public class XmlTag
 	{
 		if (isMutable)
 		{
+			if (changeCount > 0)
+			{
+				attributes();
+			}
+			else if (attributes == null && sharedAttributes != null)
+			{
+				attributes = sharedAttributes;
+				sharedAttributes = null;
+			}
+
 			isMutable = false;
 			if (attributes != null)
 			{
@@ -342,7 +669,26 @@ public class XmlTag
 		dest.copyOf = copyOf;
 		if (attributes != null)
 		{
-			dest.attributes = new AttributeMap(attributes);
+			if (isMutable)
+			{
+				dest.attributes = new AttributeMap(attributes);
+			}
+			else
+			{
+				// immutable attributes are shared until changed
+				dest.sharedAttributes = attributes;
+			}
+		}
+		else
+		{
+			dest.sharedAttributes = sharedAttributes;
+			if (changeCount > 0)
+			{
+				dest.changedKeys = changedKeys.clone();
+				dest.changedValues = changedValues.clone();
+				dest.changedAppended = changedAppended.clone();
+				dest.changeCount = changeCount;
+			}
 		}
 	}
 
@@ -391,7 +737,7 @@ public class XmlTag
 	 */
 	public Object put(final String key, final CharSequence value)
 	{
-		return getAttributes().put(key, value);
+		return putAttribute(key, value);
 	}
 
 	/**
@@ -407,7 +753,7 @@ public class XmlTag
 	 */
 	public Object put(final String key, final StringValue value)
 	{
-		return getAttributes().put(key, (value != null) ? value.toString() : null);
+		return putAttribute(key, (value != null) ? value.toString() : null);
 	}
 
 	/**
@@ -433,7 +779,7 @@ public class XmlTag
 	 */
 	public void remove(final String key)
 	{
-		getAttributes().remove(key);
+		removeAttribute(key);
 	}
 
 	/**
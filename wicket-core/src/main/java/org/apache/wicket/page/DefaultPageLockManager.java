@@ -141,31 +141,7 @@ public class DefaultPageLockManager implements IPageLockManager {
 						"Thread '{}' failed to acquire lock to page with id '{}', attempted for {} out of allowed {}." +
 								" The thread that holds the lock has name '{}'.",
 						thread.getName(), pageId, Duration.between(start, Instant.now()), pageTimeout, previousThreadName);
-				if (Application.exists())
-				{
-					ExceptionSettings.ThreadDumpStrategy strategy = Application.get()
-							.getExceptionSettings()
-							.getThreadDumpStrategy();
-					switch (strategy)
-					{
-						case ALL_THREADS :
-							Threads.dumpAllThreads(logger);
-							break;
-						case THREAD_HOLDING_LOCK :
-							if (previousThread != null)
-							{
-								Threads.dumpSingleThread(logger, previousThread);
-							}
-							else
-							{
-								logger.warn("Cannot dump the stack of the previous thread because it is not available.");
-							}
-							break;
-						case NO_THREADS :
-						default :
-							// do nothing
-					}
-				}
+				dumpThreads(logger, previousThread);
 			}
 			if(previousThread != null)
 			{
@@ -176,6 +152,43 @@ public class DefaultPageLockManager implements IPageLockManager {
 		}
 	}
 
+	/**
+	 * Dump threads as configured by {@link ExceptionSettings#getThreadDumpStrategy()}.
+	 *
+	 * @param logger
+	 *            logger to dump to
+	 * @param previousThread
+	 *            the thread holding the lock, may be {@code null}
+	 */
+	static void dumpThreads(Logger logger, Thread previousThread)
+	{
+		if (Application.exists())
+		{
+			ExceptionSettings.ThreadDumpStrategy strategy = Application.get()
+					.getExceptionSettings()
+					.getThreadDumpStrategy();
+			switch (strategy)
+			{
+				case ALL_THREADS :
+					Threads.dumpAllThreads(logger);
+					break;
+				case THREAD_HOLDING_LOCK :
+					if (previousThread != null)
+					{
+						Threads.dumpSingleThread(logger, previousThread);
+					}
+					else
+					{
+						logger.warn("Cannot dump the stack of the previous thread because it is not available.");
+					}
+					break;
+				case NO_THREADS :
+				default :
+					// do nothing
+			}
+		}
+	}
+
 	@Override
 	public void unlockAllPages()
 	{
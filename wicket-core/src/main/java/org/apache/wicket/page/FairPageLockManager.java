@@ -0,0 +1,544 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.page;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.wicket.request.Request;
+import org.apache.wicket.request.Url;
+import org.apache.wicket.request.cycle.RequestCycle;
+import org.apache.wicket.request.http.WebRequest;
+import org.apache.wicket.util.LazyInitializer;
+import org.apache.wicket.util.lang.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link IPageLockManager} granting locks in FIFO order to parked threads.
+ * <p>
+ * In contrast to {@link DefaultPageLockManager} waiting threads are not woken up all at once on
+ * release of a lock, instead the lock is handed over to the longest waiting thread only. The
+ * time each thread waited for a lock is recorded in {@link WaitTimes}, for all pages and for
+ * the most recently locked pages.
+ * <p>
+ * Optionally a duplicate Ajax request, i.e. a request to the same URL as another request already
+ * waiting for the same page, can replace the waiting request: the latter takes over the place in
+ * the queue, while the former is dropped with a {@link CouldNotLockPageException}. This way the
+ * latest input of a client is processed, e.g. of repeatedly submitted form fields.
+ * <p>
+ * To use this manager override {@link org.apache.wicket.Session#newPageAccessSynchronizer(Duration)}:
+ *
+ * <pre>
+ * protected PageAccessSynchronizer newPageAccessSynchronizer(Duration timeout)
+ * {
+ * 	return new PageAccessSynchronizer(new FairPageLockManager(timeout));
+ * }
+ * </pre>
+ */
+public class FairPageLockManager implements IPageLockManager
+{
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger logger = LoggerFactory.getLogger(FairPageLockManager.class);
+
+	/**
+	 * Count of pages with wait times kept.
+	 */
+	private static final int MAX_PAGE_WAIT_TIMES = 32;
+
+	/** map of which pages are owned by which threads */
+	private final LazyInitializer<ConcurrentMap<Integer, Entry>> locks = new LazyInitializer<>()
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected ConcurrentMap<Integer, Entry> createInstance()
+		{
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private final WaitTimes waitTimes = new WaitTimes();
+
+	private final Map<Integer, WaitTimes> pageWaitTimes = new LinkedHashMap<>(16, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, WaitTimes> eldest)
+		{
+			return size() > MAX_PAGE_WAIT_TIMES;
+		}
+	};
+
+	/** timeout value for acquiring a page lock */
+	private final Duration timeout;
+
+	private final boolean dropDuplicates;
+
+	/**
+	 * Constructor
+	 *
+	 * @param timeout
+	 *            timeout value for acquiring a page lock
+	 */
+	public FairPageLockManager(Duration timeout)
+	{
+		this(timeout, false);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param timeout
+	 *            timeout value for acquiring a page lock
+	 * @param dropDuplicates
+	 *            should a duplicate request replace an older one waiting for a page, the latter
+	 *            being dropped
+	 */
+	public FairPageLockManager(Duration timeout, boolean dropDuplicates)
+	{
+		this.timeout = Args.notNull(timeout, "timeout");
+		this.dropDuplicates = dropDuplicates;
+	}
+
+	/**
+	 * @param pageId
+	 *            the id of the page to be locked
+	 * @return the duration for acquiring a page lock
+	 */
+	public Duration getTimeout(int pageId)
+	{
+		return timeout;
+	}
+
+	/**
+	 * Get the wait times for all pages.
+	 *
+	 * @return wait times
+	 */
+	public WaitTimes getWaitTimes()
+	{
+		return waitTimes;
+	}
+
+	/**
+	 * Get the wait times for a single page, available for the most recently locked pages only.
+	 *
+	 * @param pageId
+	 *            id of page
+	 * @return wait times or {@code null}
+	 */
+	public WaitTimes getWaitTimes(int pageId)
+	{
+		synchronized (pageWaitTimes)
+		{
+			return pageWaitTimes.get(pageId);
+		}
+	}
+
+	/**
+	 * Get a key identifying duplicate requests for the current thread.
+	 * <p>
+	 * Default implementation uses the URL of the current Ajax request, without any query parameter
+	 * added for cache busting.
+	 *
+	 * @param pageId
+	 *            id of the page to be locked
+	 * @return key or {@code null} if the current request should never be considered a duplicate
+	 */
+	protected Object getRequestKey(int pageId)
+	{
+		RequestCycle requestCycle = RequestCycle.get();
+		if (requestCycle == null)
+		{
+			return null;
+		}
+
+		Request request = requestCycle.getRequest();
+		if (request instanceof WebRequest && ((WebRequest)request).isAjax())
+		{
+			Url url = new Url(request.getUrl());
+			url.removeQueryParameters("_");
+			return url.toString();
+		}
+
+		return null;
+	}
+
+	@Override
+	public void lockPage(int pageId) throws CouldNotLockPageException
+	{
+		final Thread thread = Thread.currentThread();
+		final Object requestKey = dropDuplicates ? getRequestKey(pageId) : null;
+		final Waiter waiter = new Waiter(thread, requestKey);
+		final long start = System.nanoTime();
+
+		final boolean isDebugEnabled = logger.isDebugEnabled();
+		if (isDebugEnabled)
+		{
+			logger.debug("'{}' attempting to acquire lock to page with id '{}'", thread.getName(),
+				pageId);
+		}
+
+		Waiter[] replaced = new Waiter[1];
+		Entry entry = locks.get().compute(pageId, (id, existing) -> {
+			if (existing == null)
+			{
+				existing = new Entry(thread);
+				waiter.granted = true;
+			}
+			else if (existing.owner == thread)
+			{
+				waiter.granted = true;
+			}
+			else
+			{
+				replaced[0] = existing.enqueue(waiter);
+			}
+			return existing;
+		});
+
+		if (replaced[0] != null)
+		{
+			logger.debug("'{}' replaced duplicate request of '{}' for page with id '{}'",
+				thread.getName(), replaced[0].thread.getName(), pageId);
+
+			LockSupport.unpark(replaced[0].thread);
+		}
+
+		Duration pageTimeout = getTimeout(pageId);
+		long deadline = start + pageTimeout.toNanos();
+		while (waiter.granted == false)
+		{
+			if (waiter.dropped)
+			{
+				record(pageId, start);
+
+				logger.debug("'{}' dropped as duplicate request for page with id '{}'",
+					thread.getName(), pageId);
+
+				throw new CouldNotLockPageException(pageId, thread.getName(),
+					Duration.ofNanos(System.nanoTime() - start));
+			}
+
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0)
+			{
+				if (cancel(pageId, waiter))
+				{
+					record(pageId, start);
+
+					Thread owner = entry.owner;
+					if (logger.isWarnEnabled())
+					{
+						logger.warn(
+							"Thread '{}' failed to acquire lock to page with id '{}', attempted for {}. The thread that holds the lock has name '{}'.",
+							thread.getName(), pageId, pageTimeout, owner != null ? owner.getName() : "N/A");
+
+						DefaultPageLockManager.dumpThreads(logger, owner);
+					}
+
+					if (owner != null)
+					{
+						throw new CouldNotLockPageException(pageId, thread.getName(), pageTimeout,
+							new PageLockedException(owner, pageId));
+					}
+					throw new CouldNotLockPageException(pageId, thread.getName(), pageTimeout);
+				}
+				// granted or dropped in the meantime
+				continue;
+			}
+
+			LockSupport.parkNanos(this, remaining);
+
+			// parking returns immediately while interrupted
+			if (Thread.interrupted())
+			{
+				// keep the interrupt for the caller
+				thread.interrupt();
+
+				if (cancel(pageId, waiter))
+				{
+					record(pageId, start);
+
+					logger.debug("'{}' interrupted while waiting for lock to page with id '{}'",
+						thread.getName(), pageId);
+
+					throw new CouldNotLockPageException(pageId, thread.getName(),
+						Duration.ofNanos(System.nanoTime() - start));
+				}
+				// granted or dropped in the meantime
+			}
+		}
+
+		record(pageId, start);
+
+		if (isDebugEnabled)
+		{
+			logger.debug("{} acquired lock to page {}", thread.getName(), pageId);
+		}
+	}
+
+	/**
+	 * Remove a waiter from the queue.
+	 *
+	 * @return {@code false} if the waiter was granted the lock or dropped already
+	 */
+	private boolean cancel(int pageId, Waiter waiter)
+	{
+		boolean[] cancelled = new boolean[1];
+		locks.get().computeIfPresent(pageId, (id, entry) -> {
+			cancelled[0] = entry.waiters.remove(waiter);
+			return entry;
+		});
+		return cancelled[0];
+	}
+
+	private void record(int pageId, long start)
+	{
+		long waited = System.nanoTime() - start;
+
+		waitTimes.record(waited);
+
+		WaitTimes times;
+		synchronized (pageWaitTimes)
+		{
+			times = pageWaitTimes.computeIfAbsent(pageId, id -> new WaitTimes());
+		}
+		times.record(waited);
+	}
+
+	@Override
+	public void unlockAllPages()
+	{
+		final Thread thread = Thread.currentThread();
+
+		List<Integer> owned = new ArrayList<>();
+		for (Map.Entry<Integer, Entry> entry : locks.get().entrySet())
+		{
+			if (entry.getValue().owner == thread)
+			{
+				owned.add(entry.getKey());
+			}
+		}
+
+		for (Integer pageId : owned)
+		{
+			unlockPage(pageId);
+		}
+	}
+
+	@Override
+	public void unlockPage(int pageId)
+	{
+		final Thread thread = Thread.currentThread();
+
+		Waiter[] next = new Waiter[1];
+		locks.get().computeIfPresent(pageId, (id, entry) -> {
+			if (entry.owner != thread)
+			{
+				return entry;
+			}
+
+			next[0] = entry.waiters.poll();
+			if (next[0] == null)
+			{
+				return null;
+			}
+
+			entry.owner = next[0].thread;
+			next[0].granted = true;
+			return entry;
+		});
+
+		if (logger.isDebugEnabled())
+		{
+			logger.debug("'{}' released lock to page with id '{}'", thread.getName(), pageId);
+		}
+
+		if (next[0] != null)
+		{
+			LockSupport.unpark(next[0].thread);
+		}
+	}
+
+	/*
+	 * used by tests
+	 */
+	Map<Integer, Entry> getLocks()
+	{
+		return locks.get();
+	}
+
+	/**
+	 * The lock of a page, always accessed atomically through the map of locks.
+	 */
+	static class Entry
+	{
+		volatile Thread owner;
+
+		final LinkedList<Waiter> waiters = new LinkedList<>();
+
+		Entry(Thread owner)
+		{
+			this.owner = owner;
+		}
+
+		/**
+		 * Add a waiter to the queue, replacing a waiter for a duplicate request.
+		 *
+		 * @return the replaced waiter or {@code null}
+		 */
+		Waiter enqueue(Waiter waiter)
+		{
+			if (waiter.requestKey != null)
+			{
+				ListIterator<Waiter> iterator = waiters.listIterator();
+				while (iterator.hasNext())
+				{
+					Waiter other = iterator.next();
+					if (Objects.equals(waiter.requestKey, other.requestKey))
+					{
+						iterator.set(waiter);
+						other.dropped = true;
+						return other;
+					}
+				}
+			}
+
+			waiters.add(waiter);
+			return null;
+		}
+	}
+
+	/**
+	 * A thread waiting for a lock.
+	 */
+	private static class Waiter
+	{
+		final Thread thread;
+
+		final Object requestKey;
+
+		volatile boolean granted;
+
+		volatile boolean dropped;
+
+		Waiter(Thread thread, Object requestKey)
+		{
+			this.thread = thread;
+			this.requestKey = requestKey;
+		}
+	}
+
+	/**
+	 * A histogram of wait times in buckets of exponentially increasing milliseconds, i.e. 0, 1,
+	 * 2-3, 4-7, ... up to {@value #BUCKETS} buckets.
+	 */
+	public static class WaitTimes implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Count of buckets, the last one holding all wait times of 2^(BUCKETS-2) milliseconds and
+		 * longer.
+		 */
+		public static final int BUCKETS = 16;
+
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+		void record(long nanos)
+		{
+			long millis = nanos / 1_000_000;
+
+			int bucket = millis == 0 ? 0 : 64 - Long.numberOfLeadingZeros(millis);
+
+			counts.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+		}
+
+		/**
+		 * Get the count of wait times in the given bucket.
+		 *
+		 * @param bucket
+		 *            index of bucket
+		 * @return count
+		 */
+		public long getCount(int bucket)
+		{
+			return counts.get(bucket);
+		}
+
+		/**
+		 * Get the total count of wait times.
+		 *
+		 * @return count
+		 */
+		public long getCount()
+		{
+			long count = 0;
+			for (int b = 0; b < BUCKETS; b++)
+			{
+				count += counts.get(b);
+			}
+			return count;
+		}
+
+		/**
+		 * Get the lower bound of the given bucket.
+		 *
+		 * @param bucket
+		 *            index of bucket
+		 * @return minimum wait time
+		 */
+		public static Duration getLowerBound(int bucket)
+		{
+			return Duration.ofMillis(bucket == 0 ? 0 : 1L << (bucket - 1));
+		}
+
+		@Override
+		public String toString()
+		{
+			StringBuilder string = new StringBuilder("[");
+			for (int b = 0; b < BUCKETS; b++)
+			{
+				long count = counts.get(b);
+				if (count > 0)
+				{
+					if (string.length() > 1)
+					{
+						string.append(", ");
+					}
+					string.append(getLowerBound(b).toMillis()).append("ms=").append(count);
+				}
+			}
+			return string.append("]").toString();
+		}
+	}
+}
@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.page;
+
+import org.apache.wicket.Page;
+import org.apache.wicket.request.Request;
+import org.apache.wicket.request.Response;
+import org.apache.wicket.request.http.WebRequest;
+import org.apache.wicket.request.http.WebResponse;
+import org.apache.wicket.util.string.Strings;
+
+/**
+ * A {@link PartialPageUpdate} that serializes itself to JSON.
+ * <p>
+ * The response is an array of entries in the same order as the elements of
+ * {@link XmlPartialPageUpdate}:
+ * <ul>
+ * <li>{@code {"c":"markupId","m":"markup"}} for a component</li>
+ * <li>{@code {"h":"<head>...</head>"}} for a header contribution</li>
+ * <li>{@code {"p":"<head>...</head>"}} for a priority evaluation</li>
+ * <li>{@code {"e":"<head>...</head>"}} for an evaluation</li>
+ * <li>{@code {"r":"url"}} for a redirect, see {@link #writeRedirect(Response, String)}</li>
+ * </ul>
+ */
+public class JsonPartialPageUpdate extends PartialPageUpdate
+{
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Whether an entry was written, so the next one has to be separated.
+	 */
+	private transient boolean entryWritten;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param page
+	 *      the page which components are being updated.
+	 */
+	public JsonPartialPageUpdate(final Page page)
+	{
+		super(page);
+	}
+
+	@Override
+	public void setContentType(WebResponse response, String encoding)
+	{
+		response.setContentType("application/json; charset=" + encoding);
+	}
+
+	@Override
+	protected void writeHeader(Response response, String encoding)
+	{
+		entryWritten = false;
+
+		response.write("[");
+	}
+
+	@Override
+	protected void writeComponent(Response response, String markupId, CharSequence contents)
+	{
+		writeComponentStart(response, markupId);
+		response.write(encode(contents));
+		writeComponentEnd(response);
+	}
+
+	@Override
+	protected Response newComponentResponse(Response response)
+	{
+		return new JsonStringResponse(response);
+	}
+
+	@Override
+	protected void writeComponentStart(Response response, String markupId)
+	{
+		writeEntrySeparator(response);
+
+		response.write("{\"c\":\"");
+		response.write(encode(markupId));
+		response.write("\",\"m\":\"");
+	}
+
+	@Override
+	protected void writeComponentEnd(Response response)
+	{
+		response.write("\"}");
+	}
+
+	@Override
+	protected void writeFooter(Response response, String encoding)
+	{
+		response.write("]");
+	}
+
+	@Override
+	protected void writePriorityEvaluation(Response response, CharSequence contents)
+	{
+		writeHeaderContribution(response, "p", contents);
+	}
+
+	@Override
+	protected void writeHeaderContribution(Response response, CharSequence contents)
+	{
+		writeHeaderContribution(response, "h", contents);
+	}
+
+	@Override
+	protected void writeEvaluation(Response response, CharSequence contents)
+	{
+		writeHeaderContribution(response, "e", contents);
+	}
+
+	private void writeHeaderContribution(Response response, String name, CharSequence contents)
+	{
+		if (Strings.isEmpty(contents) == false)
+		{
+			writeEntrySeparator(response);
+
+			response.write("{\"");
+			response.write(name);
+
+			// the contribution is parsed as XML on the client
+			response.write("\":\"<head xmlns:wicket=\\\"http://wicket.apache.org\\\">");
+			response.write(encode(contents));
+			response.write("</head>\"}");
+		}
+	}
+
+	private void writeEntrySeparator(Response response)
+	{
+		if (entryWritten)
+		{
+			response.write(",");
+		}
+		entryWritten = true;
+	}
+
+	/**
+	 * Encode the contents of a JSON string.
+	 *
+	 * @param str
+	 *      contents
+	 * @return encoded contents
+	 */
+	protected CharSequence encode(CharSequence str)
+	{
+		return escape(str);
+	}
+
+	/**
+	 * Is a JSON response accepted by the given request.
+	 *
+	 * @param request
+	 *      the request, may be {@code null}
+	 * @return {@code true} if JSON is accepted
+	 */
+	public static boolean isAccepted(Request request)
+	{
+		if (request instanceof WebRequest)
+		{
+			// jQuery puts the mime type of the requested data type first
+			String accept = ((WebRequest)request).getHeader("Accept");
+			return accept != null && accept.startsWith("application/json");
+		}
+		return false;
+	}
+
+	/**
+	 * Write a complete JSON response redirecting to the given url.
+	 *
+	 * @param response
+	 *      the response
+	 * @param url
+	 *      the url to redirect to
+	 */
+	public static void writeRedirect(Response response, String url)
+	{
+		response.write("[{\"r\":\"");
+		response.write(escape(url));
+		response.write("\"}]");
+	}
+
+	private static CharSequence escape(CharSequence str)
+	{
+		StringBuilder encoded = null;
+
+		int start = 0;
+		final int length = str.length();
+		for (int i = 0; i < length; i++)
+		{
+			char c = str.charAt(i);
+			if (c >= 0x20 && c != '"' && c != '\\')
+			{
+				continue;
+			}
+
+			if (encoded == null)
+			{
+				encoded = new StringBuilder(length + 16);
+			}
+			encoded.append(str, start, i);
+			start = i + 1;
+
+			switch (c)
+			{
+				case '"' :
+					encoded.append("\\\"");
+					break;
+				case '\\' :
+					encoded.append("\\\\");
+					break;
+				case '\n' :
+					encoded.append("\\n");
+					break;
+				case '\r' :
+					encoded.append("\\r");
+					break;
+				case '\t' :
+					encoded.append("\\t");
+					break;
+				default :
+					encoded.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+			}
+		}
+
+		if (encoded == null)
+		{
+			return str;
+		}
+		return encoded.append(str, start, length);
+	}
+
+	/**
+	 * A response encoding its contents for a JSON string while passing them through.
+	 */
+	private class JsonStringResponse extends Response
+	{
+		private final Response response;
+
+		private JsonStringResponse(Response response)
+		{
+			this.response = response;
+		}
+
+		@Override
+		public void write(CharSequence sequence)
+		{
+			response.write(encode(sequence));
+		}
+
+		@Override
+		public void write(byte[] array)
+		{
+			throw new UnsupportedOperationException("Cannot write binary data.");
+		}
+
+		@Override
+		public void write(byte[] array, int offset, int length)
+		{
+			throw new UnsupportedOperationException("Cannot write binary data.");
+		}
+
+		@Override
+		public String encodeURL(CharSequence url)
+		{
+			return response.encodeURL(url);
+		}
+
+		@Override
+		public Object getContainerResponse()
+		{
+			return response.getContainerResponse();
+		}
+	}
+}
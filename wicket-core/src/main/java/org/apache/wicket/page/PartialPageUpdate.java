@@ -138,6 +138,11 @@ public abstract class PartialPageUpdate
 	 * The page which components are being updated.
 	 */
 	private final Page page;
+
+	/**
+	 * Whether the markup of components is streamed into the response.
+	 */
+	private boolean streaming = false;
 	
 	/**
 	 * Constructor.
@@ -155,6 +160,32 @@ public abstract class PartialPageUpdate
 		headerBuffer = new ResponseBuffer(response);
 	}
 
+	/**
+	 * Set whether the markup of components is streamed into the response while they are rendered,
+	 * instead of being buffered and copied for each component. This requires support by the
+	 * subclass, see {@link #newComponentResponse(Response)}.
+	 * <p>
+	 * Note that a failing component leaves its partial markup in the response.
+	 *
+	 * @param streaming
+	 *      {@code true} to stream markup of components
+	 * @return {@code this} for chaining
+	 */
+	public PartialPageUpdate setStreaming(boolean streaming)
+	{
+		this.streaming = streaming;
+		return this;
+	}
+
+	/**
+	 * @return whether the markup of components is streamed into the response
+	 * @see #setStreaming(boolean)
+	 */
+	public boolean isStreaming()
+	{
+		return streaming;
+	}
+
 	/**
 	 * @return returns true if and only if nothing has being added to partial update.
 	 */
@@ -402,6 +433,8 @@ public abstract class PartialPageUpdate
 	 */
 	protected void writeComponent(Response response, String markupId, Component component, String encoding)
 	{
+		final Response componentResponse = streaming ? newComponentResponse(response) : null;
+
 		// substitute our encoding response for the old one so we can capture
 		// component's markup in a manner safe for transport inside CDATA block
 		Response oldResponse = RequestCycle.get().setResponse(bodyBuffer);
@@ -412,6 +445,14 @@ public abstract class PartialPageUpdate
 			writeHeaderContribution(response, component);
 			
 			bodyBuffer.reset();
+
+			if (componentResponse != null)
+			{
+				writeComponentStart(response, markupId);
+
+				// pass the markup through instead of buffering it
+				bodyBuffer.target = componentResponse;
+			}
 			
 			try
 			{
@@ -425,13 +466,64 @@ public abstract class PartialPageUpdate
 		}
 		finally
 		{
+			bodyBuffer.target = null;
+
 			// Restore original response
 			RequestCycle.get().setResponse(oldResponse);
 		}
 
-		writeComponent(response, markupId, bodyBuffer.getContents());
+		if (componentResponse != null)
+		{
+			writeComponentEnd(response);
+		}
+		else
+		{
+			writeComponent(response, markupId, bodyBuffer.getContents());
+
+			bodyBuffer.reset();
+		}
+	}
+
+	/**
+	 * Create a response to stream the markup of a component through, when
+	 * {@link #isStreaming() streaming}.
+	 * <p>
+	 * The returned response has to encode the markup for the response in the same way as
+	 * {@link #writeComponent(Response, String, CharSequence)}. It is written to between
+	 * {@link #writeComponentStart(Response, String)} and {@link #writeComponentEnd(Response)}.
+	 *
+	 * @param response
+	 *      the response to write to
+	 * @return response for the markup of the component, or {@code null} if streaming is not
+	 *      supported so the markup is buffered
+	 */
+	protected Response newComponentResponse(Response response)
+	{
+		return null;
+	}
+
+	/**
+	 * Writes the start of a streamed component.
+	 *
+	 * @param response
+	 *      the response to write to
+	 * @param markupId
+	 *      the markup id to use for the component replacement
+	 * @see #newComponentResponse(Response)
+	 */
+	protected void writeComponentStart(Response response, String markupId)
+	{
+	}
 
-		bodyBuffer.reset();
+	/**
+	 * Writes the end of a streamed component.
+	 *
+	 * @param response
+	 *      the response to write to
+	 * @see #newComponentResponse(Response)
+	 */
+	protected void writeComponentEnd(Response response)
+	{
 	}
 
 	/**
@@ -830,6 +922,11 @@ public abstract class PartialPageUpdate
 
 		private final WebResponse originalResponse;
 
+		/**
+		 * Optional response to pass contents through to instead of buffering them.
+		 */
+		private Response target;
+
 		/**
 		 * Constructor.
 		 *
@@ -864,7 +961,14 @@ public abstract class PartialPageUpdate
 		@Override
 		public void write(CharSequence cs)
 		{
-			buffer.append(cs);
+			if (target == null)
+			{
+				buffer.append(cs);
+			}
+			else
+			{
+				target.write(cs);
+			}
 		}
 
 		/**
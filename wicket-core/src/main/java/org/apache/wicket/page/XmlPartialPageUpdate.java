@@ -63,6 +63,26 @@ public class XmlPartialPageUpdate extends PartialPageUpdate
 		response.write("]]></component>");
 	}
 
+	@Override
+	protected Response newComponentResponse(Response response)
+	{
+		return new CDataResponse(response);
+	}
+
+	@Override
+	protected void writeComponentStart(Response response, String markupId)
+	{
+		response.write("<component id=\"");
+		response.write(markupId);
+		response.write("\" ><![CDATA[");
+	}
+
+	@Override
+	protected void writeComponentEnd(Response response)
+	{
+		response.write("]]></component>");
+	}
+
 	@Override
 	protected void writeFooter(Response response, String encoding)
 	{
@@ -106,5 +126,74 @@ public class XmlPartialPageUpdate extends PartialPageUpdate
 		return Strings.replaceAll(str, "]]>", "]]]]><![CDATA[>"); 
 	}
 
+	/**
+	 * A response encoding its contents like {@link XmlPartialPageUpdate#encode(CharSequence)}
+	 * while passing them through, even if a {@code "]]>"} is split over several writes.
+	 */
+	private static class CDataResponse extends Response
+	{
+		private final Response response;
+
+		/**
+		 * Count of directly preceding {@code ']'}, at most two.
+		 */
+		private int brackets;
+
+		private CDataResponse(Response response)
+		{
+			this.response = response;
+		}
+
+		@Override
+		public void write(CharSequence sequence)
+		{
+			int start = 0;
+			final int length = sequence.length();
+			for (int i = 0; i < length; i++)
+			{
+				char c = sequence.charAt(i);
+				if (c == ']')
+				{
+					brackets = Math.min(brackets + 1, 2);
+				}
+				else
+				{
+					if (c == '>' && brackets == 2)
+					{
+						// close the CDATA section after the brackets and open a new one before '>'
+						response.write(sequence.subSequence(start, i));
+						response.write("]]><![CDATA[");
+						start = i;
+					}
+					brackets = 0;
+				}
+			}
+			response.write(start == 0 ? sequence : sequence.subSequence(start, length));
+		}
+
+		@Override
+		public void write(byte[] array)
+		{
+			throw new UnsupportedOperationException("Cannot write binary data.");
+		}
+
+		@Override
+		public void write(byte[] array, int offset, int length)
+		{
+			throw new UnsupportedOperationException("Cannot write binary data.");
+		}
+
+		@Override
+		public String encodeURL(CharSequence url)
+		{
+			return response.encodeURL(url);
+		}
+
+		@Override
+		public Object getContainerResponse()
+		{
+			return response.getContainerResponse();
+		}
+	}
 
 }
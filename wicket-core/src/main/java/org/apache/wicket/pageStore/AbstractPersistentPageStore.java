@@ -241,11 +241,19 @@ public abstract class AbstractPersistentPageStore implements IPageStore
 
 		private final long pageSize;
 
+		private final long logicalSize;
+
 		public PersistedPage(int pageId, String pageType, long pageSize)
+		{
+			this(pageId, pageType, pageSize, pageSize);
+		}
+
+		public PersistedPage(int pageId, String pageType, long pageSize, long logicalSize)
 		{
 			this.pageId = pageId;
 			this.pageType = pageType;
 			this.pageSize = pageSize;
+			this.logicalSize = logicalSize;
 		}
 
 		@Override
@@ -260,6 +268,12 @@ public abstract class AbstractPersistentPageStore implements IPageStore
 			return Bytes.bytes(pageSize);
 		}
 
+		@Override
+		public Bytes getLogicalSize()
+		{
+			return Bytes.bytes(logicalSize);
+		}
+
 		@Override
 		public String getPageType()
 		{
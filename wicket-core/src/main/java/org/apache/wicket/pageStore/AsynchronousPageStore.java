@@ -17,13 +17,17 @@
 package org.apache.wicket.pageStore;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 import org.apache.wicket.MetaDataKey;
@@ -37,12 +41,17 @@ import org.slf4j.LoggerFactory;
 /**
  * Facade for {@link IPageStore} moving {@link #addPage(IPageContext, IManageablePage)} to a worker thread.
  * <p>
- * Creates an {@link PendingAdd} for {@link #addPage(IPageContext, IManageablePage)} and puts ito a {@link #queue}.
- * Later {@link PageAddingRunnable} reads in blocking manner from {@link #queue} and performs the add.
+ * Creates an {@link PendingAdd} for {@link #addPage(IPageContext, IManageablePage)} and puts ito a {@link #queues queue}.
+ * Later {@link PageAddingRunnable} reads in blocking manner from its queue and performs the add.
  * <p>
- * It starts only one instance of {@link PageAddingRunnable} because all we need is to make the page
+ * By default it starts only one instance of {@link PageAddingRunnable} because all we need is to make the page
  * storing asynchronous. We don't want to write concurrently in the wrapped {@link IPageStore},
  * though it may happen in the extreme case when the queue is full. These cases should be avoided.
+ * <p>
+ * Optionally several {@link PageAddingRunnable}s can be started, each one with its own queue. Pages are
+ * distributed by their session, so all pages of a single session are still added in order. Each runnable drains
+ * up to a maximum batch size of pending adds from its queue, drops superseded adds of the same page and passes
+ * the remaining pages of each session at once to {@link IPageStore#addPages(IPageContext, List)}.
  * 
  * @author Matej Knopp
  * @author manuelbarzi
@@ -64,14 +73,14 @@ public class AsynchronousPageStore extends DelegatingPageStore
 	private static final long POLL_WAIT = 1000L;
 
 	/**
-	 * The page saving thread.
+	 * The page saving threads.
 	 */
-	private final Thread pageSavingThread;
+	private final Thread[] pageSavingThreads;
 
 	/**
-	 * The queue where the entries which have to be saved are temporary stored
+	 * The queues where the entries which have to be saved are temporary stored, one for each thread.
 	 */
-	private final BlockingQueue<PendingAdd> queue;
+	private final List<BlockingQueue<PendingAdd>> queues;
 
 	/**
 	 * A map 'sessionId:::pageId' -> {@link PendingAdd}. Used for fast retrieval of {@link PendingAdd}s which
@@ -79,6 +88,14 @@ public class AsynchronousPageStore extends DelegatingPageStore
 	 */
 	private final ConcurrentMap<String, PendingAdd> queueMap;
 
+	private final AtomicLong batchCount = new AtomicLong();
+
+	private final AtomicLong batchedPageCount = new AtomicLong();
+
+	private final AtomicLong coalescedPageCount = new AtomicLong();
+
+	private final AtomicLong synchronousPageCount = new AtomicLong();
+
 	/**
 	 * Construct.
 	 * 
@@ -88,16 +105,109 @@ public class AsynchronousPageStore extends DelegatingPageStore
 	 *            the capacity of the queue that delays the saving
 	 */
 	public AsynchronousPageStore(final IPageStore delegate, final int capacity)
+	{
+		this(delegate, capacity, 1, 1);
+	}
+
+	/**
+	 * Construct.
+	 * 
+	 * @param delegate
+	 *            the wrapped {@link IPageStore} that actually saved the page
+	 * @param capacity
+	 *            the capacity of the queues that delay the saving
+	 * @param threadCount
+	 *            count of threads saving pages, each with its own queue
+	 * @param batchSize
+	 *            maximum count of pages saved at once by each thread
+	 */
+	public AsynchronousPageStore(final IPageStore delegate, final int capacity,
+		final int threadCount, final int batchSize)
 	{
 		super(delegate);
-		
-		queue = new LinkedBlockingQueue<>(capacity);
+
+		Args.withinRange(1, Integer.MAX_VALUE, threadCount, "threadCount");
+		Args.withinRange(1, Integer.MAX_VALUE, batchSize, "batchSize");
+
+		queues = new ArrayList<>(threadCount);
 		queueMap = new ConcurrentHashMap<>();
 
-		PageAddingRunnable savingRunnable = new PageAddingRunnable(delegate, queue, queueMap);
-		pageSavingThread = new Thread(savingRunnable, "Wicket-AsyncPageStore-PageSavingThread");
-		pageSavingThread.setDaemon(true);
-		pageSavingThread.start();
+		pageSavingThreads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++)
+		{
+			BlockingQueue<PendingAdd> queue = new LinkedBlockingQueue<>(
+				Math.max(1, capacity / threadCount));
+			queues.add(queue);
+
+			PageAddingRunnable savingRunnable = new PageAddingRunnable(this, queue, batchSize);
+			String name = "Wicket-AsyncPageStore-PageSavingThread";
+			if (threadCount > 1)
+			{
+				name += "-" + t;
+			}
+			pageSavingThreads[t] = new Thread(savingRunnable, name);
+			pageSavingThreads[t].setDaemon(true);
+			pageSavingThreads[t].start();
+		}
+	}
+
+	/**
+	 * Get the queue for the given session.
+	 * 
+	 * @param sessionId
+	 *            id of session
+	 * @return queue
+	 */
+	private BlockingQueue<PendingAdd> getQueue(final String sessionId)
+	{
+		return queues.get(Math.floorMod(sessionId.hashCode(), queues.size()));
+	}
+
+	/**
+	 * @return count of pages currently waiting in all queues
+	 */
+	public int getQueueSize()
+	{
+		int size = 0;
+		for (BlockingQueue<PendingAdd> queue : queues)
+		{
+			size += queue.size();
+		}
+		return size;
+	}
+
+	/**
+	 * @return count of batches passed to the delegate so far, one per session and drained batch
+	 */
+	public long getBatchCount()
+	{
+		return batchCount.get();
+	}
+
+	/**
+	 * @return count of pages passed in batches to the delegate so far
+	 * @see #getBatchCount()
+	 */
+	public long getBatchedPageCount()
+	{
+		return batchedPageCount.get();
+	}
+
+	/**
+	 * @return count of pages that were not passed to the delegate, because a newer add of the same
+	 *         page followed in the same batch
+	 */
+	public long getCoalescedPageCount()
+	{
+		return coalescedPageCount.get();
+	}
+
+	/**
+	 * @return count of pages that had to be added synchronously, because the queue was full
+	 */
+	public long getSynchronousPageCount()
+	{
+		return synchronousPageCount.get();
 	}
 
 	/**
@@ -253,23 +363,25 @@ public class AsynchronousPageStore extends DelegatingPageStore
 	{
 		private static final Logger log = LoggerFactory.getLogger(PageAddingRunnable.class);
 
-		private final BlockingQueue<PendingAdd> queue;
+		private final AsynchronousPageStore store;
 
-		private final ConcurrentMap<String, PendingAdd> map;
+		private final BlockingQueue<PendingAdd> queue;
 
-		private final IPageStore delegate;
+		private final int batchSize;
 
-		private PageAddingRunnable(IPageStore delegate, BlockingQueue<PendingAdd> queue,
-		                           ConcurrentMap<String, PendingAdd> map)
+		private PageAddingRunnable(AsynchronousPageStore store, BlockingQueue<PendingAdd> queue,
+		                           int batchSize)
 		{
-			this.delegate = delegate;
+			this.store = store;
 			this.queue = queue;
-			this.map = map;
+			this.batchSize = batchSize;
 		}
 
 		@Override
 		public void run()
 		{
+			List<PendingAdd> batch = new ArrayList<>(batchSize);
+
 			while (!Thread.interrupted())
 			{
 				PendingAdd add = null;
@@ -285,19 +397,77 @@ public class AsynchronousPageStore extends DelegatingPageStore
 
 				if (add != null)
 				{
-					try
+					batch.add(add);
+					queue.drainTo(batch, batchSize - 1);
+
+					addBatch(batch);
+
+					batch.clear();
+				}
+			}
+		}
+
+		/**
+		 * Add the given pending adds, keeping only the latest add of each page and grouping
+		 * them by session.
+		 * 
+		 * @param batch
+		 *            pending adds in order of their queuing
+		 */
+		private void addBatch(List<PendingAdd> batch)
+		{
+			Map<String, PendingAdd> latest = new LinkedHashMap<>();
+			for (PendingAdd add : batch)
+			{
+				String key = add.getKey();
+				if (latest.remove(key) != null)
+				{
+					store.coalescedPageCount.incrementAndGet();
+				}
+				latest.put(key, add);
+			}
+
+			Map<String, List<PendingAdd>> sessions = new LinkedHashMap<>();
+			for (PendingAdd add : latest.values())
+			{
+				sessions.computeIfAbsent(add.sessionId, sessionId -> new ArrayList<>()).add(add);
+			}
+
+			for (List<PendingAdd> adds : sessions.values())
+			{
+				List<IManageablePage> pages = new ArrayList<>(adds.size());
+				for (PendingAdd add : adds)
+				{
+					add.asynchronous = true;
+					pages.add(add.page);
+				}
+
+				// all adds are for the same session, so any of them is a suitable context
+				PendingAdd context = adds.get(adds.size() - 1);
+				try
+				{
+					log.debug("Saving asynchronously: {}...", adds);
+					if (pages.size() == 1)
 					{
-						log.debug("Saving asynchronously: {}...", add);
-						add.asynchronous = true;
-						delegate.addPage(add, add.page);
+						store.getDelegate().addPage(context, pages.get(0));
 					}
-					catch (Exception x)
+					else
 					{
-						log.error("An error occurred while saving asynchronously '{}'", add, x);
+						store.getDelegate().addPages(context, pages);
 					}
-					finally
+
+					store.batchCount.incrementAndGet();
+					store.batchedPageCount.addAndGet(pages.size());
+				}
+				catch (Exception x)
+				{
+					log.error("An error occurred while saving asynchronously '{}'", adds, x);
+				}
+				finally
+				{
+					for (PendingAdd add : adds)
 					{
-						map.remove(add.getKey());
+						store.queueMap.remove(add.getKey(), add);
 					}
 				}
 			}
@@ -307,16 +477,19 @@ public class AsynchronousPageStore extends DelegatingPageStore
 	@Override
 	public void destroy()
 	{
-		if (pageSavingThread.isAlive())
+		for (Thread pageSavingThread : pageSavingThreads)
 		{
-			pageSavingThread.interrupt();
-			try
-			{
-				pageSavingThread.join();
-			}
-			catch (InterruptedException e)
+			if (pageSavingThread.isAlive())
 			{
-				log.error(e.getMessage(), e);
+				pageSavingThread.interrupt();
+				try
+				{
+					pageSavingThread.join();
+				}
+				catch (InterruptedException e)
+				{
+					log.error(e.getMessage(), e);
+				}
 			}
 		}
 
@@ -356,7 +529,8 @@ public class AsynchronousPageStore extends DelegatingPageStore
 		PendingAdd entry = queueMap.remove(key);
 		if (entry != null)
 		{
-			queue.remove(entry);
+			// remove superseded adds of the same page too
+			getQueue(sessionId).removeIf(add -> add.getKey().equals(key));
 		}
 
 		getDelegate().removePage(context, page);
@@ -372,7 +546,7 @@ public class AsynchronousPageStore extends DelegatingPageStore
 			queueMap.put(key, add);
 			try
 			{
-				if (queue.offer(add, OFFER_WAIT, TimeUnit.MILLISECONDS))
+				if (getQueue(add.sessionId).offer(add, OFFER_WAIT, TimeUnit.MILLISECONDS))
 				{
 					log.debug("Offered for storing asynchronously page with id '{}'", page.getPageId());
 					return;
@@ -380,13 +554,14 @@ public class AsynchronousPageStore extends DelegatingPageStore
 				else
 				{
 					log.debug("Storing synchronously page with id '{}'", page.getPageId());
-					queueMap.remove(key);
+					queueMap.remove(key, add);
+					synchronousPageCount.incrementAndGet();
 				}
 			}
 			catch (InterruptedException e)
 			{
 				log.error(e.getMessage(), e);
-				queueMap.remove(key);
+				queueMap.remove(key, add);
 			}
 		}
 		else
@@ -405,9 +580,9 @@ public class AsynchronousPageStore extends DelegatingPageStore
 			return;
 		}
 
-		queue.removeIf(add -> {
+		getQueue(sessionId).removeIf(add -> {
 			if (add.sessionId.equals(sessionId)) {
-				queueMap.remove(add.getKey());
+				queueMap.remove(add.getKey(), add);
 				return true;
 			}
 			
@@ -0,0 +1,607 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.pageStore;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.wicket.MetaDataKey;
+import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.page.IManageablePage;
+import org.apache.wicket.pageStore.delta.BinaryDelta;
+import org.apache.wicket.util.lang.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A store that keeps pages as binary deltas against a complete snapshot of a previous page of the
+ * same type.
+ * <p>
+ * Each version of a stateful page is usually very similar to its predecessor, so instead of
+ * storing all pages completely, a page is stored completely once for each page type and becomes
+ * the <em>base</em> for all following pages of that type, which are stored as a delta only. A page
+ * is stored completely as new base after {@link #getMaxDeltas()} deltas, when a delta is no longer
+ * significantly smaller than the page, or when the base is no longer available.
+ * <p>
+ * The current bases are kept in memory for a few page types per session, so deltas are created
+ * without reading from the delegate. Additionally a base is stored in the delegate with a
+ * synthetic id counting down from {@link Integer#MAX_VALUE} along with the first delta referring
+ * to it, thus re-adding a page never invalidates other pages. A base is removed as soon as no page
+ * refers to it anymore. Note that a delta can no longer be restored if its base was evicted from
+ * the delegate.
+ * <p>
+ * Encoded pages start with a header identifying format and version, pages without it (e.g. stored
+ * before this store was configured) are passed through unchanged.
+ * <p>
+ * All pages passing through this store are restricted to be {@link SerializedPage}s. You can
+ * achieve this with
+ * <ul>
+ * <li>a {@link SerializingPageStore} delegating to this store and</li>
+ * <li>delegating to a store that does not deserialize its pages, e.g. a {@link DiskPageStore}.</li>
+ * </ul>
+ * Any {@link CryptingPageStore} has to follow this store, since encrypted pages do not have any
+ * similarity.
+ */
+public class DeltaPageStore extends DelegatingPageStore
+{
+	private static final Logger log = LoggerFactory.getLogger(DeltaPageStore.class);
+
+	/**
+	 * Default maximum count of deltas against a single base.
+	 */
+	public static final int DEFAULT_MAX_DELTAS = 20;
+
+	private static final MetaDataKey<SessionData> KEY = new MetaDataKey<>()
+	{
+		private static final long serialVersionUID = 1L;
+	};
+
+	/**
+	 * Magic bytes identifying encoded pages.
+	 */
+	private static final byte[] MAGIC = { 'W', 'D' };
+
+	/**
+	 * Version of the encoding, following the magic bytes.
+	 */
+	private static final byte VERSION = 1;
+
+	/**
+	 * Length of magic bytes, version and kind of page.
+	 */
+	private static final int HEADER_LENGTH = MAGIC.length + 2;
+
+	private static final byte BASE = 1;
+
+	private static final byte DELTA = 2;
+
+	private final int maxDeltas;
+
+	/**
+	 * @param delegate
+	 *            store to delegate to
+	 */
+	public DeltaPageStore(IPageStore delegate)
+	{
+		this(delegate, DEFAULT_MAX_DELTAS);
+	}
+
+	/**
+	 * @param delegate
+	 *            store to delegate to
+	 * @param maxDeltas
+	 *            maximum count of deltas against a single base
+	 */
+	public DeltaPageStore(IPageStore delegate, int maxDeltas)
+	{
+		super(delegate);
+
+		this.maxDeltas = Args.withinRange(1, Integer.MAX_VALUE, maxDeltas, "maxDeltas");
+	}
+
+	/**
+	 * Get the maximum count of deltas against a single base.
+	 */
+	public int getMaxDeltas()
+	{
+		return maxDeltas;
+	}
+
+	/**
+	 * Pages are always serialized, so versioning is supported.
+	 */
+	@Override
+	public boolean supportsVersioning()
+	{
+		return true;
+	}
+
+	/**
+	 * Supports asynchronous add if the delegate supports it.
+	 */
+	@Override
+	public boolean canBeAsynchronous(IPageContext context)
+	{
+		// session data must be added here *before* any asynchronous calls
+		// when session is no longer available
+		getSessionData(context);
+
+		return getDelegate().canBeAsynchronous(context);
+	}
+
+	private SessionData getSessionData(IPageContext context)
+	{
+		return context.getSessionData(KEY, SessionData::new);
+	}
+
+	@Override
+	public IManageablePage getPage(IPageContext context, int id)
+	{
+		IManageablePage page = getDelegate().getPage(context, id);
+
+		if (page != null)
+		{
+			byte[] data = getData(page);
+
+			if (isEncoded(data) == false)
+			{
+				log.debug("Page {} is not encoded", id);
+				return page;
+			}
+			if (data[MAGIC.length] != VERSION)
+			{
+				log.debug("Page {} is encoded with unsupported version {}", id, data[MAGIC.length]);
+				return null;
+			}
+
+			if (data[HEADER_LENGTH - 1] == DELTA)
+			{
+				int baseId = readId(data);
+
+				byte[] baseData = getCurrentBaseData(context, baseId);
+				if (baseData == null)
+				{
+					baseData = getBaseData(context, baseId);
+				}
+				if (baseData == null)
+				{
+					log.debug("Base {} of page {} is no longer available", baseId, id);
+					return null;
+				}
+
+				byte[] delta = Arrays.copyOfRange(data, HEADER_LENGTH + 4, data.length);
+				data = BinaryDelta.apply(baseData, delta);
+			}
+			else
+			{
+				data = Arrays.copyOfRange(data, HEADER_LENGTH, data.length);
+			}
+
+			page = new SerializedPage(id, ((SerializedPage)page).getPageType(), data);
+		}
+
+		return page;
+	}
+
+	@Override
+	public void addPage(IPageContext context, IManageablePage page)
+	{
+		List<IManageablePage> encoded = encode(context, page);
+
+		if (encoded.size() == 1)
+		{
+			getDelegate().addPage(context, encoded.get(0));
+		}
+		else
+		{
+			getDelegate().addPages(context, encoded);
+		}
+	}
+
+	/**
+	 * Encodes all pages before delegating them at once.
+	 */
+	@Override
+	public void addPages(IPageContext context, List<IManageablePage> pages)
+	{
+		List<IManageablePage> encoded = new ArrayList<>(pages.size());
+		for (IManageablePage page : pages)
+		{
+			encoded.addAll(encode(context, page));
+		}
+
+		getDelegate().addPages(context, encoded);
+	}
+
+	/**
+	 * Removes the base of the page too, if no other page refers to it.
+	 */
+	@Override
+	public void removePage(IPageContext context, IManageablePage page)
+	{
+		getDelegate().removePage(context, page);
+
+		SessionData sessionData = context.getSessionData(KEY, () -> null);
+		if (sessionData != null)
+		{
+			List<Integer> orphans = new ArrayList<>();
+			synchronized (sessionData)
+			{
+				sessionData.release(page.getPageId(), orphans);
+			}
+			removeBases(context, orphans);
+		}
+	}
+
+	@Override
+	public void removeAllPages(IPageContext context)
+	{
+		SessionData sessionData = context.getSessionData(KEY, () -> null);
+		if (sessionData != null)
+		{
+			sessionData.clear();
+		}
+
+		getDelegate().removeAllPages(context);
+	}
+
+	/**
+	 * Encode the given page as delta, preceded by its base if not stored yet, or completely as a
+	 * new base.
+	 */
+	private List<IManageablePage> encode(IPageContext context, IManageablePage page)
+	{
+		if (page instanceof SerializedPage == false)
+		{
+			throw new WicketRuntimeException("DeltaPageStore works with serialized pages only");
+		}
+		SerializedPage serializedPage = (SerializedPage)page;
+		String pageType = serializedPage.getPageType();
+		byte[] data = serializedPage.getData();
+
+		List<Integer> orphans = new ArrayList<>();
+		try
+		{
+			SessionData sessionData = getSessionData(context);
+			synchronized (sessionData)
+			{
+				Base base = sessionData.getBase(pageType);
+				if (base != null && base.data != null && base.deltas < maxDeltas)
+				{
+					byte[] delta = BinaryDelta.create(base.data, data);
+					if (delta.length < data.length / 2)
+					{
+						base.deltas++;
+						sessionData.reference(serializedPage.getPageId(), base.id, orphans);
+
+						SerializedPage deltaPage = newDelta(serializedPage, base.id, delta);
+						if (base.stored)
+						{
+							return List.of(deltaPage);
+						}
+
+						base.stored = true;
+						return List.of(newBase(base.id, pageType, base.data), deltaPage);
+					}
+				}
+
+				// page is stored completely, not referring to any base
+				sessionData.release(serializedPage.getPageId(), orphans);
+				sessionData.newBase(pageType, data, orphans);
+
+				return List.of(newBase(serializedPage.getPageId(), pageType, data));
+			}
+		}
+		finally
+		{
+			removeBases(context, orphans);
+		}
+	}
+
+	private void removeBases(IPageContext context, List<Integer> baseIds)
+	{
+		for (Integer baseId : baseIds)
+		{
+			log.debug("Removing base {}", baseId);
+
+			getDelegate().removePage(context, new SerializedPage(baseId, new byte[0]));
+		}
+	}
+
+	/**
+	 * Get the data of a current base from memory.
+	 *
+	 * @return data or {@code null} if not available
+	 */
+	private byte[] getCurrentBaseData(IPageContext context, int baseId)
+	{
+		SessionData sessionData = context.getSessionData(KEY, () -> null);
+		if (sessionData == null)
+		{
+			return null;
+		}
+		synchronized (sessionData)
+		{
+			return sessionData.getBaseData(baseId);
+		}
+	}
+
+	/**
+	 * Get the data of a base from the delegate.
+	 *
+	 * @return data or {@code null} if not available
+	 */
+	private byte[] getBaseData(IPageContext context, int baseId)
+	{
+		IManageablePage base = getDelegate().getPage(context, baseId);
+		if (base == null)
+		{
+			return null;
+		}
+
+		byte[] data = getData(base);
+		if (isEncoded(data) == false || data[MAGIC.length] != VERSION ||
+			data[HEADER_LENGTH - 1] != BASE)
+		{
+			return null;
+		}
+		return Arrays.copyOfRange(data, HEADER_LENGTH, data.length);
+	}
+
+	private SerializedPage newBase(int id, String pageType, byte[] data)
+	{
+		byte[] baseData = new byte[HEADER_LENGTH + data.length];
+		writeHeader(baseData, BASE);
+		System.arraycopy(data, 0, baseData, HEADER_LENGTH, data.length);
+
+		return new SerializedPage(id, pageType, baseData, data.length);
+	}
+
+	private SerializedPage newDelta(SerializedPage page, int baseId, byte[] delta)
+	{
+		byte[] data = new byte[HEADER_LENGTH + 4 + delta.length];
+		writeHeader(data, DELTA);
+		data[HEADER_LENGTH] = (byte)(baseId >>> 24);
+		data[HEADER_LENGTH + 1] = (byte)(baseId >>> 16);
+		data[HEADER_LENGTH + 2] = (byte)(baseId >>> 8);
+		data[HEADER_LENGTH + 3] = (byte)baseId;
+		System.arraycopy(delta, 0, data, HEADER_LENGTH + 4, delta.length);
+
+		return new SerializedPage(page.getPageId(), page.getPageType(), data,
+			page.getData().length);
+	}
+
+	private void writeHeader(byte[] data, byte kind)
+	{
+		System.arraycopy(MAGIC, 0, data, 0, MAGIC.length);
+		data[MAGIC.length] = VERSION;
+		data[HEADER_LENGTH - 1] = kind;
+	}
+
+	/**
+	 * Does the given data start with the magic bytes.
+	 */
+	private boolean isEncoded(byte[] data)
+	{
+		if (data.length < HEADER_LENGTH)
+		{
+			return false;
+		}
+		for (int b = 0; b < MAGIC.length; b++)
+		{
+			if (data[b] != MAGIC[b])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int readId(byte[] data)
+	{
+		return ((data[HEADER_LENGTH] & 0xFF) << 24) | ((data[HEADER_LENGTH + 1] & 0xFF) << 16) |
+			((data[HEADER_LENGTH + 2] & 0xFF) << 8) | (data[HEADER_LENGTH + 3] & 0xFF);
+	}
+
+	private byte[] getData(IManageablePage page)
+	{
+		if (page instanceof SerializedPage == false)
+		{
+			throw new WicketRuntimeException("DeltaPageStore expects serialized pages");
+		}
+		return ((SerializedPage)page).getData();
+	}
+
+	/**
+	 * The current base for deltas of a page type.
+	 */
+	private static class Base implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int id;
+
+		/**
+		 * Data of the base, not kept when the session is serialized.
+		 */
+		private final transient byte[] data;
+
+		private int deltas;
+
+		/**
+		 * Whether the base is stored in the delegate.
+		 */
+		private boolean stored;
+
+		private Base(int id, byte[] data)
+		{
+			this.id = id;
+			this.data = data;
+		}
+	}
+
+	/**
+	 * Data held in the session, the current bases and the ids of pages referring to bases.
+	 */
+	private static class SessionData implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Maximum count of page types with a current base, limiting the data kept in memory.
+		 */
+		private static final int MAX_BASES = 4;
+
+		private int nextBaseId = Integer.MAX_VALUE;
+
+		/**
+		 * Current base by page type, least recently used first.
+		 */
+		private final Map<String, Base> bases = new LinkedHashMap<>(MAX_BASES, 0.75f, true);
+
+		/**
+		 * Id of base by id of page.
+		 */
+		private final Map<Integer, Integer> pageBases = new HashMap<>();
+
+		/**
+		 * Count of pages by id of base.
+		 */
+		private final Map<Integer, Integer> baseReferences = new HashMap<>();
+
+		public Base getBase(String pageType)
+		{
+			return bases.get(pageType);
+		}
+
+		/**
+		 * Get the data of a current base.
+		 *
+		 * @return data or {@code null} if not a current base or its data is not available
+		 */
+		public byte[] getBaseData(int baseId)
+		{
+			for (Base base : bases.values())
+			{
+				if (base.id == baseId)
+				{
+					return base.data;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Create a new current base for the given page type.
+		 *
+		 * @param orphans
+		 *            collects ids of bases no longer referred to
+		 */
+		public Base newBase(String pageType, byte[] data, List<Integer> orphans)
+		{
+			Base base = new Base(nextBaseId--, data);
+
+			superseded(bases.put(pageType, base), orphans);
+
+			if (bases.size() > MAX_BASES)
+			{
+				Iterator<Base> iterator = bases.values().iterator();
+				Base eldest = iterator.next();
+				iterator.remove();
+				superseded(eldest, orphans);
+			}
+
+			return base;
+		}
+
+		private void superseded(Base base, List<Integer> orphans)
+		{
+			if (base != null && base.stored && baseReferences.containsKey(base.id) == false)
+			{
+				orphans.add(base.id);
+			}
+		}
+
+		/**
+		 * A page refers to a base now.
+		 *
+		 * @param orphans
+		 *            collects ids of bases no longer referred to
+		 */
+		public void reference(int pageId, int baseId, List<Integer> orphans)
+		{
+			baseReferences.merge(baseId, 1, Integer::sum);
+
+			Integer previous = pageBases.put(pageId, baseId);
+			if (previous != null)
+			{
+				dereference(previous, orphans);
+			}
+		}
+
+		/**
+		 * A page was removed.
+		 *
+		 * @param orphans
+		 *            collects ids of bases no longer referred to
+		 */
+		public void release(int pageId, List<Integer> orphans)
+		{
+			Integer baseId = pageBases.remove(pageId);
+			if (baseId != null)
+			{
+				dereference(baseId, orphans);
+			}
+		}
+
+		private void dereference(int baseId, List<Integer> orphans)
+		{
+			Integer count = baseReferences.merge(baseId, -1,
+				(current, delta) -> current + delta == 0 ? null : current + delta);
+
+			if (count == null && isCurrent(baseId) == false)
+			{
+				orphans.add(baseId);
+			}
+		}
+
+		private boolean isCurrent(int baseId)
+		{
+			for (Base base : bases.values())
+			{
+				if (base.id == baseId)
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+
+		public synchronized void clear()
+		{
+			bases.clear();
+			pageBases.clear();
+			baseReferences.clear();
+		}
+	}
+}
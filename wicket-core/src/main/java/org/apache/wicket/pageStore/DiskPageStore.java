@@ -28,13 +28,17 @@ import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.wicket.WicketRuntimeException;
 import org.apache.wicket.page.IManageablePage;
@@ -61,6 +65,12 @@ import org.slf4j.LoggerFactory;
  * different page ids and the oldest pages are constantly overwritten (this can easily happen with Ajax timers on one or more pages).
  * This leads to pages with identical id superfluously kept in the file, while older pages are prematurely expelled.
  * Any following request to these older pages will then fail with {@link PageExpiredException}.   
+ * <p>
+ * Each session's file is kept open for the lifetime of the session, reads for a session can run
+ * concurrently while writes are exclusive. Note that the lock is held per session file, not per
+ * page: loading a page waits for a concurrent save in the same session, even if it does not touch
+ * that page. Optionally the file can be accessed through a {@link MappedByteBuffer}, see
+ * {@link #DiskPageStore(String, File, Bytes, boolean)}.
  */
 public class DiskPageStore extends AbstractPersistentPageStore implements IPersistentPageStore
 {
@@ -71,8 +81,15 @@ public class DiskPageStore extends AbstractPersistentPageStore implements IPersi
 	 */
 	private static final String INDEX_FILE_NAME = "DiskPageStoreIndex";
 
+	/**
+	 * Mapped files grow in chunks of this size.
+	 */
+	private static final int MAPPED_CHUNK_SIZE = 64 * 1024;
+
 	private final Bytes maxSizePerSession;
 
+	private final boolean memoryMapped;
+
 	private final NestedFolders folders;
 
 	private final ConcurrentMap<String, DiskData> diskDatas;
@@ -90,11 +107,35 @@ public class DiskPageStore extends AbstractPersistentPageStore implements IPersi
 	 * @see SerializingPageStore
 	 */
 	public DiskPageStore(String applicationName, File fileStoreFolder, Bytes maxSizePerSession)
+	{
+		this(applicationName, fileStoreFolder, maxSizePerSession, false);
+	}
+
+	/**
+	 * Create a store that supports {@link SerializedPage}s only.
+	 * 
+	 * @param applicationName
+	 *            name of application
+	 * @param fileStoreFolder
+	 *            folder to store to
+	 * @param maxSizePerSession
+	 *            maximum size per session
+	 * @param memoryMapped
+	 *            should the session files be accessed through a {@link MappedByteBuffer}, the
+	 *            mapping grows with the file in chunks. Note that the JDK offers no way to unmap a
+	 *            file: closed or outgrown mappings are released on garbage collection only, until
+	 *            then they occupy address space and - on Windows - the files cannot be deleted
+	 * 
+	 * @see SerializingPageStore
+	 */
+	public DiskPageStore(String applicationName, File fileStoreFolder, Bytes maxSizePerSession,
+		boolean memoryMapped)
 	{
 		super(applicationName);
 		
 		this.folders = new NestedFolders(new File(fileStoreFolder, applicationName + "-filestore"));
 		this.maxSizePerSession = Args.notNull(maxSizePerSession, "maxSizePerSession");
+		this.memoryMapped = memoryMapped;
 
 		this.diskDatas = new ConcurrentHashMap<>();
 
@@ -133,6 +174,11 @@ public class DiskPageStore extends AbstractPersistentPageStore implements IPersi
 		log.debug("Destroying...");
 		saveIndex();
 
+		for (DiskData diskData : diskDatas.values())
+		{
+			diskData.close();
+		}
+
 		super.destroy();
 		log.debug("Destroyed.");
 	}
@@ -206,6 +252,31 @@ public class DiskPageStore extends AbstractPersistentPageStore implements IPersi
 		diskData.savePage(serializedPage.getPageId(), type, data);
 	}
 
+	/**
+	 * Saves all pages with a single write where possible.
+	 */
+	@Override
+	public void addPages(IPageContext context, List<IManageablePage> pages)
+	{
+		String sessionIdentifier = getSessionIdentifier(context);
+
+		List<SerializedPage> serializedPages = new ArrayList<>(pages.size());
+		for (IManageablePage page : pages)
+		{
+			if (page instanceof SerializedPage == false)
+			{
+				throw new WicketRuntimeException("DiskPageStore works with serialized pages only");
+			}
+			serializedPages.add((SerializedPage)page);
+		}
+
+		DiskData diskData = getDiskData(sessionIdentifier, true);
+
+		log.debug("Storing data for {} pages in session with id '{}'", pages.size(), sessionIdentifier);
+
+		diskData.savePages(serializedPages);
+	}
+
 	/**
 	 * Get the data on disk for the given session identifier.
 	 * 
@@ -337,6 +408,21 @@ public class DiskPageStore extends AbstractPersistentPageStore implements IPersi
 
 		private transient String fileName;
 
+		/**
+		 * Reads can be performed concurrently, writes are exclusive.
+		 */
+		private transient ReadWriteLock lock = new ReentrantReadWriteLock();
+
+		/**
+		 * The channel to the file, kept open until {@link #unbind()} or {@link #close()}.
+		 */
+		private transient FileChannel channel;
+
+		/**
+		 * The mapped file if the store is {@link DiskPageStore#memoryMapped}.
+		 */
+		private transient MappedByteBuffer mapped;
+
 		private String sessionIdentifier;
 
 		private PageWindowManager manager;
@@ -348,6 +434,13 @@ public class DiskPageStore extends AbstractPersistentPageStore implements IPersi
 			this.sessionIdentifier = sessionIdentifier;
 		}
 
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+		{
+			in.defaultReadObject();
+
+			lock = new ReentrantReadWriteLock();
+		}
+
 		public long size()
 		{
 			return manager.getTotalSize();
@@ -386,42 +479,109 @@ public class DiskPageStore extends AbstractPersistentPageStore implements IPersi
 		 * @param pageType
 		 * @param data
 		 */
-		public synchronized void savePage(int pageId, String pageType, byte data[])
+		public void savePage(int pageId, String pageType, byte data[])
 		{
-			if (sessionIdentifier == null)
+			// only save page that has some data
+			if (data != null)
 			{
-				return;
+				savePages(Collections.singletonList(new SerializedPage(pageId, pageType, data)));
 			}
+		}
 
-			// only save page that has some data
-			if (data != null)
+		/**
+		 * Saves the serialized pages to appropriate file.
+		 * <p>
+		 * Pages allocated to adjacent windows are written with a single gathering write.
+		 * 
+		 * @param pages
+		 *            pages to save
+		 */
+		public void savePages(List<SerializedPage> pages)
+		{
+			lock.writeLock().lock();
+			try
 			{
-				// allocate window for page
-				FileWindow window = getManager().createPageWindow(pageId, pageType, data.length);
+				if (sessionIdentifier == null)
+				{
+					return;
+				}
+
+				// allocate windows for all pages, note that a window might be reused by
+				// a following page, thus offsets have to be remembered
+				int[] offsets = new int[pages.size()];
+				for (int p = 0; p < pages.size(); p++)
+				{
+					SerializedPage page = pages.get(p);
+					FileWindow window = getManager().createPageWindow(page.getPageId(),
+						page.getPageType(), page.getData().length, page.getLogicalSize());
+					offsets[p] = window.getFilePartOffset();
+				}
 
 				FileChannel channel = getFileChannel(true);
 				if (channel != null)
 				{
 					try
 					{
-						// write the content
-						channel.write(ByteBuffer.wrap(data), window.getFilePartOffset());
+						write(channel, pages, offsets);
 					}
 					catch (IOException e)
 					{
 						log.error("Error writing to a channel " + channel, e);
 					}
-					finally
-					{
-						IOUtils.closeQuietly(channel);
-					}
 				}
 				else
 				{
 					log.warn(
-						"Cannot save page with id '{}' because the data file cannot be opened.",
-						pageId);
+						"Cannot save {} pages because the data file cannot be opened.",
+						pages.size());
+				}
+			}
+			finally
+			{
+				lock.writeLock().unlock();
+			}
+		}
+
+		private void write(FileChannel channel, List<SerializedPage> pages, int[] offsets)
+			throws IOException
+		{
+			if (pageStore.memoryMapped)
+			{
+				for (int p = 0; p < pages.size(); p++)
+				{
+					byte[] data = pages.get(p).getData();
+					getMapped(offsets[p] + data.length).put(offsets[p], data);
 				}
+				return;
+			}
+
+			int start = 0;
+			while (start < pages.size())
+			{
+				// find run of adjacent windows
+				long remaining = pages.get(start).getData().length;
+				int end = start + 1;
+				while (end < pages.size() &&
+					offsets[end] == offsets[end - 1] + pages.get(end - 1).getData().length)
+				{
+					remaining += pages.get(end).getData().length;
+					end++;
+				}
+
+				ByteBuffer[] buffers = new ByteBuffer[end - start];
+				for (int p = start; p < end; p++)
+				{
+					buffers[p - start] = ByteBuffer.wrap(pages.get(p).getData());
+				}
+
+				// position is not used by concurrent reads
+				channel.position(offsets[start]);
+				while (remaining > 0)
+				{
+					remaining -= channel.write(buffers);
+				}
+
+				start = end;
 			}
 		}
 
@@ -430,14 +590,22 @@ public class DiskPageStore extends AbstractPersistentPageStore implements IPersi
 		 * 
 		 * @param pageId
 		 */
-		public synchronized void removeData(int pageId)
+		public void removeData(int pageId)
 		{
-			if (sessionIdentifier == null)
+			lock.writeLock().lock();
+			try
 			{
-				return;
-			}
+				if (sessionIdentifier == null)
+				{
+					return;
+				}
 
-			getManager().removePage(pageId);
+				getManager().removePage(pageId);
+			}
+			finally
+			{
+				lock.writeLock().unlock();
+			}
 		}
 
 		/**
@@ -448,82 +616,179 @@ public class DiskPageStore extends AbstractPersistentPageStore implements IPersi
 		 */
 		public byte[] loadData(FileWindow window)
 		{
-			byte[] result = null;
-			FileChannel channel = getFileChannel(false);
-			if (channel != null)
+			lock.readLock().lock();
+			try
 			{
-				ByteBuffer buffer = ByteBuffer.allocate(window.getFilePartSize());
+				FileChannel channel = getFileChannel(false);
+				if (channel == null)
+				{
+					return null;
+				}
+
+				byte[] result = new byte[window.getFilePartSize()];
 				try
 				{
-					channel.read(buffer, window.getFilePartOffset());
-					if (buffer.hasArray())
+					if (pageStore.memoryMapped)
+					{
+						getMapped(window.getFilePartOffset() + result.length)
+							.get(window.getFilePartOffset(), result);
+					}
+					else
 					{
-						result = buffer.array();
+						ByteBuffer buffer = ByteBuffer.wrap(result);
+						long position = window.getFilePartOffset();
+						while (buffer.hasRemaining())
+						{
+							int read = channel.read(buffer, position);
+							if (read == -1)
+							{
+								break;
+							}
+							position += read;
+						}
 					}
 				}
 				catch (IOException e)
 				{
 					log.error("Error reading from file channel " + channel, e);
+					result = null;
 				}
-				finally
-				{
-					IOUtils.closeQuietly(channel);
-				}
+				return result;
+			}
+			finally
+			{
+				lock.readLock().unlock();
 			}
-			return result;
 		}
 
-		private FileChannel getFileChannel(boolean create)
+		/**
+		 * Get the channel to the file, opening it if necessary.
+		 * <p>
+		 * Synchronized as concurrent readers might try to open it simultaneously.
+		 * 
+		 * @param create
+		 *            should the file be created if it does not exist
+		 * @return channel or {@code null}
+		 */
+		private synchronized FileChannel getFileChannel(boolean create)
 		{
-			FileChannel channel = null;
-			File file = new File(getFileName());
-			if (create || file.exists())
+			if (channel == null)
 			{
-				String mode = create ? "rw" : "r";
-				try
-				{
-					RandomAccessFile randomAccessFile = new RandomAccessFile(file, mode);
-					channel = randomAccessFile.getChannel();
-				}
-				catch (FileNotFoundException fnfx)
+				File file = new File(getFileName());
+				if (create || file.exists())
 				{
-					// can happen if the file is locked. WICKET-4176
-					log.error(fnfx.getMessage(), fnfx);
+					try
+					{
+						RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+						channel = randomAccessFile.getChannel();
+					}
+					catch (FileNotFoundException fnfx)
+					{
+						// can happen if the file is locked. WICKET-4176
+						log.error(fnfx.getMessage(), fnfx);
+					}
 				}
 			}
 			return channel;
 		}
 
+		/**
+		 * Get the mapped file, growing the mapping if it does not reach the given end.
+		 * <p>
+		 * Synchronized as concurrent readers might try to map it simultaneously.
+		 * 
+		 * @param end
+		 *            end of the region to access
+		 * @return mapped file
+		 */
+		private synchronized MappedByteBuffer getMapped(int end) throws IOException
+		{
+			if (mapped == null || mapped.capacity() < end)
+			{
+				// map the current length, growing the file in chunks only
+				long chunked = ((long)end + MAPPED_CHUNK_SIZE - 1) / MAPPED_CHUNK_SIZE *
+					MAPPED_CHUNK_SIZE;
+				int capacity = (int)Math.min(Integer.MAX_VALUE,
+					Math.max(channel.size(), chunked));
+
+				// note: a previous mapping is released on garbage collection only
+				mapped = channel.map(MapMode.READ_WRITE, 0, capacity);
+			}
+			return mapped;
+		}
+
 		/**
 		 * Loads the specified page data.
 		 * 
 		 * @param id
 		 * @return page data or null if the page is no longer in pagemap file
 		 */
-		public synchronized byte[] loadPage(int id)
+		public byte[] loadPage(int id)
 		{
-			if (sessionIdentifier == null)
+			lock.readLock().lock();
+			try
 			{
-				return null;
-			}
+				if (sessionIdentifier == null)
+				{
+					return null;
+				}
+
+				FileWindow window = getManager().getPageWindow(id);
+				if (window == null)
+				{
+					return null;
+				}
 
-			FileWindow window = getManager().getPageWindow(id);
-			if (window == null)
+				return loadData(window);
+			}
+			finally
 			{
-				return null;
+				lock.readLock().unlock();
 			}
+		}
 
-			return loadData(window);
+		/**
+		 * Closes the file, keeping it on disk.
+		 * <p>
+		 * Waits for running saves and loads to finish.
+		 */
+		public void close()
+		{
+			lock.writeLock().lock();
+			try
+			{
+				synchronized (this)
+				{
+					mapped = null;
+
+					IOUtils.closeQuietly(channel);
+					channel = null;
+				}
+			}
+			finally
+			{
+				lock.writeLock().unlock();
+			}
 		}
 
 		/**
 		 * Deletes all files for this session.
 		 */
-		public synchronized void unbind()
+		public void unbind()
 		{
-			pageStore.folders.remove(sessionIdentifier);
+			lock.writeLock().lock();
+			try
+			{
+				close();
 
-			sessionIdentifier = null;
+				pageStore.folders.remove(sessionIdentifier);
+
+				sessionIdentifier = null;
+			}
+			finally
+			{
+				lock.writeLock().unlock();
+			}
 		}
 	}
 
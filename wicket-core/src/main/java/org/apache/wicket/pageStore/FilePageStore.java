@@ -177,8 +177,33 @@ public class FilePageStore extends AbstractPersistentPageStore implements IPersi
 		{
 			throw new WicketRuntimeException("FilePageStore works with serialized pages only");
 		}
-		SerializedPage serializedPage = (SerializedPage)page;
+		writePage(sessionIdentifier, (SerializedPage)page);
 
+		checkMaxSize(sessionIdentifier);
+	}
+
+	/**
+	 * Writes all pages before checking the maximum size once only.
+	 */
+	@Override
+	public void addPages(IPageContext context, List<IManageablePage> pages)
+	{
+		String sessionIdentifier = getSessionIdentifier(context);
+
+		for (IManageablePage page : pages)
+		{
+			if (page instanceof SerializedPage == false)
+			{
+				throw new WicketRuntimeException("FilePageStore works with serialized pages only");
+			}
+			writePage(sessionIdentifier, (SerializedPage)page);
+		}
+
+		checkMaxSize(sessionIdentifier);
+	}
+
+	private void writePage(String sessionIdentifier, SerializedPage serializedPage)
+	{
 		byte[] data = serializedPage.getData();
 
 		File file = getPageFile(sessionIdentifier, serializedPage.getPageId(), true);
@@ -193,8 +218,6 @@ public class FilePageStore extends AbstractPersistentPageStore implements IPersi
 		}
 
 		setPageType(file, serializedPage.getPageType());
-
-		checkMaxSize(sessionIdentifier);
 	}
 
 	/**
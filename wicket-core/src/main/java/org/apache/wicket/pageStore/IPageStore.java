@@ -16,6 +16,8 @@
  */
 package org.apache.wicket.pageStore;
 
+import java.util.List;
+
 import org.apache.wicket.page.IManageablePage;
 
 /**
@@ -55,6 +57,27 @@ public interface IPageStore
 	 */
 	void addPage(IPageContext context, IManageablePage page);
 
+	/**
+	 * Stores several pages at once.
+	 * <p>
+	 * Default implementation adds each page separately, stores might override this to optimize
+	 * writing of several pages.
+	 * 
+	 * @param context
+	 *            the context of all pages
+	 * @param pages
+	 *            the pages in order of their adding
+	 * 
+	 * @see AsynchronousPageStore
+	 */
+	default void addPages(IPageContext context, List<IManageablePage> pages)
+	{
+		for (IManageablePage page : pages)
+		{
+			addPage(context, page);
+		}
+	}
+
 	/**
 	 * Removes a page from storage.
 	 * 
@@ -35,10 +35,23 @@ public interface IPersistedPage extends Serializable
 	int getPageId();
 
 	/**
-	 * Size of page.
+	 * Physical size of page, i.e. the bytes actually occupied in the store.
 	 */
 	Bytes getPageSize();
 
+	/**
+	 * Logical size of page, i.e. the size of the page's complete serialized state.
+	 * <p>
+	 * Might be larger than the {@link #getPageSize()} if the store keeps pages as deltas, see
+	 * {@link DeltaPageStore}.
+	 * 
+	 * @return logical size, default is the physical size
+	 */
+	default Bytes getLogicalSize()
+	{
+		return getPageSize();
+	}
+
 	/**
 	 * Type of page.
 	 */
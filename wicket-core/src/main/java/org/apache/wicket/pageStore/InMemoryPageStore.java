@@ -158,11 +158,15 @@ public class InMemoryPageStore extends AbstractPersistentPageStore implements IP
 		synchronized (data)
 		{
 			return StreamSupport.stream(data.spliterator(), false).map(page -> {
-				String pageType = page instanceof SerializedPage
-					? ((SerializedPage)page).getPageType()
-					: Classes.name(page.getClass());
+				if (page instanceof SerializedPage)
+				{
+					SerializedPage serializedPage = (SerializedPage)page;
+					return new PersistedPage(page.getPageId(), serializedPage.getPageType(),
+						getSize(page), serializedPage.getLogicalSize());
+				}
 
-				return new PersistedPage(page.getPageId(), pageType, getSize(page));
+				return new PersistedPage(page.getPageId(), Classes.name(page.getClass()),
+					getSize(page));
 			}).collect(Collectors.toList());
 		}
 	}
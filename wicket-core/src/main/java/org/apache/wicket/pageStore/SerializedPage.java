@@ -39,6 +39,8 @@ public final class SerializedPage implements IManageablePage
 
 	private final byte[] data;
 
+	private final int logicalSize;
+
 	/**
 	 * Create a serialized page.
 	 * 
@@ -58,10 +60,26 @@ public final class SerializedPage implements IManageablePage
 	 * @param data
 	 */
 	public SerializedPage(int pageId, String pageType, byte[] data)
+	{
+		this(pageId, pageType, data, -1);
+	}
+
+	/**
+	 * Create a serialized page with data differing from the page's complete serialized state, e.g.
+	 * a delta or encrypted data.
+	 * 
+	 * @param pageId id of page
+	 * @param pageType type of page, might be {@code null}
+	 * @param data
+	 * @param logicalSize size of the page's complete serialized state, {@code -1} if equal to the
+	 *            length of data
+	 */
+	public SerializedPage(int pageId, String pageType, byte[] data, int logicalSize)
 	{
 		this.pageId = pageId;
 		this.pageType = pageType;
 		this.data = Args.notNull(data, "data");
+		this.logicalSize = logicalSize;
 	}
 
 	@Override
@@ -87,6 +105,16 @@ public final class SerializedPage implements IManageablePage
 		return data;
 	}
 
+	/**
+	 * Get the size of the page's complete serialized state.
+	 * 
+	 * @return logical size, might differ from the length of {@link #getData()}
+	 */
+	public int getLogicalSize()
+	{
+		return logicalSize == -1 ? data.length : logicalSize;
+	}
+
 	@Override
 	public void detach() {
 	}
@@ -0,0 +1,618 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.pageStore;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.page.IManageablePage;
+import org.apache.wicket.pageStore.disk.PageWindowManager;
+import org.apache.wicket.pageStore.disk.PageWindowManager.FileWindow;
+import org.apache.wicket.util.file.Files;
+import org.apache.wicket.util.io.IOUtils;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.lang.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A storage of pages on disk, packing the pages of all sessions into a fixed number of shard files.
+ * <p>
+ * All pages passed into this store are restricted to be {@link SerializedPage}s.
+ * <p>
+ * Implementation note: In contrast to {@link DiskPageStore} no file is created per session. Each
+ * session is assigned to a shard by its identifier, each shard is a preallocated file managed by a
+ * {@link PageWindowManager}: New pages are appended, while the oldest pages of <em>any</em> session
+ * on the same shard are overwritten once the shard's share of the total size is reached.<br>
+ * Removing all pages of a session just frees its windows in the shard, no files are deleted.
+ * <p>
+ * The maximum size is split evenly between the shards: The total size of all shards never exceeds
+ * it, but pages are overwritten as soon as their shard's share is reached, even if other shards
+ * still have room. Since offsets in a shard are {@code int}s, each share is limited to 2GB.
+ */
+public class ShardedDiskPageStore extends AbstractPersistentPageStore implements IPersistentPageStore
+{
+	private static final Logger log = LoggerFactory.getLogger(ShardedDiskPageStore.class);
+
+	/**
+	 * Name of the file where the page index is stored.
+	 */
+	private static final String INDEX_FILE_NAME = "ShardedDiskPageStoreIndex";
+
+	/**
+	 * Default count of shards.
+	 */
+	public static final int DEFAULT_SHARD_COUNT = 16;
+
+	private final File folder;
+
+	private final long maxSizePerShard;
+
+	private Shard[] shards;
+
+	/**
+	 * Window ids of all pages, keyed by session identifier and page id.
+	 */
+	private final ConcurrentMap<String, Map<Integer, Integer>> sessions;
+
+	/**
+	 * Create a store that supports {@link SerializedPage}s only.
+	 *
+	 * @param applicationName
+	 *            name of application
+	 * @param fileStoreFolder
+	 *            folder to store to
+	 * @param maxSize
+	 *            maximum size of all sessions, split evenly between the shards
+	 *
+	 * @see SerializingPageStore
+	 */
+	public ShardedDiskPageStore(String applicationName, File fileStoreFolder, Bytes maxSize)
+	{
+		this(applicationName, fileStoreFolder, maxSize, DEFAULT_SHARD_COUNT);
+	}
+
+	/**
+	 * Create a store that supports {@link SerializedPage}s only.
+	 *
+	 * @param applicationName
+	 *            name of application
+	 * @param fileStoreFolder
+	 *            folder to store to
+	 * @param maxSize
+	 *            maximum size of all sessions, split evenly between the shards
+	 * @param shardCount
+	 *            count of shard files
+	 * @throws IllegalArgumentException
+	 *             if a shard's share of the maximum size exceeds 2GB
+	 *
+	 * @see SerializingPageStore
+	 */
+	public ShardedDiskPageStore(String applicationName, File fileStoreFolder, Bytes maxSize,
+		int shardCount)
+	{
+		super(applicationName);
+
+		Args.notNull(maxSize, "maxSize");
+		Args.withinRange(1, 1024, shardCount, "shardCount");
+
+		this.folder = new File(fileStoreFolder, applicationName + "-shardstore");
+		this.maxSizePerShard = maxSize.bytes() / shardCount;
+		Args.isTrue(maxSizePerShard <= Integer.MAX_VALUE,
+			"maxSize per shard must not exceed %d bytes, use more shards", Integer.MAX_VALUE);
+
+		this.sessions = new ConcurrentHashMap<>();
+
+		try
+		{
+			if (folder.exists() || folder.mkdirs())
+			{
+				loadIndex(shardCount);
+			}
+			else
+			{
+				log.warn("Cannot create file store folder for some reason.");
+			}
+		}
+		catch (SecurityException e)
+		{
+			throw new WicketRuntimeException(
+				"SecurityException occurred while creating ShardedDiskPageStore. Consider using a non-disk based IPageStore implementation. "
+					+ "See org.apache.wicket.Application.setPageManagerProvider(IPageManagerProvider)",
+				e);
+		}
+
+		if (shards == null)
+		{
+			shards = new Shard[shardCount];
+			for (int s = 0; s < shardCount; s++)
+			{
+				shards[s] = new Shard(maxSizePerShard);
+			}
+		}
+
+		for (int s = 0; s < shardCount; s++)
+		{
+			shards[s].open(new File(folder, "shard-" + s), maxSizePerShard);
+		}
+	}
+
+	/**
+	 * Pages are already serialized.
+	 */
+	@Override
+	public boolean supportsVersioning()
+	{
+		return true;
+	}
+
+	@Override
+	public void destroy()
+	{
+		log.debug("Destroying...");
+		saveIndex();
+
+		for (Shard shard : shards)
+		{
+			shard.close();
+		}
+
+		super.destroy();
+		log.debug("Destroyed.");
+	}
+
+	/**
+	 * Get the shard for the given session identifier.
+	 *
+	 * @param sessionIdentifier
+	 *            identifier of session
+	 * @return shard
+	 */
+	private Shard getShard(String sessionIdentifier)
+	{
+		return shards[Math.floorMod(sessionIdentifier.hashCode(), shards.length)];
+	}
+
+	@Override
+	protected IManageablePage getPersistedPage(String sessionIdentifier, int id)
+	{
+		Map<Integer, Integer> pages = sessions.get(sessionIdentifier);
+		if (pages == null)
+		{
+			return null;
+		}
+
+		Shard shard = getShard(sessionIdentifier);
+		shard.lock.readLock().lock();
+		try
+		{
+			Integer windowId = pages.get(id);
+			if (windowId != null)
+			{
+				FileWindow window = shard.manager.getPageWindow(windowId);
+				if (window != null)
+				{
+					byte[] data = shard.read(window);
+					if (data != null)
+					{
+						if (log.isDebugEnabled())
+						{
+							log.debug("Returning page with id '{}' in session with id '{}'", id,
+								sessionIdentifier);
+						}
+
+						return new SerializedPage(id, window.getPageType(), data);
+					}
+				}
+			}
+		}
+		finally
+		{
+			shard.lock.readLock().unlock();
+		}
+
+		return null;
+	}
+
+	@Override
+	protected void removePersistedPage(String sessionIdentifier, IManageablePage page)
+	{
+		Map<Integer, Integer> pages = sessions.get(sessionIdentifier);
+		if (pages == null)
+		{
+			return;
+		}
+
+		Shard shard = getShard(sessionIdentifier);
+		shard.lock.writeLock().lock();
+		try
+		{
+			Integer windowId = pages.remove(page.getPageId());
+			if (windowId != null)
+			{
+				if (log.isDebugEnabled())
+				{
+					log.debug("Removing page with id '{}' in session with id '{}'",
+						page.getPageId(), sessionIdentifier);
+				}
+
+				shard.manager.removePage(windowId);
+			}
+		}
+		finally
+		{
+			shard.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	protected void removeAllPersistedPages(String sessionIdentifier)
+	{
+		Shard shard = getShard(sessionIdentifier);
+		shard.lock.writeLock().lock();
+		try
+		{
+			Map<Integer, Integer> pages = sessions.remove(sessionIdentifier);
+			if (pages != null)
+			{
+				for (Integer windowId : pages.values())
+				{
+					shard.manager.removePage(windowId);
+				}
+			}
+		}
+		finally
+		{
+			shard.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	protected void addPersistedPage(String sessionIdentifier, IManageablePage page)
+	{
+		addPersistedPages(sessionIdentifier, Collections.singletonList(page));
+	}
+
+	/**
+	 * Adds all pages while holding the shard's lock once only.
+	 */
+	@Override
+	public void addPages(IPageContext context, List<IManageablePage> pages)
+	{
+		addPersistedPages(getSessionIdentifier(context), pages);
+	}
+
+	private void addPersistedPages(String sessionIdentifier, List<IManageablePage> pages)
+	{
+		Shard shard = getShard(sessionIdentifier);
+		shard.lock.writeLock().lock();
+		try
+		{
+			Map<Integer, Integer> windowIds = sessions.computeIfAbsent(sessionIdentifier,
+				key -> new ConcurrentHashMap<>());
+
+			// drop pages of this session which were overwritten by other pages in the meantime
+			windowIds.values().removeIf(windowId -> shard.manager.getPageWindow(windowId) == null);
+
+			for (IManageablePage page : pages)
+			{
+				if (page instanceof SerializedPage == false)
+				{
+					throw new WicketRuntimeException("ShardedDiskPageStore works with serialized pages only");
+				}
+				SerializedPage serializedPage = (SerializedPage) page;
+
+				log.debug("Storing data for page with id '{}' in session with id '{}'",
+					serializedPage.getPageId(), sessionIdentifier);
+
+				byte[] data = serializedPage.getData();
+
+				// keep the window id, so the manager can reuse the most recent window
+				Integer windowId = windowIds.get(serializedPage.getPageId());
+				if (windowId == null)
+				{
+					windowId = shard.nextWindowId();
+				}
+
+				FileWindow window = shard.manager.createPageWindow(windowId,
+					serializedPage.getPageType(), data.length, serializedPage.getLogicalSize());
+				shard.write(window, data);
+
+				windowIds.put(serializedPage.getPageId(), windowId);
+			}
+		}
+		finally
+		{
+			shard.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public Set<String> getSessionIdentifiers()
+	{
+		return Collections.unmodifiableSet(sessions.keySet());
+	}
+
+	/**
+	 *
+	 * @param sessionIdentifier
+	 *            key
+	 * @return a list of the last N page windows
+	 */
+	@Override
+	public List<IPersistedPage> getPersistedPages(String sessionIdentifier)
+	{
+		List<IPersistedPage> persistedPages = new ArrayList<>();
+
+		Map<Integer, Integer> pages = sessions.get(sessionIdentifier);
+		if (pages != null)
+		{
+			Shard shard = getShard(sessionIdentifier);
+			shard.lock.readLock().lock();
+			try
+			{
+				Map<Integer, Integer> windowIdToPageId = new HashMap<>();
+				for (Map.Entry<Integer, Integer> entry : pages.entrySet())
+				{
+					windowIdToPageId.put(entry.getValue(), entry.getKey());
+				}
+
+				for (FileWindow window : shard.manager.getFileWindows())
+				{
+					Integer pageId = windowIdToPageId.get(window.getPageId());
+					if (pageId != null)
+					{
+						persistedPages.add(new PersistedPage(pageId, window.getPageType(),
+							window.getFilePartSize(), window.getLogicalSize().bytes()));
+					}
+				}
+			}
+			finally
+			{
+				shard.lock.readLock().unlock();
+			}
+		}
+
+		return persistedPages;
+	}
+
+	@Override
+	public Bytes getTotalSize()
+	{
+		long size = 0;
+
+		for (Shard shard : shards)
+		{
+			shard.lock.readLock().lock();
+			try
+			{
+				size = size + shard.manager.getTotalSize();
+			}
+			finally
+			{
+				shard.lock.readLock().unlock();
+			}
+		}
+
+		return Bytes.bytes(size);
+	}
+
+	/**
+	 * Load the index.
+	 *
+	 * @param shardCount
+	 *            count of shards, an index with a different count is discarded
+	 */
+	@SuppressWarnings("unchecked")
+	private void loadIndex(int shardCount)
+	{
+		File index = new File(folder, INDEX_FILE_NAME);
+		if (index.exists() && index.length() > 0)
+		{
+			try (InputStream stream = new FileInputStream(index))
+			{
+				ObjectInputStream ois = new ObjectInputStream(stream);
+
+				Shard[] loadedShards = (Shard[])ois.readObject();
+				Map<String, Map<Integer, Integer>> loadedSessions = (Map<String, Map<Integer, Integer>>)ois.readObject();
+
+				if (loadedShards.length == shardCount)
+				{
+					shards = loadedShards;
+					for (Map.Entry<String, Map<Integer, Integer>> entry : loadedSessions.entrySet())
+					{
+						sessions.put(entry.getKey(), new ConcurrentHashMap<>(entry.getValue()));
+					}
+				}
+			}
+			catch (Exception e)
+			{
+				log.error("Couldn't load ShardedDiskPageStore index from file " + index + ".", e);
+			}
+		}
+		Files.remove(index);
+	}
+
+	private void saveIndex()
+	{
+		if (folder.exists())
+		{
+			File index = new File(folder, INDEX_FILE_NAME);
+			Files.remove(index);
+			try (OutputStream stream = new FileOutputStream(index))
+			{
+				ObjectOutputStream oos = new ObjectOutputStream(stream);
+
+				HashMap<String, HashMap<Integer, Integer>> map = new HashMap<>();
+				for (Map.Entry<String, Map<Integer, Integer>> entry : sessions.entrySet())
+				{
+					map.put(entry.getKey(), new HashMap<>(entry.getValue()));
+				}
+
+				oos.writeObject(shards);
+				oos.writeObject(map);
+			}
+			catch (Exception e)
+			{
+				log.error("Couldn't write ShardedDiskPageStore index to file " + index + ".", e);
+			}
+		}
+	}
+
+	/**
+	 * A single file holding pages of several sessions.
+	 */
+	private static class Shard implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final PageWindowManager manager;
+
+		/**
+		 * Window ids are never reused for different pages.
+		 */
+		private int windowId;
+
+		/**
+		 * Reads can be performed concurrently, writes are exclusive.
+		 */
+		private transient ReadWriteLock lock;
+
+		private transient FileChannel channel;
+
+		private Shard(long maxSize)
+		{
+			manager = new PageWindowManager(maxSize);
+		}
+
+		private int nextWindowId()
+		{
+			if (windowId == Integer.MAX_VALUE)
+			{
+				windowId = 0;
+			}
+			return windowId++;
+		}
+
+		/**
+		 * Open the file, preallocating it to the given size.
+		 *
+		 * @param file
+		 *            file of this shard
+		 * @param size
+		 *            size to preallocate
+		 */
+		private void open(File file, long size)
+		{
+			lock = new ReentrantReadWriteLock();
+
+			try
+			{
+				RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+				if (randomAccessFile.length() < size)
+				{
+					randomAccessFile.setLength(size);
+				}
+				channel = randomAccessFile.getChannel();
+			}
+			catch (IOException e)
+			{
+				log.error("Cannot open shard file " + file, e);
+			}
+		}
+
+		private void write(FileWindow window, byte[] data)
+		{
+			if (channel == null)
+			{
+				log.warn("Cannot save page because the shard file cannot be opened.");
+				return;
+			}
+
+			try
+			{
+				ByteBuffer buffer = ByteBuffer.wrap(data);
+				long position = window.getFilePartOffset();
+				while (buffer.hasRemaining())
+				{
+					position += channel.write(buffer, position);
+				}
+			}
+			catch (IOException e)
+			{
+				log.error("Error writing to a channel " + channel, e);
+			}
+		}
+
+		private byte[] read(FileWindow window)
+		{
+			if (channel == null)
+			{
+				return null;
+			}
+
+			byte[] data = new byte[window.getFilePartSize()];
+			try
+			{
+				ByteBuffer buffer = ByteBuffer.wrap(data);
+				long position = window.getFilePartOffset();
+				while (buffer.hasRemaining())
+				{
+					int read = channel.read(buffer, position);
+					if (read == -1)
+					{
+						return null;
+					}
+					position += read;
+				}
+			}
+			catch (IOException e)
+			{
+				log.error("Error reading from file channel " + channel, e);
+				return null;
+			}
+			return data;
+		}
+
+		private void close()
+		{
+			IOUtils.closeQuietly(channel);
+			channel = null;
+		}
+	}
+}
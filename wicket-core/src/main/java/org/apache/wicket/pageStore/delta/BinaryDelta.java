@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.pageStore.delta;
+
+import java.io.ByteArrayOutputStream;
+
+import org.apache.wicket.WicketRuntimeException;
+
+/**
+ * Computes and applies binary deltas between two byte arrays.
+ * <p>
+ * The base is indexed in blocks of {@value #BLOCK_SIZE} bytes, the target is then scanned for
+ * matching blocks which are extended in both directions as far as possible. A delta consists of
+ * the target length, followed by a sequence of <em>copy</em> (offset and length in the base) and
+ * <em>insert</em> (literal bytes) instructions.
+ */
+public final class BinaryDelta
+{
+	private static final int BLOCK_SIZE = 16;
+
+	private static final int COPY = 0;
+
+	private static final int INSERT = 1;
+
+	private BinaryDelta()
+	{
+	}
+
+	/**
+	 * Create a delta from base to target.
+	 *
+	 * @param base
+	 *            the base
+	 * @param target
+	 *            the target
+	 * @return delta
+	 */
+	public static byte[] create(byte[] base, byte[] target)
+	{
+		int[] index = index(base);
+		int mask = index.length - 1;
+
+		ByteArrayOutputStream delta = new ByteArrayOutputStream(target.length / 8 + 16);
+		writeInt(delta, target.length);
+
+		int literal = 0;
+		int t = 0;
+		while (t + BLOCK_SIZE <= target.length)
+		{
+			int candidate = index[hash(target, t) & mask] - 1;
+			if (candidate >= 0 && matches(base, candidate, target, t))
+			{
+				int start = t;
+				int baseStart = candidate;
+				while (start > literal && baseStart > 0 && base[baseStart - 1] == target[start - 1])
+				{
+					start--;
+					baseStart--;
+				}
+
+				int end = t + BLOCK_SIZE;
+				int baseEnd = candidate + BLOCK_SIZE;
+				while (end < target.length && baseEnd < base.length && base[baseEnd] == target[end])
+				{
+					end++;
+					baseEnd++;
+				}
+
+				insert(delta, target, literal, start);
+				delta.write(COPY);
+				writeInt(delta, baseStart);
+				writeInt(delta, end - start);
+
+				literal = end;
+				t = end;
+			}
+			else
+			{
+				t++;
+			}
+		}
+		insert(delta, target, literal, target.length);
+
+		return delta.toByteArray();
+	}
+
+	/**
+	 * Apply a delta to a base.
+	 *
+	 * @param base
+	 *            the base
+	 * @param delta
+	 *            the delta created with {@link #create(byte[], byte[])}
+	 * @return target
+	 */
+	public static byte[] apply(byte[] base, byte[] delta)
+	{
+		int[] position = { 0 };
+
+		byte[] target = new byte[readInt(delta, position)];
+		int t = 0;
+		while (position[0] < delta.length)
+		{
+			int instruction = delta[position[0]++];
+			if (instruction == COPY)
+			{
+				int offset = readInt(delta, position);
+				int length = readInt(delta, position);
+				System.arraycopy(base, offset, target, t, length);
+				t += length;
+			}
+			else if (instruction == INSERT)
+			{
+				int length = readInt(delta, position);
+				System.arraycopy(delta, position[0], target, t, length);
+				position[0] += length;
+				t += length;
+			}
+			else
+			{
+				throw new WicketRuntimeException("Corrupt delta, unknown instruction " + instruction);
+			}
+		}
+
+		if (t != target.length)
+		{
+			throw new WicketRuntimeException("Corrupt delta, expected " + target.length + " bytes but got " + t);
+		}
+
+		return target;
+	}
+
+	/**
+	 * Index each block of the base by its hash, the table holds offset + 1 of the first block with
+	 * a hash.
+	 */
+	private static int[] index(byte[] base)
+	{
+		int blocks = base.length / BLOCK_SIZE;
+
+		int size = 16;
+		while (size < blocks * 2)
+		{
+			size <<= 1;
+		}
+
+		int[] index = new int[size];
+		int mask = size - 1;
+		for (int offset = 0; offset + BLOCK_SIZE <= base.length; offset += BLOCK_SIZE)
+		{
+			int slot = hash(base, offset) & mask;
+			if (index[slot] == 0)
+			{
+				index[slot] = offset + 1;
+			}
+		}
+		return index;
+	}
+
+	private static int hash(byte[] bytes, int offset)
+	{
+		int hash = 0;
+		for (int i = offset; i < offset + BLOCK_SIZE; i++)
+		{
+			hash = 31 * hash + bytes[i];
+		}
+		return hash ^ (hash >>> 16);
+	}
+
+	private static boolean matches(byte[] base, int baseOffset, byte[] target, int offset)
+	{
+		for (int i = 0; i < BLOCK_SIZE; i++)
+		{
+			if (base[baseOffset + i] != target[offset + i])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void insert(ByteArrayOutputStream delta, byte[] target, int from, int to)
+	{
+		if (to > from)
+		{
+			delta.write(INSERT);
+			writeInt(delta, to - from);
+			delta.write(target, from, to - from);
+		}
+	}
+
+	/**
+	 * Write an unsigned variable-length int.
+	 */
+	private static void writeInt(ByteArrayOutputStream out, int value)
+	{
+		while ((value & ~0x7F) != 0)
+		{
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static int readInt(byte[] bytes, int[] position)
+	{
+		int value = 0;
+		int shift = 0;
+		int b;
+		do
+		{
+			b = bytes[position[0]++];
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		}
+		while ((b & 0x80) != 0);
+		return value;
+	}
+}
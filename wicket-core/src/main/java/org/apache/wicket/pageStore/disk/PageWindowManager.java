@@ -57,6 +57,9 @@ public class PageWindowManager implements Serializable
 		/** size of serialized page data */
 		private int filePartSize;
 
+		/** size of the page's complete serialized state */
+		private int logicalSize;
+
 		@Override
 		public int getPageId()
 		{
@@ -75,6 +78,12 @@ public class PageWindowManager implements Serializable
 			return Bytes.bytes(filePartSize);
 		}
 
+		@Override
+		public Bytes getLogicalSize()
+		{
+			return Bytes.bytes(logicalSize);
+		}
+
 		public int getFilePartOffset()
 		{
 			return filePartOffset;
@@ -359,7 +368,23 @@ public class PageWindowManager implements Serializable
 	 * @param size
 	 * @return page window
 	 */
-	public synchronized FileWindow createPageWindow(int pageId, String pageType, int size)
+	public FileWindow createPageWindow(int pageId, String pageType, int size)
+	{
+		return createPageWindow(pageId, pageType, size, size);
+	}
+
+	/**
+	 * Creates and returns a new page window for given page.
+	 * 
+	 * @param pageId
+	 * @param pageType
+	 * @param size
+	 * @param logicalSize
+	 *            size of the page's complete serialized state
+	 * @return page window
+	 */
+	public synchronized FileWindow createPageWindow(int pageId, String pageType, int size,
+		int logicalSize)
 	{
 		int index = getWindowIndex(pageId);
 
@@ -381,6 +406,7 @@ public class PageWindowManager implements Serializable
 		FileWindow window = allocatePageWindow(index, size);
 		window.id = pageId;
 		window.type = pageType;
+		window.logicalSize = logicalSize;
 
 		putWindowIndex(pageId, index);
 		return window;
@@ -44,6 +44,9 @@ public class BufferedWebResponse extends WebResponse implements IMetaDataBufferi
 {
 	private final WebResponse originalResponse;
 
+	/** initial capacity of buffers, non-positive for defaults */
+	private final int initialCapacity;
+
 	/**
 	 * Construct.
 	 * 
@@ -51,6 +54,22 @@ public class BufferedWebResponse extends WebResponse implements IMetaDataBufferi
 	 */
 	public BufferedWebResponse(WebResponse originalResponse)
 	{
+		this(originalResponse, 0);
+	}
+
+	/**
+	 * Construct with an initial capacity for the buffered output, e.g. estimated from previous
+	 * renderings.
+	 * 
+	 * @param originalResponse
+	 * @param initialCapacity
+	 *            initial capacity of characters or bytes to buffer
+	 * @see ResponseBufferSizeEstimator
+	 */
+	public BufferedWebResponse(WebResponse originalResponse, int initialCapacity)
+	{
+		this.initialCapacity = initialCapacity;
+
 		// if original response had some metadata set
 		// we should transfer it to the current response
 		if (originalResponse instanceof IMetaDataBufferingWebResponse)
@@ -227,22 +246,26 @@ public class BufferedWebResponse extends WebResponse implements IMetaDataBufferi
 
 		if (charSequenceBuilder == null)
 		{
-			StringBuilder builder = new StringBuilder(4096);
+			StringBuilder builder = new StringBuilder(
+				initialCapacity > 0 ? initialCapacity : ResponseBufferSizeEstimator.DEFAULT_CAPACITY);
 			charSequenceBuilder = builder;
 			actions.add(ActionType.DATA.action(res ->
 			{
-				AppendingStringBuffer responseBuffer = new AppendingStringBuffer(builder);
-
 				List<IResponseFilter> responseFilters = Application.get()
 						.getRequestCycleSettings()
 						.getResponseFilters();
 
-				if (responseFilters != null)
+				if (responseFilters == null || responseFilters.isEmpty())
 				{
-					for (IResponseFilter filter : responseFilters)
-					{
-						responseBuffer = filter.filter(responseBuffer);
-					}
+					// no filters, write without copying
+					res.write(builder);
+					return;
+				}
+
+				AppendingStringBuffer responseBuffer = new AppendingStringBuffer(builder);
+				for (IResponseFilter filter : responseFilters)
+				{
+					responseBuffer = filter.filter(responseBuffer);
 				}
 				res.write(responseBuffer);
 			}));
@@ -271,6 +294,27 @@ public class BufferedWebResponse extends WebResponse implements IMetaDataBufferi
 		}
 	}
 
+	/**
+	 * Returns the length of the output already written to this response.
+	 * 
+	 * @return count of characters or bytes
+	 */
+	public int getLength()
+	{
+		if (dataStream != null)
+		{
+			return dataStream.size();
+		}
+		else if (charSequenceBuilder != null)
+		{
+			return charSequenceBuilder.length();
+		}
+		else
+		{
+			return 0;
+		}
+	}
+
 	/**
 	 * Replaces the text in this response
 	 * 
@@ -305,7 +349,8 @@ public class BufferedWebResponse extends WebResponse implements IMetaDataBufferi
 		}
 		if (dataStream == null)
 		{
-			ByteArrayOutputStream stream = new ByteArrayOutputStream();
+			ByteArrayOutputStream stream = initialCapacity > 0
+				? new ByteArrayOutputStream(initialCapacity) : new ByteArrayOutputStream();
 			dataStream = stream;
 			actions.add(ActionType.DATA.action(res -> writeStream(res, stream)));
 		}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.protocol.http;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.wicket.util.lang.Args;
+
+/**
+ * An application scoped estimator for the initial capacity of {@link BufferedWebResponse}s.
+ * <p>
+ * For each page class a running average of the rendered output length is kept, so the buffer of
+ * the next rendering of that page can be allocated large enough upfront instead of growing
+ * repeatedly.
+ *
+ * @see org.apache.wicket.settings.RequestCycleSettings#setResponseBufferSizeEstimator(ResponseBufferSizeEstimator)
+ */
+public class ResponseBufferSizeEstimator
+{
+	/**
+	 * Default initial capacity for page classes without estimate.
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	private final int maxCapacity;
+
+	private final ConcurrentMap<String, Integer> averages = new ConcurrentHashMap<>();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxCapacity
+	 *            maximum initial capacity to estimate
+	 */
+	public ResponseBufferSizeEstimator(int maxCapacity)
+	{
+		this.maxCapacity = Args.withinRange(DEFAULT_CAPACITY, Integer.MAX_VALUE, maxCapacity,
+			"maxCapacity");
+	}
+
+	/**
+	 * Get the initial capacity for the output of the given page class.
+	 *
+	 * @param pageClass
+	 *            class of the rendered page
+	 * @return capacity
+	 */
+	public int getInitialCapacity(Class<?> pageClass)
+	{
+		Integer average = averages.get(pageClass.getName());
+		if (average == null)
+		{
+			return DEFAULT_CAPACITY;
+		}
+
+		// leave some headroom for variations
+		long capacity = average + average / 8L;
+		return (int)Math.max(DEFAULT_CAPACITY, Math.min(maxCapacity, capacity));
+	}
+
+	/**
+	 * Record the actual output length of a page class.
+	 *
+	 * @param pageClass
+	 *            class of the rendered page
+	 * @param capacity
+	 *            the initial capacity that was used
+	 * @param length
+	 *            the actual length of the output
+	 */
+	public void record(Class<?> pageClass, int capacity, int length)
+	{
+		if (length <= capacity)
+		{
+			hits.incrementAndGet();
+		}
+		else
+		{
+			misses.incrementAndGet();
+		}
+
+		averages.merge(pageClass.getName(), length,
+			(previous, current) -> (int)((previous * 3L + current) / 4));
+	}
+
+	/**
+	 * Remove all estimates.
+	 */
+	public void clear()
+	{
+		averages.clear();
+	}
+
+	/**
+	 * @return count of outputs fitting into their initial capacity
+	 */
+	public long getHitCount()
+	{
+		return hits.get();
+	}
+
+	/**
+	 * @return count of outputs exceeding their initial capacity
+	 */
+	public long getMissCount()
+	{
+		return misses.get();
+	}
+}
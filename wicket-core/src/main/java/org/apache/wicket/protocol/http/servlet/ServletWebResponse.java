@@ -17,16 +17,19 @@
 package org.apache.wicket.protocol.http.servlet;
 
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.time.Instant;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.page.JsonPartialPageUpdate;
 import org.apache.wicket.request.Url;
 import org.apache.wicket.request.UrlRenderer;
 import org.apache.wicket.request.cycle.RequestCycle;
 import org.apache.wicket.request.http.WebResponse;
 import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.string.AppendingStringBuffer;
 
 /**
  * WebResponse that wraps a {@link ServletWebResponse}.
@@ -35,6 +38,9 @@ import org.apache.wicket.util.lang.Args;
  */
 public class ServletWebResponse extends WebResponse
 {
+	/** size of chunks written from mutable character sequences */
+	private static final int CHUNK_SIZE = 8192;
+
 	private final HttpServletResponse httpServletResponse;
 	private final ServletWebRequest webRequest;
 
@@ -111,7 +117,33 @@ public class ServletWebResponse extends WebResponse
 	{
 		try
 		{
-			httpServletResponse.getWriter().append(sequence);
+			PrintWriter writer = httpServletResponse.getWriter();
+
+			// avoid copying large sequences into a string first
+			if (sequence instanceof String)
+			{
+				writer.write((String)sequence);
+			}
+			else if (sequence instanceof AppendingStringBuffer)
+			{
+				AppendingStringBuffer buffer = (AppendingStringBuffer)sequence;
+				writer.write(buffer.getValue(), 0, buffer.length());
+			}
+			else if (sequence instanceof StringBuilder && sequence.length() > CHUNK_SIZE)
+			{
+				StringBuilder builder = (StringBuilder)sequence;
+				char[] chunk = new char[CHUNK_SIZE];
+				for (int start = 0; start < builder.length(); start += CHUNK_SIZE)
+				{
+					int end = Math.min(start + CHUNK_SIZE, builder.length());
+					builder.getChars(start, end, chunk, 0);
+					writer.write(chunk, 0, end - start);
+				}
+			}
+			else
+			{
+				writer.append(sequence);
+			}
 		}
 		catch (IOException e)
 		{
@@ -274,8 +306,10 @@ public class ServletWebResponse extends WebResponse
 
 			if (webRequest.isAjax())
 			{
+				final boolean json = JsonPartialPageUpdate.isAccepted(webRequest);
+
 				setHeader("Ajax-Location", url);
-				setContentType("text/xml;charset=" +
+				setContentType((json ? "application/json" : "text/xml") + ";charset=" +
 					webRequest.getContainerRequest().getCharacterEncoding());
 
 				/*
@@ -284,8 +318,15 @@ public class ServletWebResponse extends WebResponse
 				 * using multipart ajax handling) and the headers are not available because XHR is
 				 * not used and that is the only way javascript has access to response headers.
 				 */
-				httpServletResponse.getWriter().write(
-					"<ajax-response><redirect><![CDATA[" + url + "]]></redirect></ajax-response>");
+				if (json)
+				{
+					JsonPartialPageUpdate.writeRedirect(this, url);
+				}
+				else
+				{
+					httpServletResponse.getWriter().write(
+						"<ajax-response><redirect><![CDATA[" + url + "]]></redirect></ajax-response>");
+				}
 			}
 			else
 			{
@@ -25,6 +25,7 @@ import org.apache.wicket.core.request.handler.RenderPageRequestHandler.RedirectP
 import org.apache.wicket.feedback.FeedbackCollector;
 import org.apache.wicket.feedback.FeedbackMessage;
 import org.apache.wicket.protocol.http.BufferedWebResponse;
+import org.apache.wicket.protocol.http.ResponseBufferSizeEstimator;
 import org.apache.wicket.protocol.http.WebApplication;
 import org.apache.wicket.request.IRequestHandler;
 import org.apache.wicket.request.Request;
@@ -112,8 +113,11 @@ public class WebPageRenderer extends PageRenderer
 		// keep the original response
 		final WebResponse originalResponse = (WebResponse)requestCycle.getResponse();
 
-		// buffered web response for page
-		BufferedWebResponse response = new BufferedWebResponse(originalResponse);
+		// buffered web response for page, sized from previous renderings
+		ResponseBufferSizeEstimator estimator = getResponseBufferSizeEstimator();
+		int initialCapacity = estimator != null
+			? estimator.getInitialCapacity(requestablePage.getClass()) : 0;
+		BufferedWebResponse response = new BufferedWebResponse(originalResponse, initialCapacity);
 
 		// keep the original base URL
 		Url originalBaseUrl = requestCycle.getUrlRenderer().setBaseUrl(targetUrl);
@@ -136,6 +140,11 @@ public class WebPageRenderer extends PageRenderer
 			}
 			else
 			{
+				if (estimator != null)
+				{
+					estimator.record(requestablePage.getClass(), initialCapacity,
+						response.getLength());
+				}
 				return response;
 			}
 		}
@@ -147,6 +156,20 @@ public class WebPageRenderer extends PageRenderer
 		}
 	}
 
+	/**
+	 * Get the estimator for the size of the rendered page.
+	 * 
+	 * @return estimator or {@code null} if none is configured
+	 */
+	protected ResponseBufferSizeEstimator getResponseBufferSizeEstimator()
+	{
+		if (Application.exists() == false)
+		{
+			return null;
+		}
+		return Application.get().getRequestCycleSettings().getResponseBufferSizeEstimator();
+	}
+
 	/**
 	 * 
 	 * @param url
@@ -16,6 +16,7 @@
  */
 package org.apache.wicket.request.resource;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
@@ -666,6 +667,142 @@ public abstract class AbstractResource implements IResource
 		}
 	}
 
+	/**
+	 * Sets the given processed contents to be written for a static resource.
+	 * <p>
+	 * If enabled in {@link org.apache.wicket.settings.ResourceSettings#getUseGzipEncoding()}, text
+	 * contents are written in gzip content encoding to clients accepting it, unless a range is
+	 * requested. A matching <em>If-None-Match</em> header results in
+	 * {@link HttpServletResponse#SC_NOT_MODIFIED}.
+	 * 
+	 * @param resourceResponse
+	 *            the response, its content type has to be set already
+	 * @param attributes
+	 *            request attributes
+	 * @param entry
+	 *            processed contents
+	 */
+	protected void setProcessedContents(ResourceResponse resourceResponse, Attributes attributes,
+		ProcessedResourceCache.Entry entry)
+	{
+		boolean gzip = false;
+		if (isGzipEncodable(resourceResponse.getContentType()))
+		{
+			resourceResponse.getHeaders().addHeader("Vary", "Accept-Encoding");
+
+			gzip = acceptsGzipEncoding(attributes);
+		}
+
+		String etag = gzip ? entry.getGzipETag() : entry.getETag();
+		resourceResponse.getHeaders().setHeader("ETag", etag);
+
+		Request request = attributes.getRequest();
+		if (request instanceof WebRequest &&
+			etag.equals(((WebRequest)request).getHeader("If-None-Match")))
+		{
+			resourceResponse.setStatusCode(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		if (gzip)
+		{
+			final byte[] data = entry.getGzipData();
+
+			resourceResponse.getHeaders().setHeader("Content-Encoding", "gzip");
+			resourceResponse.setContentLength(data.length);
+			resourceResponse.setWriteCallback(new WriteCallback()
+			{
+				@Override
+				public void writeData(Attributes attributes)
+				{
+					attributes.getResponse().write(data);
+				}
+			});
+		}
+		else
+		{
+			final byte[] data = entry.getData();
+
+			RequestCycle cycle = RequestCycle.get();
+			Long startbyte = cycle.getMetaData(CONTENT_RANGE_STARTBYTE);
+			Long endbyte = cycle.getMetaData(CONTENT_RANGE_ENDBYTE);
+
+			resourceResponse.setContentLength(data.length);
+			resourceResponse.setWriteCallback(new PartWriterCallback(
+				new ByteArrayInputStream(data), (long)data.length, startbyte, endbyte));
+		}
+	}
+
+	/**
+	 * Can contents of the given type be written in gzip content encoding.
+	 * 
+	 * @param contentType
+	 *            type of contents, may be {@code null}
+	 * @return {@code true} for textual contents if enabled in the application's settings
+	 */
+	protected boolean isGzipEncodable(String contentType)
+	{
+		if (contentType == null || Application.exists() == false ||
+			Application.get().getResourceSettings().getUseGzipEncoding() == false)
+		{
+			return false;
+		}
+
+		return contentType.startsWith("text/") || contentType.contains("javascript") ||
+			contentType.contains("json") || contentType.contains("xml");
+	}
+
+	/**
+	 * Does the client accept gzip content encoding for the current request.
+	 */
+	private boolean acceptsGzipEncoding(Attributes attributes)
+	{
+		if (attributes.getRequest() instanceof WebRequest)
+		{
+			WebRequest request = (WebRequest)attributes.getRequest();
+
+			// ranges are applied to the identity encoding only
+			if (request.getHeader("Range") != null)
+			{
+				return false;
+			}
+
+			String acceptEncoding = request.getHeader("Accept-Encoding");
+			if (acceptEncoding != null)
+			{
+				for (String coding : Strings.split(acceptEncoding, ','))
+				{
+					String[] parts = Strings.split(coding, ';');
+					if ("gzip".equalsIgnoreCase(parts[0].trim()))
+					{
+						return parts.length == 1 || isAcceptable(parts[1]);
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Is the given quality parameter of an accepted coding greater than zero.
+	 */
+	private boolean isAcceptable(String parameter)
+	{
+		parameter = parameter.trim();
+		if (parameter.startsWith("q="))
+		{
+			try
+			{
+				return Double.parseDouble(parameter.substring(2).trim()) > 0;
+			}
+			catch (NumberFormatException ex)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Decides whether a response body should be written back to the client depending on the set
 	 * status code
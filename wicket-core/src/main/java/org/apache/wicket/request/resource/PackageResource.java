@@ -23,6 +23,7 @@ import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.Locale;
 import java.util.Objects;
 import jakarta.servlet.http.HttpServletResponse;
@@ -42,6 +43,7 @@ import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
 import org.apache.wicket.resource.IScopeAwareTextResourceProcessor;
 import org.apache.wicket.resource.ITextResourceCompressor;
 import org.apache.wicket.response.StringResponse;
+import org.apache.wicket.settings.ResourceSettings;
 import org.apache.wicket.util.io.IOUtils;
 import org.apache.wicket.util.lang.Classes;
 import org.apache.wicket.util.lang.Packages;
@@ -50,6 +52,7 @@ import org.apache.wicket.util.resource.IResourceStream;
 import org.apache.wicket.util.resource.ResourceStreamNotFoundException;
 import org.apache.wicket.util.resource.ResourceStreamWrapper;
 import org.apache.wicket.util.string.Strings;
+import org.apache.wicket.util.watch.IModificationWatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -354,18 +357,26 @@ public class PackageResource extends AbstractResource implements IStaticCacheabl
 
 			try
 			{
-				// read resource data to get the content length
-				InputStream inputStream = resourceStream.getInputStream();
-
+				InputStream inputStream = null;
 				byte[] bytes = null;
 				// send Content-Length header
 				if (readBuffered)
 				{
-					bytes = IOUtils.toByteArray(inputStream);
+					ProcessedResourceCache.Entry entry = getProcessedEntry(resourceStream,
+						lastModified);
+					if (entry != null)
+					{
+						setProcessedContents(resourceResponse, attributes, entry);
+						return resourceResponse;
+					}
+
+					// read resource data to get the content length
+					bytes = IOUtils.toByteArray(resourceStream.getInputStream());
 					resourceResponse.setContentLength(bytes.length);
 				}
 				else
 				{
+					inputStream = resourceStream.getInputStream();
 					resourceResponse.setContentLength(resourceStream.length().bytes());
 				}
 
@@ -413,7 +424,50 @@ public class PackageResource extends AbstractResource implements IStaticCacheabl
 	}
 
 	/**
-	 * Gives a chance to modify the resource going to be written in the response
+	 * Get the processed contents of the given resource stream from the application's
+	 * {@link ProcessedResourceCache}, processing and caching them if not cached already.
+	 * 
+	 * @return cached entry or {@code null} if no cache is configured
+	 */
+	private ProcessedResourceCache.Entry getProcessedEntry(final IResourceStream resourceStream,
+		final Instant lastModified) throws IOException, ResourceStreamNotFoundException
+	{
+		if (Application.exists() == false)
+		{
+			return null;
+		}
+
+		final ResourceSettings resourceSettings = Application.get().getResourceSettings();
+		final ProcessedResourceCache cache = resourceSettings.getProcessedResourceCache();
+		if (cache == null)
+		{
+			return null;
+		}
+
+		final CacheKey key = new CacheKey(scopeName, absolutePath, getCurrentLocale(),
+			getCurrentStyle(), variation);
+
+		ProcessedResourceCache.Entry entry = cache.get(key, lastModified);
+		if (entry == null)
+		{
+			entry = cache.put(key, lastModified,
+				IOUtils.toByteArray(resourceStream.getInputStream()));
+
+			// remove from cache on modification
+			final IModificationWatcher watcher = resourceSettings.getResourceWatcher(true);
+			if (watcher != null)
+			{
+				cache.watch(key, Collections.singletonList(resourceStream), watcher);
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Gives a chance to modify the resource going to be written in the response.
+	 * <p>
+	 * Note: The processed contents are cached in the application's {@link ProcessedResourceCache}
+	 * if configured, thus processing must not depend on the current request.
 	 * 
 	 * @param attributes
 	 *            current request attributes from client
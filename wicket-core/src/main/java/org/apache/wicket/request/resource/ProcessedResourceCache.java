@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.request.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.lang.Bytes;
+import org.apache.wicket.util.watch.IModifiable;
+import org.apache.wicket.util.watch.IModificationWatcher;
+
+/**
+ * An application scoped cache of processed (e.g. compressed) resource contents.
+ * <p>
+ * Each entry is stored with a version, a lookup with a different version is a miss. The total
+ * size of all entries is limited, the least recently used entries are evicted first.
+ * <p>
+ * Entries are shared by all requests, so this cache is safe for contents only which do not depend
+ * on the current request or session, e.g. not for CSS with URLs encrypted per session.
+ *
+ * @see PackageResource
+ * @see org.apache.wicket.settings.ResourceSettings#setProcessedResourceCache(ProcessedResourceCache)
+ */
+public class ProcessedResourceCache
+{
+	private final long maxSize;
+
+	private final Map<Serializable, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long size;
+
+	private long hits;
+
+	private long misses;
+
+	/**
+	 * Keys already watched for modifications.
+	 */
+	private final Set<Serializable> watchedKeys = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxSize
+	 *            maximum size of all cached contents
+	 */
+	public ProcessedResourceCache(Bytes maxSize)
+	{
+		this.maxSize = Args.notNull(maxSize, "maxSize").bytes();
+	}
+
+	/**
+	 * Get the cached entry for the given key and version.
+	 *
+	 * @param key
+	 *            key of the resource
+	 * @param version
+	 *            version of the resource, may be {@code null}
+	 * @return entry or {@code null} if not cached
+	 */
+	public synchronized Entry get(Serializable key, Instant version)
+	{
+		Entry entry = entries.get(key);
+		if (entry != null && Objects.equals(entry.version, version))
+		{
+			hits++;
+			return entry;
+		}
+
+		misses++;
+		return null;
+	}
+
+	/**
+	 * Cache the given processed contents.
+	 *
+	 * @param key
+	 *            key of the resource
+	 * @param version
+	 *            version of the resource, may be {@code null}
+	 * @param data
+	 *            processed contents
+	 * @return the new entry
+	 */
+	public synchronized Entry put(Serializable key, Instant version, byte[] data)
+	{
+		Entry entry = new Entry(this, key, version, data);
+
+		Entry previous = entries.remove(key);
+		if (previous != null)
+		{
+			size -= previous.accountedSize;
+		}
+
+		if (data.length <= maxSize)
+		{
+			entries.put(key, entry);
+			entry.accountedSize = data.length;
+			evict(data.length);
+		}
+
+		return entry;
+	}
+
+	/**
+	 * An entry has grown, evict entries if necessary.
+	 */
+	private synchronized void grown(Entry entry, long delta)
+	{
+		// entry might have been removed already
+		if (entries.get(entry.key) == entry)
+		{
+			entry.accountedSize += delta;
+			evict(delta);
+		}
+	}
+
+	private void evict(long delta)
+	{
+		size += delta;
+
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (size > maxSize && iterator.hasNext())
+		{
+			size -= iterator.next().accountedSize;
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Remove the entry for the given key.
+	 *
+	 * @param key
+	 *            key of the resource
+	 */
+	public synchronized void remove(Serializable key)
+	{
+		Entry entry = entries.remove(key);
+		if (entry != null)
+		{
+			size -= entry.accountedSize;
+		}
+	}
+
+	/**
+	 * Remove the entry for the given key whenever any of the given resources is modified. The
+	 * resources are registered with the watcher once per key only, later calls are ignored.
+	 *
+	 * @param key
+	 *            key of the resource
+	 * @param resources
+	 *            resources the cached contents were processed from
+	 * @param watcher
+	 *            watcher for modifications
+	 */
+	public void watch(Serializable key, List<? extends IModifiable> resources,
+		IModificationWatcher watcher)
+	{
+		if (watchedKeys.add(key))
+		{
+			for (IModifiable resource : resources)
+			{
+				watcher.add(resource, modifiable -> remove(key));
+			}
+		}
+	}
+
+	/**
+	 * Remove all entries.
+	 */
+	public synchronized void clear()
+	{
+		entries.clear();
+		size = 0;
+	}
+
+	/**
+	 * @return total size of all cached contents
+	 */
+	public synchronized Bytes getSize()
+	{
+		return Bytes.bytes(size);
+	}
+
+	/**
+	 * @return count of lookups finding an entry
+	 */
+	public synchronized long getHitCount()
+	{
+		return hits;
+	}
+
+	/**
+	 * @return count of lookups not finding an entry
+	 */
+	public synchronized long getMissCount()
+	{
+		return misses;
+	}
+
+	/**
+	 * Processed contents of a resource.
+	 */
+	public static final class Entry
+	{
+		private final ProcessedResourceCache cache;
+
+		private final Serializable key;
+
+		private final Instant version;
+
+		private final byte[] data;
+
+		private final String tag;
+
+		private volatile byte[] gzipData;
+
+		/**
+		 * Size added to the total size of the cache, guarded by the cache.
+		 */
+		private long accountedSize;
+
+		private Entry(ProcessedResourceCache cache, Serializable key, Instant version, byte[] data)
+		{
+			this.cache = cache;
+			this.key = key;
+			this.version = version;
+			this.data = data;
+
+			CRC32 crc = new CRC32();
+			crc.update(data);
+			this.tag = Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(data.length);
+		}
+
+		/**
+		 * @return the processed contents, must not be modified
+		 */
+		public byte[] getData()
+		{
+			return data;
+		}
+
+		/**
+		 * @return length of contents
+		 */
+		public long getLength()
+		{
+			return data.length;
+		}
+
+		/**
+		 * @return entity tag of contents
+		 */
+		public String getETag()
+		{
+			return "\"" + tag + "\"";
+		}
+
+		/**
+		 * Get the contents in gzip content encoding, compressed on first access only.
+		 *
+		 * @return the compressed contents, must not be modified
+		 */
+		public byte[] getGzipData()
+		{
+			byte[] gzip = gzipData;
+			if (gzip == null)
+			{
+				synchronized (this)
+				{
+					gzip = gzipData;
+					if (gzip == null)
+					{
+						gzip = gzip(data);
+						gzipData = gzip;
+
+						cache.grown(this, gzip.length);
+					}
+				}
+			}
+			return gzip;
+		}
+
+		/**
+		 * @return entity tag of the compressed contents
+		 */
+		public String getGzipETag()
+		{
+			return "\"" + tag + "-gzip\"";
+		}
+
+		private static byte[] gzip(byte[] data)
+		{
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 3 + 32);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(bytes))
+			{
+				gzip.write(data);
+			}
+			catch (IOException ex)
+			{
+				throw new WicketRuntimeException(ex);
+			}
+			return bytes.toByteArray();
+		}
+	}
+}
@@ -19,12 +19,21 @@ package org.apache.wicket.resource;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.wicket.Application;
+import org.apache.wicket.ThreadContext;
+import org.apache.wicket.core.util.lang.ParallelTasks;
+import org.apache.wicket.core.util.resource.locator.IResourceNameIterator;
 import org.apache.wicket.core.util.resource.locator.IResourceStreamLocator;
 import org.apache.wicket.util.io.IOUtils;
 import org.apache.wicket.util.listener.IChangeListener;
@@ -128,6 +137,90 @@ public class PropertiesFactory implements IPropertiesFactory
 		context.getLocalizer().clearCache();
 	}
 
+	/**
+	 * Removes the properties of a single path from the cache. The localizer cache is cleared too,
+	 * as it may hold strings of these properties.
+	 * 
+	 * @param path
+	 *            the path of the properties, without extension
+	 */
+	public final void clearCache(final String path)
+	{
+		if (propertiesCache != null)
+		{
+			propertiesCache.remove(path);
+		}
+
+		context.getLocalizer().clearCache();
+	}
+
+	/**
+	 * Loads the properties of the given classes for the given locales in parallel, e.g. at the end
+	 * of {@link Application#init()}, so the first requests do not have to locate and parse them.
+	 * All paths the string resource loaders try for a class and locale without style and
+	 * variation are loaded, missing ones are cached as missing.
+	 * 
+	 * @param classes
+	 *            the classes to load properties for
+	 * @param locales
+	 *            the locales to load properties for
+	 * @param parallelism
+	 *            count of threads to use for loading
+	 * @return count of loaded properties files
+	 * 
+	 * @see org.apache.wicket.resource.loader.ComponentStringResourceLoader
+	 */
+	public int preload(final Collection<Class<?>> classes, final Collection<Locale> locales,
+		final int parallelism)
+	{
+		final Application application = Application.exists() ? Application.get() : null;
+
+		List<Callable<Boolean>> tasks = new ArrayList<>();
+		for (Class<?> clazz : classes)
+		{
+			String basePath = clazz.getName().replace('.', '/');
+
+			Set<String> paths = new LinkedHashSet<>();
+			for (Locale locale : locales)
+			{
+				IResourceNameIterator iter = context.getResourceStreamLocator()
+					.newResourceNameIterator(basePath, locale, null, null, null, false);
+				while (iter.hasNext())
+				{
+					paths.add(iter.next());
+				}
+			}
+
+			for (String path : paths)
+			{
+				tasks.add(() -> {
+					ThreadContext previous = ThreadContext.detach();
+					try
+					{
+						ThreadContext.setApplication(application);
+
+						return load(clazz, path) != null;
+					}
+					finally
+					{
+						ThreadContext.restore(previous);
+					}
+				});
+			}
+		}
+
+		int loaded = 0;
+		for (Boolean found : ParallelTasks.invokeAll(tasks, parallelism,
+			(i, cause) -> log.warn("Failed to preload properties", cause)))
+		{
+			if (Boolean.TRUE.equals(found))
+			{
+				loaded++;
+			}
+		}
+		return loaded;
+	}
+
 	@Override
 	public Properties load(final Class<?> clazz, final String path)
 	{
@@ -258,12 +351,12 @@ public class PropertiesFactory implements IPropertiesFactory
 			@Override
 			public void onChange(IModifiable modifiable)
 			{
-				log.info("A properties files has changed. Removing all entries " +
+				log.info("A properties files has changed. Removing its entry " +
 					"from the cache. Resource: " + resourceStream);
 
-				// Clear the whole cache as associated localized files may
-				// be affected and may need reloading as well.
-				clearCache();
+				// Other paths are cached separately, only strings resolved by the
+				// localizer may combine properties of several files.
+				clearCache(path);
 
 				// Inform all listeners
 				for (IPropertiesChangeListener listener : afterReloadListeners)
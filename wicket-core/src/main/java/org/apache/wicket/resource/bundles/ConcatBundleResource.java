@@ -31,6 +31,7 @@ import org.apache.wicket.Application;
 import org.apache.wicket.markup.head.IReferenceHeaderItem;
 import org.apache.wicket.request.resource.AbstractResource;
 import org.apache.wicket.request.resource.IResource;
+import org.apache.wicket.request.resource.ProcessedResourceCache;
 import org.apache.wicket.request.resource.ResourceReference;
 import org.apache.wicket.request.resource.caching.IStaticCacheableResource;
 import org.apache.wicket.resource.ITextResourceCompressor;
@@ -42,6 +43,7 @@ import org.apache.wicket.util.lang.Classes;
 import org.apache.wicket.util.resource.AbstractResourceStream;
 import org.apache.wicket.util.resource.IResourceStream;
 import org.apache.wicket.util.resource.ResourceStreamNotFoundException;
+import org.apache.wicket.util.watch.IModificationWatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -100,6 +102,24 @@ public class ConcatBundleResource extends AbstractResource implements IStaticCac
 				if (lastModified != null)
 					resourceResponse.setLastModified(lastModified);
 
+				ProcessedResourceCache cache = Application.get()
+					.getResourceSettings()
+					.getProcessedResourceCache();
+				Serializable key = cache != null && cachingEnabled ? getCacheKey() : null;
+				if (key != null)
+				{
+					ProcessedResourceCache.Entry entry = cache.get(key, lastModified);
+					if (entry == null)
+					{
+						entry = cache.put(key, lastModified, readAllResources(resources));
+
+						watchForModifications(resources, cache, key);
+					}
+
+					setProcessedContents(resourceResponse, attributes, entry);
+					return resourceResponse;
+				}
+
 				// read resource data
 				final byte[] bytes = readAllResources(resources);
 
@@ -194,6 +214,21 @@ public class ConcatBundleResource extends AbstractResource implements IStaticCac
 		return resourceResponse;
 	}
 
+	/**
+	 * Remove the cached contents on modification of any of the bundled resources.
+	 */
+	private void watchForModifications(final List<IResourceStream> resources,
+		final ProcessedResourceCache cache, final Serializable key)
+	{
+		final IModificationWatcher watcher = Application.get()
+			.getResourceSettings()
+			.getResourceWatcher(true);
+		if (watcher != null)
+		{
+			cache.watch(key, resources, watcher);
+		}
+	}
+
 	@Override
 	public boolean isCachingEnabled()
 	{
@@ -0,0 +1,470 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.serialize.java;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.wicket.AttributeModifier;
+import org.apache.wicket.ClassAttributeModifier;
+import org.apache.wicket.Component;
+import org.apache.wicket.MarkupContainer;
+import org.apache.wicket.MetaDataEntry;
+import org.apache.wicket.Page;
+import org.apache.wicket.WicketRuntimeException;
+import org.apache.wicket.ajax.AbstractDefaultAjaxBehavior;
+import org.apache.wicket.ajax.AjaxEventBehavior;
+import org.apache.wicket.ajax.form.AjaxFormComponentUpdatingBehavior;
+import org.apache.wicket.ajax.markup.html.AjaxFallbackLink;
+import org.apache.wicket.ajax.markup.html.AjaxLink;
+import org.apache.wicket.ajax.markup.html.form.AjaxButton;
+import org.apache.wicket.ajax.markup.html.form.AjaxSubmitLink;
+import org.apache.wicket.behavior.AbstractAjaxBehavior;
+import org.apache.wicket.behavior.AttributeAppender;
+import org.apache.wicket.behavior.Behavior;
+import org.apache.wicket.feedback.FeedbackMessages;
+import org.apache.wicket.markup.html.GenericWebPage;
+import org.apache.wicket.markup.html.WebComponent;
+import org.apache.wicket.markup.html.WebMarkupContainer;
+import org.apache.wicket.markup.html.WebPage;
+import org.apache.wicket.markup.html.basic.Label;
+import org.apache.wicket.markup.html.border.Border;
+import org.apache.wicket.markup.html.form.AbstractChoice;
+import org.apache.wicket.markup.html.form.AbstractSingleSelectChoice;
+import org.apache.wicket.markup.html.form.AbstractTextComponent;
+import org.apache.wicket.markup.html.form.Button;
+import org.apache.wicket.markup.html.form.CheckBox;
+import org.apache.wicket.markup.html.form.ChoiceRenderer;
+import org.apache.wicket.markup.html.form.DropDownChoice;
+import org.apache.wicket.markup.html.form.Form;
+import org.apache.wicket.markup.html.form.FormComponent;
+import org.apache.wicket.markup.html.form.FormComponentPanel;
+import org.apache.wicket.markup.html.form.HiddenField;
+import org.apache.wicket.markup.html.form.LabeledWebMarkupContainer;
+import org.apache.wicket.markup.html.form.PasswordTextField;
+import org.apache.wicket.markup.html.form.RequiredTextField;
+import org.apache.wicket.markup.html.form.StatelessForm;
+import org.apache.wicket.markup.html.form.SubmitLink;
+import org.apache.wicket.markup.html.form.TextArea;
+import org.apache.wicket.markup.html.form.TextField;
+import org.apache.wicket.markup.html.image.Image;
+import org.apache.wicket.markup.html.link.AbstractLink;
+import org.apache.wicket.markup.html.link.BookmarkablePageLink;
+import org.apache.wicket.markup.html.link.ExternalLink;
+import org.apache.wicket.markup.html.link.Link;
+import org.apache.wicket.markup.html.list.AbstractItem;
+import org.apache.wicket.markup.html.list.ListItem;
+import org.apache.wicket.markup.html.list.ListView;
+import org.apache.wicket.markup.html.panel.FeedbackPanel;
+import org.apache.wicket.markup.html.panel.Fragment;
+import org.apache.wicket.markup.html.panel.GenericPanel;
+import org.apache.wicket.markup.html.panel.Panel;
+import org.apache.wicket.markup.repeater.AbstractRepeater;
+import org.apache.wicket.markup.repeater.Item;
+import org.apache.wicket.markup.repeater.RefreshingView;
+import org.apache.wicket.markup.repeater.RepeatingView;
+import org.apache.wicket.model.AbstractPropertyModel;
+import org.apache.wicket.model.ChainingModel;
+import org.apache.wicket.model.CompoundPropertyModel;
+import org.apache.wicket.model.LoadableDetachableModel;
+import org.apache.wicket.model.Model;
+import org.apache.wicket.model.PropertyModel;
+import org.apache.wicket.model.ResourceModel;
+import org.apache.wicket.model.StringResourceModel;
+import org.apache.wicket.model.util.GenericBaseModel;
+import org.apache.wicket.model.util.ListModel;
+import org.apache.wicket.request.mapper.parameter.INamedParameters;
+import org.apache.wicket.request.mapper.parameter.PageParameters;
+import org.apache.wicket.util.lang.Args;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link JavaSerializer} that writes compact class descriptors, reducing the size of serialized
+ * pages considerably without the CPU cost of compression.
+ * <p>
+ * Java serialization writes a full descriptor for each class in the object graph, i.e. its name,
+ * serialVersionUID and all names and types of its fields. This serializer writes classes from a
+ * dictionary as an index only, all other classes with their name and serialVersionUID only. On
+ * deserialization the descriptors are looked up from the local classes instead. Wicket's common
+ * components, models and behaviors are registered by default, applications can register additional
+ * classes with {@link #register(Class...)}.
+ * <p>
+ * Note: Since serialized state is read with the local class descriptors, data written by a
+ * different version of a class (with an identical serialVersionUID) cannot be read. Each stream
+ * starts with a version of its format and a hash of the dictionary: Data written with a different
+ * format or dictionary, e.g. by an older release or after registering other classes, is not read
+ * but treated as missing, so a page kept across restarts is expired.
+ * <p>
+ * To use this serializer, put the following code in your application's init:
+ *
+ * <pre>
+ * getFrameworkSettings().setSerializer(new CompactJavaSerializer(getApplicationKey()));
+ * </pre>
+ */
+public class CompactJavaSerializer extends JavaSerializer
+{
+	private static final Logger log = LoggerFactory.getLogger(CompactJavaSerializer.class);
+
+	/**
+	 * Magic number at the start of each stream.
+	 */
+	private static final short MAGIC = 0x5743;
+
+	/**
+	 * Version of the stream format.
+	 */
+	private static final byte VERSION = 1;
+
+	/**
+	 * A class descriptor as written by Java serialization.
+	 */
+	private static final int FULL_DESCRIPTOR = 0;
+
+	/**
+	 * A class descriptor written as class name and serialVersionUID only.
+	 */
+	private static final int NAMED_DESCRIPTOR = 1;
+
+	/**
+	 * A class descriptor written as index into the dictionary.
+	 */
+	private static final int DICTIONARY_DESCRIPTOR = 2;
+
+	/**
+	 * Thread local buffers exceeding this size are not kept for reuse.
+	 */
+	private static final int MAX_BUFFER_SIZE = 512 * 1024;
+
+	private final List<Class<?>> dictionary = new CopyOnWriteArrayList<>();
+
+	private final ConcurrentMap<Class<?>, Integer> dictionaryIndices = new ConcurrentHashMap<>();
+
+	/**
+	 * Hash of the names of all classes in the dictionary, in order of registration.
+	 */
+	private volatile int dictionaryHash;
+
+	/**
+	 * Buffers are kept as plain byte arrays only, so no class of the web application is held by
+	 * a thread of the container.
+	 */
+	private final ThreadLocal<byte[]> buffers = new ThreadLocal<>();
+
+	/**
+	 * Construct.
+	 *
+	 * @param applicationKey
+	 *      the name of the application
+	 */
+	public CompactJavaSerializer(final String applicationKey)
+	{
+		super(applicationKey);
+
+		register(Component.class, MarkupContainer.class, Page.class, WebPage.class,
+			GenericWebPage.class, WebMarkupContainer.class, WebComponent.class, Panel.class,
+			GenericPanel.class, Fragment.class, Border.class, FeedbackPanel.class, Label.class,
+			Image.class, AbstractLink.class, Link.class, BookmarkablePageLink.class,
+			ExternalLink.class, AjaxLink.class, AjaxFallbackLink.class, Form.class,
+			StatelessForm.class, LabeledWebMarkupContainer.class, FormComponent.class,
+			FormComponentPanel.class, AbstractTextComponent.class, TextField.class,
+			RequiredTextField.class, PasswordTextField.class, HiddenField.class, TextArea.class,
+			CheckBox.class, AbstractChoice.class, AbstractSingleSelectChoice.class,
+			DropDownChoice.class, ChoiceRenderer.class, Button.class, SubmitLink.class,
+			AjaxButton.class, AjaxSubmitLink.class, AbstractRepeater.class, RepeatingView.class,
+			RefreshingView.class, Item.class, ListView.class, AbstractItem.class, ListItem.class,
+			Model.class, GenericBaseModel.class, ListModel.class, ChainingModel.class,
+			AbstractPropertyModel.class, PropertyModel.class, CompoundPropertyModel.class,
+			LoadableDetachableModel.class, ResourceModel.class, StringResourceModel.class,
+			Behavior.class, AttributeModifier.class, AttributeAppender.class,
+			ClassAttributeModifier.class, AbstractAjaxBehavior.class,
+			AbstractDefaultAjaxBehavior.class, AjaxEventBehavior.class,
+			AjaxFormComponentUpdatingBehavior.class, MetaDataEntry.class, FeedbackMessages.class,
+			PageParameters.class, INamedParameters.NamedPair.class, ArrayList.class,
+			HashMap.class, LinkedHashMap.class, HashSet.class, Locale.class, Number.class,
+			Integer.class, Long.class, Boolean.class, Double.class);
+	}
+
+	/**
+	 * Register classes in the dictionary.
+	 * <p>
+	 * Registration has to happen before any serialization and in a stable order.
+	 *
+	 * @param classes
+	 *            classes to register
+	 * @return {@code this} for chaining
+	 */
+	public final CompactJavaSerializer register(final Class<?>... classes)
+	{
+		for (Class<?> clazz : classes)
+		{
+			Args.notNull(clazz, "clazz");
+
+			if (dictionaryIndices.containsKey(clazz) == false)
+			{
+				if (dictionary.size() > 0xFFFF)
+				{
+					throw new IllegalStateException("Too many classes registered");
+				}
+				dictionaryIndices.put(clazz, dictionary.size());
+				dictionary.add(clazz);
+				dictionaryHash = 31 * dictionaryHash + clazz.getName().hashCode();
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Serializes into a reused thread local buffer.
+	 */
+	@Override
+	public byte[] serialize(final Object object)
+	{
+		// take buffer in case of reentrant serialization
+		Buffer buffer = new Buffer(buffers.get());
+		buffers.remove();
+
+		try
+		{
+			serialize(object, buffer);
+
+			return buffer.toByteArray();
+		}
+		catch (Exception e)
+		{
+			log.error("Error serializing object {} [object={}]", object.getClass(), object, e);
+		}
+		finally
+		{
+			buffer.reset();
+			if (buffer.array().length <= MAX_BUFFER_SIZE)
+			{
+				buffers.set(buffer.array());
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Data written with a different format or dictionary is treated as missing.
+	 *
+	 * @return deserialized object or {@code null} if the data is incompatible
+	 */
+	@Override
+	public Object deserialize(final byte[] data)
+	{
+		try
+		{
+			return super.deserialize(data);
+		}
+		catch (WicketRuntimeException e)
+		{
+			if (e.getCause() instanceof IncompatibleStreamException)
+			{
+				log.warn("Cannot deserialize object: {}", e.getCause().getMessage());
+				return null;
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	protected ObjectOutputStream newObjectOutputStream(OutputStream out) throws IOException
+	{
+		return new SerializationCheckerObjectOutputStream(out, new CompactObjectOutputStream(out));
+	}
+
+	@Override
+	protected ObjectInputStream newObjectInputStream(InputStream in) throws IOException
+	{
+		return new CompactObjectInputStream(in);
+	}
+
+	/**
+	 * Can the descriptor of the given class be looked up locally.
+	 */
+	private static boolean isCompactable(ObjectStreamClass desc)
+	{
+		Class<?> clazz = desc.forClass();
+
+		return clazz != null && clazz.isPrimitive() == false && clazz.isArray() == false &&
+			clazz.isInterface() == false && desc.getSerialVersionUID() != 0;
+	}
+
+	/**
+	 * Writes compact class descriptors.
+	 */
+	private class CompactObjectOutputStream extends ObjectOutputStream
+	{
+		private CompactObjectOutputStream(OutputStream out) throws IOException
+		{
+			super(out);
+		}
+
+		@Override
+		protected void writeStreamHeader() throws IOException
+		{
+			super.writeStreamHeader();
+
+			writeShort(MAGIC);
+			writeByte(VERSION);
+			writeInt(dictionaryHash);
+		}
+
+		@Override
+		protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException
+		{
+			if (isCompactable(desc) == false)
+			{
+				write(FULL_DESCRIPTOR);
+				super.writeClassDescriptor(desc);
+				return;
+			}
+
+			Integer index = dictionaryIndices.get(desc.forClass());
+			if (index != null)
+			{
+				write(DICTIONARY_DESCRIPTOR);
+				writeShort(index);
+			}
+			else
+			{
+				write(NAMED_DESCRIPTOR);
+				writeUTF(desc.getName());
+				writeLong(desc.getSerialVersionUID());
+			}
+		}
+	}
+
+	/**
+	 * Reads compact class descriptors.
+	 */
+	private class CompactObjectInputStream extends ClassResolverObjectInputStream
+	{
+		private CompactObjectInputStream(InputStream in) throws IOException
+		{
+			super(in);
+		}
+
+		@Override
+		protected void readStreamHeader() throws IOException
+		{
+			super.readStreamHeader();
+
+			if (readShort() != MAGIC)
+			{
+				throw new IncompatibleStreamException("not written by CompactJavaSerializer");
+			}
+			int version = readByte();
+			if (version != VERSION)
+			{
+				throw new IncompatibleStreamException("unsupported format version " + version);
+			}
+			if (readInt() != dictionaryHash)
+			{
+				throw new IncompatibleStreamException("written with a different dictionary");
+			}
+		}
+
+		@Override
+		protected ObjectStreamClass readClassDescriptor() throws IOException,
+			ClassNotFoundException
+		{
+			int type = read();
+			switch (type)
+			{
+				case FULL_DESCRIPTOR :
+					return super.readClassDescriptor();
+
+				case DICTIONARY_DESCRIPTOR :
+					int index = readUnsignedShort();
+					if (index >= dictionary.size())
+					{
+						throw new StreamCorruptedException("Unknown class index " + index);
+					}
+					return ObjectStreamClass.lookupAny(dictionary.get(index));
+
+				case NAMED_DESCRIPTOR :
+					String name = readUTF();
+					long serialVersionUID = readLong();
+
+					Class<?> clazz = resolveClass(name);
+
+					// descriptors and their field reflection are cached per class by Java already
+					ObjectStreamClass desc = ObjectStreamClass.lookupAny(clazz);
+					if (desc.getSerialVersionUID() != serialVersionUID)
+					{
+						throw new InvalidClassException(name,
+							"local class incompatible: stream classdesc serialVersionUID = " +
+								serialVersionUID + ", local class serialVersionUID = " +
+								desc.getSerialVersionUID());
+					}
+					return desc;
+
+				default :
+					throw new StreamCorruptedException("Unexpected class descriptor type " + type);
+			}
+		}
+	}
+
+	/**
+	 * A byte output stream that can be reused.
+	 */
+	private static class Buffer extends ByteArrayOutputStream
+	{
+		private Buffer(byte[] reused)
+		{
+			super(0);
+
+			buf = reused != null ? reused : new byte[4096];
+		}
+
+		private byte[] array()
+		{
+			return buf;
+		}
+	}
+
+	/**
+	 * Data was written with a different format or dictionary.
+	 */
+	private static class IncompatibleStreamException extends StreamCorruptedException
+	{
+		private static final long serialVersionUID = 1L;
+
+		private IncompatibleStreamException(String reason)
+		{
+			super(reason);
+		}
+	}
+}
@@ -89,23 +89,13 @@ public class JavaSerializer implements ISerializer
 		try
 		{
 			final ByteArrayOutputStream out = new ByteArrayOutputStream();
-			ObjectOutputStream oos = null;
 			try
 			{
-				oos = newObjectOutputStream(out);
-				oos.writeObject(applicationKey);
-				oos.writeObject(object);
+				serialize(object, out);
 			}
 			finally
 			{
-				try
-				{
-					IOUtils.close(oos);
-				}
-				finally
-				{
-					out.close();
-				}
+				out.close();
 			}
 			return out.toByteArray();
 		}
@@ -117,6 +107,31 @@ public class JavaSerializer implements ISerializer
 		return null;
 	}
 
+	/**
+	 * Writes the application key and the object to the given stream.
+	 * 
+	 * @param object
+	 *            the object to serialize
+	 * @param out
+	 *            the stream to write to
+	 * @throws IOException
+	 *             if an I/O error occurs while writing
+	 */
+	protected void serialize(final Object object, final OutputStream out) throws IOException
+	{
+		ObjectOutputStream oos = null;
+		try
+		{
+			oos = newObjectOutputStream(out);
+			oos.writeObject(applicationKey);
+			oos.writeObject(object);
+		}
+		finally
+		{
+			IOUtils.close(oos);
+		}
+	}
+
 	@Override
 	public Object deserialize(final byte[] data)
 	{
@@ -194,13 +209,27 @@ public class JavaSerializer implements ISerializer
 	/**
 	 * Extend {@link ObjectInputStream} to add framework class resolution logic.
 	 */
-	private static class ClassResolverObjectInputStream extends ObjectInputStream
+	protected static class ClassResolverObjectInputStream extends ObjectInputStream
 	{
 		public ClassResolverObjectInputStream(InputStream in) throws IOException
 		{
 			super(in);
 		}
 
+		/**
+		 * Resolves a class by name, looking in the Wicket ClassResolvers as well.
+		 * 
+		 * @param className
+		 *            name of class
+		 * @return resolved class
+		 * @throws ClassNotFoundException
+		 *             if the class cannot be found
+		 */
+		protected Class<?> resolveClass(String className) throws ClassNotFoundException
+		{
+			return resolveClassByName(className, latestUserDefinedLoader());
+		}
+
 		// This override is required to resolve classes inside in different bundle, i.e.
 		// The classes can be resolved by OSGI classresolver implementation
 		@Override
@@ -363,16 +392,31 @@ public class JavaSerializer implements ISerializer
 	 *     This is done so to save some CPU time to make the checks for no reason.
 	 * </p>
 	 */
-	private static class SerializationCheckerObjectOutputStream extends ObjectOutputStream
+	protected static class SerializationCheckerObjectOutputStream extends ObjectOutputStream
 	{
 		private final OutputStream outputStream;
 
 		private final ObjectOutputStream oos;
 
-		private SerializationCheckerObjectOutputStream(OutputStream outputStream) throws IOException
+		protected SerializationCheckerObjectOutputStream(OutputStream outputStream) throws IOException
+		{
+			this(outputStream, new ObjectOutputStream(outputStream));
+		}
+
+		/**
+		 * Check objects written with the given stream.
+		 * 
+		 * @param outputStream
+		 *            the stream to write to
+		 * @param oos
+		 *            object stream writing to the same stream
+		 * @throws IOException
+		 */
+		protected SerializationCheckerObjectOutputStream(OutputStream outputStream,
+			ObjectOutputStream oos) throws IOException
 		{
 			this.outputStream = outputStream;
-			oos = new ObjectOutputStream(outputStream);
+			this.oos = oos;
 		}
 
 		@Override
@@ -20,6 +20,7 @@ import org.apache.wicket.DefaultMarkupIdGenerator;
 import org.apache.wicket.IMarkupIdGenerator;
 import org.apache.wicket.markup.MarkupFactory;
 import org.apache.wicket.util.lang.Args;
+import org.apache.wicket.util.lang.Bytes;
 
 /**
  * Class for markup related settings.
@@ -77,6 +78,9 @@ public class MarkupSettings
 	 */
 	private IMarkupIdGenerator markupIdGenerator = new DefaultMarkupIdGenerator();
 
+	/** Maximum size of the markup cache, {@code null} for an unbounded cache */
+	private Bytes markupCacheSize;
+
 	/**
 	 * Construct
 	 */
@@ -300,4 +304,29 @@ public class MarkupSettings
 		this.updateAutoLabelsTogetherWithFormComponent = updateAutoLabelsTogetherWithFormComponent;
 		return this;
 	}
+
+	/**
+	 * @return the maximum size of the markup cache, {@code null} if unbounded
+	 */
+	public Bytes getMarkupCacheSize()
+	{
+		return markupCacheSize;
+	}
+
+	/**
+	 * Sets the maximum size of the markup cache. The size of cached markup is estimated from the
+	 * length of its elements, the least recently used markup is evicted first.
+	 * <p>
+	 * Has to be set before the markup cache is created.
+	 *
+	 * @param markupCacheSize
+	 *            the maximum size or {@code null} for an unbounded cache (the default)
+	 * @return {@code this} object for chaining
+	 * @see org.apache.wicket.markup.MarkupCache.BoundedCacheImplementation
+	 */
+	public MarkupSettings setMarkupCacheSize(Bytes markupCacheSize)
+	{
+		this.markupCacheSize = markupCacheSize;
+		return this;
+	}
 }
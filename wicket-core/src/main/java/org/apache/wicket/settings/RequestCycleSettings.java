@@ -20,6 +20,8 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.apache.wicket.ajax.attributes.AjaxRequestAttributes;
+import org.apache.wicket.protocol.http.ResponseBufferSizeEstimator;
 import org.apache.wicket.response.filter.IResponseFilter;
 import org.apache.wicket.util.lang.Args;
 
@@ -172,6 +174,16 @@ public class RequestCycleSettings
 
 	private int exceptionRetryCount = 10;
 
+	/** The default data type of Ajax responses. */
+	private String ajaxResponseDataType = AjaxRequestAttributes.XML_DATA_TYPE;
+
+	/** Whether markup of components in Ajax responses is streamed. */
+	private boolean streamPartialPageUpdates = false;
+
+	/** Estimator for the buffer size of rendered pages, may be {@code null}. */
+	private ResponseBufferSizeEstimator responseBufferSizeEstimator = new ResponseBufferSizeEstimator(
+		1024 * 1024);
+
 // ****************************************************************************
 // IRequestCycleSettings Implementation
 // ****************************************************************************
@@ -417,4 +429,79 @@ public class RequestCycleSettings
 	{
 		return exceptionRetryCount;
 	}
+
+	/**
+	 * Sets the estimator for the initial buffer size of rendered pages.
+	 *
+	 * @param estimator
+	 *            the estimator, may be {@code null} to always use a default size
+	 * @return {@code this} object for chaining
+	 */
+	public RequestCycleSettings setResponseBufferSizeEstimator(
+		ResponseBufferSizeEstimator estimator)
+	{
+		this.responseBufferSizeEstimator = estimator;
+		return this;
+	}
+
+	/**
+	 * @return the estimator for the initial buffer size of rendered pages, may be {@code null}
+	 */
+	public ResponseBufferSizeEstimator getResponseBufferSizeEstimator()
+	{
+		return responseBufferSizeEstimator;
+	}
+
+	/**
+	 * Sets whether the markup of components in Ajax responses is streamed into the response while
+	 * rendering, instead of buffering it for each component and for the whole response. This
+	 * lowers the memory needed for large updates, but an exception while rendering a component
+	 * leaves an incomplete response which may already have been sent to the client. The whole
+	 * response is still buffered if response filters are used.
+	 *
+	 * @param streamPartialPageUpdates
+	 *            {@code true} to stream markup of components
+	 * @return {@code this} object for chaining
+	 * @see org.apache.wicket.page.PartialPageUpdate#setStreaming(boolean)
+	 */
+	public RequestCycleSettings setStreamPartialPageUpdates(boolean streamPartialPageUpdates)
+	{
+		this.streamPartialPageUpdates = streamPartialPageUpdates;
+		return this;
+	}
+
+	/**
+	 * @return whether the markup of components in Ajax responses is streamed
+	 * @see #setStreamPartialPageUpdates(boolean)
+	 */
+	public boolean getStreamPartialPageUpdates()
+	{
+		return streamPartialPageUpdates;
+	}
+
+	/**
+	 * Sets the default data type of Ajax responses, either
+	 * {@link AjaxRequestAttributes#XML_DATA_TYPE} for {@code <ajax-response>} or
+	 * {@link AjaxRequestAttributes#JSON_DATA_TYPE} for a more compact JSON response. Ajax
+	 * behaviors may still change the data type in their attributes.
+	 *
+	 * @param ajaxResponseDataType
+	 *            the data type
+	 * @return {@code this} object for chaining
+	 * @see org.apache.wicket.page.JsonPartialPageUpdate
+	 */
+	public RequestCycleSettings setAjaxResponseDataType(String ajaxResponseDataType)
+	{
+		this.ajaxResponseDataType = Args.notEmpty(ajaxResponseDataType, "ajaxResponseDataType");
+		return this;
+	}
+
+	/**
+	 * @return the default data type of Ajax responses
+	 * @see #setAjaxResponseDataType(String)
+	 */
+	public String getAjaxResponseDataType()
+	{
+		return ajaxResponseDataType;
+	}
 }
@@ -26,6 +26,7 @@ import org.apache.wicket.Application;
 import org.apache.wicket.Component;
 import org.apache.wicket.IResourceFactory;
 import org.apache.wicket.Localizer;
+import org.apache.wicket.core.util.resource.ResourceNameIndex;
 import org.apache.wicket.core.util.resource.locator.IResourceStreamLocator;
 import org.apache.wicket.core.util.resource.locator.ResourceStreamLocator;
 import org.apache.wicket.core.util.resource.locator.caching.CachingResourceStreamLocator;
@@ -38,6 +39,7 @@ import org.apache.wicket.markup.html.SecurePackageResourceGuard;
 import org.apache.wicket.request.http.WebResponse;
 import org.apache.wicket.request.resource.IResourceUrlSanitizer;
 import org.apache.wicket.request.resource.PackageResourceUrlSanitizer;
+import org.apache.wicket.request.resource.ProcessedResourceCache;
 import org.apache.wicket.request.resource.caching.FilenameWithVersionResourceCachingStrategy;
 import org.apache.wicket.request.resource.caching.IResourceCachingStrategy;
 import org.apache.wicket.request.resource.caching.NoOpResourceCachingStrategy;
@@ -131,6 +133,9 @@ public class ResourceSettings implements IPropertiesFactoryContext
 	/** resource locator for this application */
 	private IResourceStreamLocator resourceStreamLocator;
 
+	/** index of resources in the classpath */
+	private ResourceNameIndex resourceNameIndex;
+
 	/** ModificationWatcher to watch for changes in markup files */
 	private IModificationWatcher resourceWatcher;
 
@@ -177,6 +182,11 @@ public class ResourceSettings implements IPropertiesFactoryContext
 		false);
 
 	private boolean encodeJSessionId = false;
+
+	private boolean useGzipEncoding = false;
+
+	/** cache for processed package resources */
+	private ProcessedResourceCache processedResourceCache;
 	
 	/**
 	 * Configures Wicket's default ResourceLoaders.<br>
@@ -323,6 +333,32 @@ public class ResourceSettings implements IPropertiesFactoryContext
 		return resourceStreamLocator;
 	}
 
+	/**
+	 * Gets the index of resources in the classpath, used to answer lookups of missing resources
+	 * without asking the class loader.
+	 * 
+	 * @return the index or {@code null} if there is none, the default
+	 */
+	public ResourceNameIndex getResourceNameIndex()
+	{
+		return resourceNameIndex;
+	}
+
+	/**
+	 * Sets the index of resources in the classpath. In development mode the index is cleared
+	 * whenever the {@link org.apache.wicket.core.util.watch.Nio2ModificationWatcher} notices a
+	 * new file.
+	 * 
+	 * @param resourceNameIndex
+	 *            the index or {@code null}
+	 * @return {@code this} object for chaining
+	 */
+	public ResourceSettings setResourceNameIndex(ResourceNameIndex resourceNameIndex)
+	{
+		this.resourceNameIndex = resourceNameIndex;
+		return this;
+	}
+
 	@Override
 	public IModificationWatcher getResourceWatcher(boolean start)
 	{
@@ -791,4 +827,60 @@ public class ResourceSettings implements IPropertiesFactoryContext
 		this.encodeJSessionId = encodeJSessionId;
 		return this;
 	}
+
+	/**
+	 * Gets the cache for processed contents of
+	 * {@link org.apache.wicket.request.resource.PackageResource}s.
+	 *
+	 * @return cache or {@code null} if processed contents are not cached
+	 */
+	public ProcessedResourceCache getProcessedResourceCache()
+	{
+		return processedResourceCache;
+	}
+
+	/**
+	 * Sets the cache for processed contents of
+	 * {@link org.apache.wicket.request.resource.PackageResource}s, by default nothing is cached.
+	 * <p>
+	 * Cached contents are shared by all requests, so this is safe only if processing of resources
+	 * does not depend on the current request, e.g. with
+	 * {@link org.apache.wicket.resource.CssUrlReplacer} and a
+	 * {@link org.apache.wicket.core.request.mapper.CryptoMapper} encrypting URLs per session the
+	 * cache must not be used.
+	 *
+	 * @param processedResourceCache
+	 *            cache or {@code null} to process contents on each request
+	 * @return {@code this} object for chaining
+	 */
+	public ResourceSettings setProcessedResourceCache(ProcessedResourceCache processedResourceCache)
+	{
+		this.processedResourceCache = processedResourceCache;
+		return this;
+	}
+
+	/**
+	 * Sets whether processed contents of static resources should be written in gzip content
+	 * encoding to clients accepting it. The compressed contents are kept in the
+	 * {@link #getProcessedResourceCache()}, thus gzip encoding requires a cache to be set.
+	 * Disabled by default, since applications may already compress their responses in a filter
+	 * or the container.
+	 *
+	 * @param useGzipEncoding
+	 *            {@code true} to use gzip encoding
+	 * @return {@code this} object for chaining
+	 */
+	public ResourceSettings setUseGzipEncoding(boolean useGzipEncoding)
+	{
+		this.useGzipEncoding = useGzipEncoding;
+		return this;
+	}
+
+	/**
+	 * @return Whether static resources are written in gzip content encoding.
+	 */
+	public boolean getUseGzipEncoding()
+	{
+		return useGzipEncoding;
+	}
 }
@@ -44,15 +44,27 @@ public class StoreSettings
 
 	private static final int DEFAULT_ASYNCHRONOUS_QUEUE_CAPACITY = 100;
 
+	private static final int DEFAULT_ASYNCHRONOUS_THREAD_COUNT = 1;
+
+	private static final int DEFAULT_ASYNCHRONOUS_BATCH_SIZE = 10;
+
 	private Bytes maxSizePerSession = DEFAULT_MAX_SIZE_PER_SESSION;
 
 	private File fileStoreFolder = null;
 
 	private int asynchronousQueueCapacity = DEFAULT_ASYNCHRONOUS_QUEUE_CAPACITY;
 
+	private int asynchronousThreadCount = DEFAULT_ASYNCHRONOUS_THREAD_COUNT;
+
+	private int asynchronousBatchSize = DEFAULT_ASYNCHRONOUS_BATCH_SIZE;
+
 	private boolean asynchronous = true;
 	
 	private boolean encrypted = false;
+
+	private boolean memoryMapped = false;
+
+	private int maxDeltasPerBase = 0;
 	
 	private Supplier<ICrypter> crypter = DefaultCrypter::new;
 
@@ -164,6 +176,63 @@ public class StoreSettings
 		return this;
 	}
 
+	/**
+	 * @return the count of threads storing pages asynchronously
+	 * @see org.apache.wicket.pageStore.AsynchronousPageStore
+	 */
+	public int getAsynchronousThreadCount()
+	{
+		return asynchronousThreadCount;
+	}
+
+	/**
+	 * Sets the count of threads storing pages asynchronously. Pages of a single session are
+	 * always stored by the same thread.
+	 *
+	 * @param threadCount
+	 *            the count of threads
+	 * @see org.apache.wicket.pageStore.AsynchronousPageStore
+	 * @return {@code this} object for chaining
+	 */
+	public StoreSettings setAsynchronousThreadCount(int threadCount)
+	{
+		if (threadCount < 1)
+		{
+			throw new IllegalArgumentException(
+				"The count of asynchronous threads should be at least 1.");
+		}
+		asynchronousThreadCount = threadCount;
+		return this;
+	}
+
+	/**
+	 * @return the maximum count of pages stored at once by each asynchronous thread
+	 * @see org.apache.wicket.pageStore.AsynchronousPageStore
+	 */
+	public int getAsynchronousBatchSize()
+	{
+		return asynchronousBatchSize;
+	}
+
+	/**
+	 * Sets the maximum count of pages stored at once by each asynchronous thread.
+	 *
+	 * @param batchSize
+	 *            the maximum count of pages
+	 * @see org.apache.wicket.pageStore.AsynchronousPageStore
+	 * @return {@code this} object for chaining
+	 */
+	public StoreSettings setAsynchronousBatchSize(int batchSize)
+	{
+		if (batchSize < 1)
+		{
+			throw new IllegalArgumentException(
+				"The asynchronous batch size should be at least 1.");
+		}
+		asynchronousBatchSize = batchSize;
+		return this;
+	}
+
 	/**
 	 * Sets a flag whether to wrap the configured {@link org.apache.wicket.pageStore.IPageStore} with
 	 * {@link org.apache.wicket.pageStore.AsynchronousPageStore}. By doing this the HTTP worker thread will not wait for the
@@ -187,6 +256,54 @@ public class StoreSettings
 		return asynchronous;
 	}
 	
+	/**
+	 * Sets a flag whether the {@link org.apache.wicket.pageStore.DiskPageStore} should access its
+	 * files through memory mapping.
+	 * <p>
+	 * Note that mapped files are unmapped on garbage collection only, until then they occupy
+	 * address space and - on Windows - cannot be deleted when their session expires.
+	 *
+	 * @param memoryMapped
+	 *            {@code true} to map files into memory, {@code false} - otherwise
+	 * @return {@code this} object for chaining
+	 */
+	public StoreSettings setMemoryMapped(boolean memoryMapped)
+	{
+		this.memoryMapped = memoryMapped;
+		return this;
+	}
+
+	/**
+	 * @return {@code true} if files of the page store are mapped into memory
+	 */
+	public boolean isMemoryMapped()
+	{
+		return memoryMapped;
+	}
+
+	/**
+	 * Sets the maximum count of page versions stored as deltas against a common base with
+	 * {@link org.apache.wicket.pageStore.DeltaPageStore}.
+	 *
+	 * @param maxDeltasPerBase
+	 *            maximum count of deltas, {@code 0} stores all pages completely
+	 * @return {@code this} object for chaining
+	 */
+	public StoreSettings setMaxDeltasPerBase(int maxDeltasPerBase)
+	{
+		this.maxDeltasPerBase = Args.withinRange(0, Integer.MAX_VALUE, maxDeltasPerBase,
+			"maxDeltasPerBase");
+		return this;
+	}
+
+	/**
+	 * @return maximum count of page versions stored as deltas, {@code 0} if disabled
+	 */
+	public int getMaxDeltasPerBase()
+	{
+		return maxDeltasPerBase;
+	}
+
 	/**
 	 * Sets a flag whether to wrap the configured {@link org.apache.wicket.pageStore.IPageStore} with
 	 * {@link org.apache.wicket.pageStore.CryptingPageStore}.
@@ -135,6 +135,27 @@ jQuery(document).ready(function() {
 		});
 
 
+		test('processComponent, JSON response.', assert => {
+			const done = assert.async();
+			Wicket.assert = assert;
+			assert.expect(3);
+
+			assert.equal(jQuery('#componentToReplace').text(), 'old body', 'The component is existing and has the old innerHTML');
+
+			var attrs = {
+				u: 'data/ajax/componentId.json',
+				c: 'componentId',
+				dt: 'json', // datatype
+				sh: [
+					function() {
+						done();
+						assert.equal(jQuery('#componentToReplace').text(), 'new body', 'The component must be replaced');
+					}
+				]
+			};
+			execute(attrs, assert, done);
+		});
+
 		test('processComponent() but the old component doesn\'t exist.', assert => {
 			const done = assert.async();
 			assert.expect(2);
@@ -1395,6 +1416,59 @@ jQuery(document).ready(function() {
 			execute(attrs, assert, done);
 		});
 
+		test('processRedirect() with JSON response.', assert => {
+			const done = assert.async();
+			assert.expect(2);
+
+			var originalRedirect = Wicket.Ajax.redirect;
+
+			Wicket.Ajax.redirect = function(location) {
+				Wicket.Ajax.redirect = originalRedirect;
+				done();
+				assert.equal(location, 'http://127.0.0.1', 'Redirect entry of a JSON response is properly handled');
+			};
+
+			var attrs = {
+				u: 'data/ajax/redirectAjaxResponse.json',
+				c: 'componentId',
+				dt: 'json' // datatype
+			};
+
+			execute(attrs, assert, done);
+		});
+
+		test('Ajax-Location response header with unparsable response.', assert => {
+			const done = assert.async();
+			assert.expect(2);
+
+			var redirectUrl = 'http://www.example.com/ajax/location';
+			var componentUrl = 'data/ajax/unparsableRedirect.json';
+
+			$.mockjax({
+				url: componentUrl,
+				responseText: '<ajax-response><redirect><![CDATA[' + redirectUrl + ']]></redirect></ajax-response>',
+				headers: {
+					'Ajax-Location': redirectUrl
+				}
+			});
+
+			var originalRedirect = Wicket.Ajax.redirect;
+
+			Wicket.Ajax.redirect = function(location) {
+				Wicket.Ajax.redirect = originalRedirect;
+				done();
+				assert.equal(location, redirectUrl, 'Ajax redirect in unparsable response is properly handled');
+			};
+
+			var attrs = {
+				u: componentUrl,
+				c: 'componentId',
+				dt: 'json' // datatype
+			};
+
+			execute(attrs, assert, done);
+		});
+
 		test('processAjaxResponse, chrome-extensions case.', assert => {
 			const done = assert.async();
 			assert.expect(2);
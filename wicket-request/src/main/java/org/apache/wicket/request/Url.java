@@ -346,41 +346,37 @@ public class Url implements Serializable
 
 		if (relativeUrl.length() > 0)
 		{
-			boolean removeLast = false;
-			if (relativeUrl.endsWith("/"))
+			// split without intermediate arrays, keeping empty and trailing segments
+			int start = 0;
+			while (true)
 			{
-				// we need to append something and remove it after splitting
-				// because otherwise the
-				// trailing slashes will be lost
-				relativeUrl += "/x";
-				removeLast = true;
-			}
-
-			String segmentArray[] = Strings.split(relativeUrl, '/');
-
-			if (removeLast)
-			{
-				segmentArray[segmentArray.length - 1] = null;
-			}
-
-			for (String s : segmentArray)
-			{
-				if (s != null)
+				final int slashAt = relativeUrl.indexOf('/', start);
+				if (slashAt == -1)
 				{
-					result.segments.add(decodeSegment(s, charset));
+					result.segments.add(decodeSegment(relativeUrl.substring(start), charset));
+					break;
 				}
+				result.segments.add(decodeSegment(relativeUrl.substring(start, slashAt), charset));
+				start = slashAt + 1;
 			}
 		}
 
 		if (queryString.length() > 0)
 		{
-			String queryArray[] = Strings.split(queryString, '&');
-			for (String s : queryArray)
+			int start = 0;
+			while (start <= queryString.length())
 			{
-				if (Strings.isEmpty(s) == false)
+				int ampersandAt = queryString.indexOf('&', start);
+				if (ampersandAt == -1)
+				{
+					ampersandAt = queryString.length();
+				}
+				if (ampersandAt > start)
 				{
-					result.parameters.add(parseQueryParameter(s, charset));
+					result.parameters.add(
+						parseQueryParameter(queryString, start, ampersandAt, charset));
 				}
+				start = ampersandAt + 1;
 			}
 		}
 
@@ -389,21 +385,27 @@ public class Url implements Serializable
 
 	/**
 	 * 
-	 * @param qp
+	 * @param query
+	 *            query string
+	 * @param start
+	 *            start of the parameter in the query string
+	 * @param end
+	 *            end of the parameter in the query string
 	 * @param charset
 	 * @return query parameters
 	 */
-	private static QueryParameter parseQueryParameter(final String qp, final Charset charset)
+	private static QueryParameter parseQueryParameter(final String query, final int start,
+		final int end, final Charset charset)
 	{
-		int idxOfEquals = qp.indexOf('=');
-		if (idxOfEquals == -1)
+		int idxOfEquals = query.indexOf('=', start);
+		if (idxOfEquals == -1 || idxOfEquals >= end)
 		{
 			// name => empty value
-			return new QueryParameter(decodeParameter(qp, charset), "");
+			return new QueryParameter(decodeParameter(query.substring(start, end), charset), "");
 		}
 
-		String parameterName = qp.substring(0, idxOfEquals);
-		String parameterValue = qp.substring(idxOfEquals + 1);
+		String parameterName = query.substring(start, idxOfEquals);
+		String parameterValue = query.substring(idxOfEquals + 1, end);
 		return new QueryParameter(decodeParameter(parameterName, charset), decodeParameter(parameterValue, charset));
 	}
 
@@ -127,6 +127,25 @@ public abstract class AbstractMapper implements IRequestMapper
 		return true;
 	}
 	
+	/**
+	 * Get the leading segments which are not placeholders.
+	 * 
+	 * @param segments
+	 *            mount segments
+	 * @return fixed segments
+	 * @see IMountedRequestMapper#getFixedSegments()
+	 */
+	protected List<String> getFixedSegments(final String[] segments)
+	{
+		int count = 0;
+		while (count < segments.length && getPlaceholder(segments[count]) == null &&
+			getOptionalPlaceholder(segments[count]) == null)
+		{
+			count++;
+		}
+		return List.of(segments).subList(0, count);
+	}
+
 	/**
 	 * Utility method to safely get an element from a list of String.
 	 * If the specified index is bigger than the size of the list
@@ -17,9 +17,12 @@
 package org.apache.wicket.request.mapper;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.wicket.request.IRequestHandler;
@@ -34,6 +37,13 @@ import org.slf4j.LoggerFactory;
  * Thread safe compound {@link IRequestMapper}. The mappers are searched depending on their
  * compatibility score and the orders they were registered. If two or more {@link IRequestMapper}s
  * have the same compatibility score, the last registered mapper has highest priority.
+ * <p>
+ * {@link IMountedRequestMapper}s are indexed by their fixed segments, so for each request only
+ * mappers mounted on a prefix of the URL (and mappers not mounted at all) have to be scored.
+ * Other mappers are considered only if none of these is able to map the request.
+ * <p>
+ * Similarly mappers with a {@link IMountedRequestMapper#getHandlerKey() handler key} are asked to
+ * map a handler only if the key matches {@link #getHandlerKey(IRequestHandler)}.
  * 
  * @author igor.vaynberg
  * @author Matej Knopp
@@ -95,19 +105,150 @@ public class CompoundRequestMapper implements ICompoundRequestMapper
 		}
 	}
 
+	/**
+	 * Index of mappers by their fixed segments, rebuilt whenever mappers are added or removed.
+	 */
+	static class MapperIndex
+	{
+		private static final Object UNKEYED = new Object();
+
+		private final IRequestMapper[] mappers;
+
+		private final Node root = new Node();
+
+		private final Map<Object, BitSet> handlerCandidates = new HashMap<>();
+
+		MapperIndex(final List<IRequestMapper> mappers)
+		{
+			this.mappers = mappers.toArray(new IRequestMapper[0]);
+
+			for (int position = 0; position < this.mappers.length; position++)
+			{
+				Node node = root;
+				if (this.mappers[position] instanceof IMountedRequestMapper mounted)
+				{
+					for (String segment : mounted.getFixedSegments())
+					{
+						node = node.children.computeIfAbsent(segment, s -> new Node());
+					}
+				}
+				node.positions.set(position);
+			}
+
+			BitSet unkeyed = new BitSet();
+			for (int position = 0; position < this.mappers.length; position++)
+			{
+				Object key = null;
+				if (this.mappers[position] instanceof IMountedRequestMapper mounted)
+				{
+					key = mounted.getHandlerKey();
+				}
+
+				if (key == null)
+				{
+					unkeyed.set(position);
+				}
+				else
+				{
+					handlerCandidates.computeIfAbsent(key, k -> new BitSet()).set(position);
+				}
+			}
+			for (BitSet candidates : handlerCandidates.values())
+			{
+				candidates.or(unkeyed);
+			}
+			handlerCandidates.put(UNKEYED, unkeyed);
+		}
+
+		/**
+		 * Get the positions of all mappers possibly mapping handlers with the given key.
+		 * 
+		 * @param key
+		 *            handler key, may be <code>null</code>
+		 * @return positions of candidates or <code>null</code> if all mappers are candidates
+		 */
+		BitSet getCandidates(final Object key)
+		{
+			if (key == null)
+			{
+				return null;
+			}
+			return handlerCandidates.getOrDefault(key, handlerCandidates.get(UNKEYED));
+		}
+
+		/**
+		 * @return whether any mapper has a handler key
+		 */
+		boolean hasHandlerKeys()
+		{
+			return handlerCandidates.size() > 1;
+		}
+
+		/**
+		 * Get the positions of all mappers possibly compatible with the given url.
+		 * 
+		 * @param url
+		 * @return positions of candidates
+		 */
+		BitSet getCompatibleCandidates(final Url url)
+		{
+			Node node = root;
+			BitSet candidates = (BitSet)node.positions.clone();
+			for (String segment : url.getSegments())
+			{
+				node = node.children.get(segment);
+				if (node == null)
+				{
+					break;
+				}
+				candidates.or(node.positions);
+			}
+			return candidates;
+		}
+
+		IRequestMapper get(final int position)
+		{
+			return mappers[position];
+		}
+
+		int size()
+		{
+			return mappers.length;
+		}
+
+		private static class Node
+		{
+			private final Map<String, Node> children = new HashMap<>();
+
+			private final BitSet positions = new BitSet();
+		}
+	}
+
 	private final List<IRequestMapper> mappers = new CopyOnWriteArrayList<>();
 
+	private volatile MapperIndex index = new MapperIndex(mappers);
+
 	@Override
 	public CompoundRequestMapper add(final IRequestMapper mapper)
 	{
-		mappers.add(0, mapper);
+		synchronized (mappers)
+		{
+			mappers.add(0, mapper);
+			index = new MapperIndex(mappers);
+		}
 		return this;
 	}
 
 	@Override
 	public CompoundRequestMapper remove(final IRequestMapper mapper)
 	{
-		mappers.remove(mapper);
+		synchronized (mappers)
+		{
+			if (mappers.remove(mapper))
+			{
+				index = new MapperIndex(mappers);
+			}
+		}
 		return this;
 	}
 
@@ -117,7 +258,9 @@ public class CompoundRequestMapper implements ICompoundRequestMapper
 	 * mappers are asked to map the request in order depending on the provided compatibility
 	 * score.
 	 * <p>
-	 * The mapper with highest compatibility score which can map the request is returned.
+	 * The mapper with highest compatibility score which can map the request is returned. Mappers
+	 * excluded by the index of fixed segments are scored only if no compatible mapper is able to
+	 * map the request.
 	 * 
 	 * @param request
 	 * @return RequestHandler for the request or <code>null</code> if no mapper for the request is
@@ -126,14 +269,57 @@ public class CompoundRequestMapper implements ICompoundRequestMapper
 	@Override
 	public IRequestHandler mapRequest(final Request request)
 	{
-		List<MapperWithScore> list = new ArrayList<>(mappers.size());
+		MapperIndex index = this.index;
+		BitSet candidates = index.getCompatibleCandidates(request.getUrl());
+
+		int[] scores = new int[index.size()];
+		List<MapperWithScore> list = new ArrayList<>(candidates.cardinality());
+		for (int position = candidates.nextSetBit(0); position >= 0; position = candidates
+			.nextSetBit(position + 1))
+		{
+			IRequestMapper mapper = index.get(position);
+			scores[position] = mapper.getCompatibilityScore(request);
+			if (scores[position] > 0)
+			{
+				list.add(new MapperWithScore(mapper, scores[position]));
+			}
+		}
 
-		for (IRequestMapper mapper : this)
+		IRequestHandler handler = mapRequest(request, list);
+		if (handler == null)
 		{
-			int score = mapper.getCompatibilityScore(request);
-			list.add(new MapperWithScore(mapper, score));
+			// all others are not compatible, but might map the request nevertheless
+			list = new ArrayList<>(index.size());
+			for (int position = 0; position < index.size(); position++)
+			{
+				IRequestMapper mapper = index.get(position);
+				if (candidates.get(position) == false)
+				{
+					scores[position] = mapper.getCompatibilityScore(request);
+				}
+				else if (scores[position] > 0)
+				{
+					// already asked
+					continue;
+				}
+				list.add(new MapperWithScore(mapper, scores[position]));
+			}
+
+			handler = mapRequest(request, list);
 		}
+		return handler;
+	}
 
+	/**
+	 * Asks the given mappers in order of their compatibility score to map the request.
+	 * 
+	 * @param request
+	 * @param list
+	 *            mappers with score
+	 * @return RequestHandler for the request or <code>null</code>
+	 */
+	private IRequestHandler mapRequest(final Request request, final List<MapperWithScore> list)
+	{
 		Collections.sort(list);
 
 		if (LOG.isDebugEnabled())
@@ -205,17 +391,54 @@ public class CompoundRequestMapper implements ICompoundRequestMapper
 	@Override
 	public Url mapHandler(final IRequestHandler handler)
 	{
-		for (IRequestMapper mapper : this)
+		MapperIndex index = this.index;
+		BitSet candidates = null;
+		if (index.hasHandlerKeys())
 		{
-			Url url = mapper.mapHandler(handler);
-			if (url != null)
+			candidates = index.getCandidates(getHandlerKey(handler));
+		}
+
+		if (candidates == null)
+		{
+			for (int position = 0; position < index.size(); position++)
+			{
+				Url url = index.get(position).mapHandler(handler);
+				if (url != null)
+				{
+					return url;
+				}
+			}
+		}
+		else
+		{
+			for (int position = candidates.nextSetBit(0); position >= 0; position = candidates
+				.nextSetBit(position + 1))
 			{
-				return url;
+				Url url = index.get(position).mapHandler(handler);
+				if (url != null)
+				{
+					return url;
+				}
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Get the key of a handler to find the mappers able to map it, see
+	 * {@link IMountedRequestMapper#getHandlerKey()}.
+	 * <p>
+	 * This default implementation returns <code>null</code>, i.e. all mappers are asked.
+	 * 
+	 * @param handler
+	 *            handler to map
+	 * @return key or <code>null</code> if any mapper might map the handler
+	 */
+	protected Object getHandlerKey(final IRequestHandler handler)
+	{
+		return null;
+	}
+
 	/**
 	 * The scope of the compound mapper is the highest score of the registered mappers.
 	 * 
@@ -224,10 +447,23 @@ public class CompoundRequestMapper implements ICompoundRequestMapper
 	@Override
 	public int getCompatibilityScore(final Request request)
 	{
+		MapperIndex index = this.index;
+		BitSet candidates = index.getCompatibleCandidates(request.getUrl());
+
 		int score = Integer.MIN_VALUE;
-		for (IRequestMapper mapper : this)
+		for (int position = candidates.nextSetBit(0); position >= 0; position = candidates
+			.nextSetBit(position + 1))
 		{
-			score = Math.max(score, mapper.getCompatibilityScore(request));
+			score = Math.max(score, index.get(position).getCompatibilityScore(request));
+		}
+
+		if (score <= 0)
+		{
+			// other mappers are not compatible, but might still have a higher score
+			for (IRequestMapper mapper : this)
+			{
+				score = Math.max(score, mapper.getCompatibilityScore(request));
+			}
 		}
 		return score;
 	}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.wicket.request.mapper;
+
+import java.util.List;
+
+import org.apache.wicket.request.IRequestHandler;
+import org.apache.wicket.request.IRequestMapper;
+import org.apache.wicket.request.Request;
+
+/**
+ * A {@link IRequestMapper} mounted on fixed leading segments.
+ * <p>
+ * For a request whose URL does not start with the fixed segments,
+ * {@link #getCompatibilityScore(Request)} must not return a positive score. This allows
+ * {@link CompoundRequestMapper} to skip scoring of this mapper for most requests.
+ * <p>
+ * If the mapper provides a {@link #getHandlerKey() handler key}, {@link #mapHandler(IRequestHandler)}
+ * must return <code>null</code> for all handlers with a different key, as determined by
+ * {@link CompoundRequestMapper#getHandlerKey(IRequestHandler)}.
+ * 
+ * @see CompoundRequestMapper
+ */
+public interface IMountedRequestMapper extends IRequestMapper
+{
+	/**
+	 * Get the fixed leading segments, any URL this mapper is compatible with starts with these.
+	 * 
+	 * @return fixed segments, may be empty
+	 */
+	List<String> getFixedSegments();
+
+	/**
+	 * Get the key of all handlers this mapper is able to map to a URL.
+	 * 
+	 * @return key or <code>null</code> if this mapper might map any handler
+	 * @see CompoundRequestMapper#getHandlerKey(IRequestHandler)
+	 */
+	default Object getHandlerKey()
+	{
+		return null;
+	}
+}
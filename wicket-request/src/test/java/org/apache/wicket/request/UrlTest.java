@@ -20,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -1005,4 +1006,21 @@ class UrlTest
 		checkUrl(url, "http", "[::1]", 1234, "", "myapp");
 
 	}
+
+	@Test
+	void parseSeparators()
+	{
+		Url url = Url.parse("/foo//bar/?&a=1&&b&=2&");
+		checkSegments(url, "", "foo", "", "bar", "");
+		checkQueryParams(url, "a", "1", "b", "", "", "2");
+		assertEquals("/foo//bar/?a=1&b&=2", url.toString());
+
+		url = Url.parse("http://host/?a=b%3Dc");
+		checkSegments(url, "", "");
+		checkQueryParams(url, "a", "b=c");
+
+		url = Url.parse("foo");
+		checkSegments(url, "foo");
+		assertSame("foo", url.getSegments().get(0));
+	}
 }
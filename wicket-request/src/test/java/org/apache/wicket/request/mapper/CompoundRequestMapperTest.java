@@ -17,8 +17,17 @@
 package org.apache.wicket.request.mapper;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import java.util.List;
+
+import org.apache.wicket.request.IRequestHandler;
+import org.apache.wicket.request.Request;
+import org.apache.wicket.request.Url;
 import org.apache.wicket.request.mapper.CompoundRequestMapper.MapperWithScore;
 import org.junit.jupiter.api.Test;
 
@@ -49,4 +58,165 @@ class CompoundRequestMapperTest
 	{
 		return new MapperWithScore(null, score);
 	}
+
+	/**
+	 * Only mappers mounted on a prefix of the URL are scored.
+	 */
+	@Test
+	void index()
+	{
+		CompoundRequestMapper compound = new CompoundRequestMapper();
+		TestMapper foo = new TestMapper("foo");
+		TestMapper fooBar = new TestMapper("foo", "bar");
+		TestMapper baz = new TestMapper("baz");
+		compound.add(foo).add(fooBar).add(baz);
+
+		assertSame(fooBar.handler, compound.mapRequest(request("foo/bar/1")));
+		assertEquals(1, foo.scored);
+		assertEquals(1, fooBar.scored);
+		assertEquals(0, baz.scored);
+
+		assertSame(foo.handler, compound.mapRequest(request("foo/baz")));
+		assertEquals(2, foo.scored);
+		assertEquals(1, fooBar.scored);
+		assertEquals(0, baz.scored);
+
+		assertEquals(2, compound.getCompatibilityScore(request("foo/bar")));
+		assertEquals(0, baz.scored);
+
+		compound.remove(fooBar);
+		assertSame(foo.handler, compound.mapRequest(request("foo/bar/1")));
+	}
+
+	/**
+	 * Mappers not compatible are asked if no compatible mapper maps the request.
+	 */
+	@Test
+	void notCompatible()
+	{
+		CompoundRequestMapper compound = new CompoundRequestMapper();
+		TestMapper foo = new TestMapper("foo");
+		TestMapper bar = new TestMapper("bar");
+		IRequestHandler handler = mock(IRequestHandler.class);
+		TestMapper fallback = new TestMapper("baz")
+		{
+			@Override
+			public IRequestHandler mapRequest(Request request)
+			{
+				return request.getUrl().getSegments().isEmpty() ? handler : null;
+			}
+		};
+		compound.add(fallback).add(foo).add(bar);
+
+		assertSame(handler, compound.mapRequest(request("")));
+		assertEquals(1, foo.scored);
+		assertEquals(1, bar.scored);
+		assertEquals(1, fallback.scored);
+
+		assertNull(compound.mapRequest(request("qux")));
+		assertEquals(0, compound.getCompatibilityScore(request("qux")));
+	}
+
+	/**
+	 * Only mappers with a matching handler key are asked to map a handler.
+	 */
+	@Test
+	void handlerKey()
+	{
+		IRequestHandler handler = mock(IRequestHandler.class);
+		CompoundRequestMapper compound = new CompoundRequestMapper()
+		{
+			@Override
+			protected Object getHandlerKey(IRequestHandler h)
+			{
+				return h == handler ? "foo" : null;
+			}
+		};
+		TestMapper foo = new TestMapper("foo");
+		TestMapper bar = new TestMapper("bar");
+		TestMapper unkeyed = new TestMapper("baz")
+		{
+			@Override
+			public Object getHandlerKey()
+			{
+				return null;
+			}
+		};
+		compound.add(foo).add(bar).add(unkeyed);
+
+		assertEquals(Url.parse("foo"), compound.mapHandler(handler));
+		assertEquals(1, foo.mapped);
+		assertEquals(0, bar.mapped);
+		assertEquals(1, unkeyed.mapped);
+
+		// without key all are asked
+		assertEquals(Url.parse("foo"), compound.mapHandler(mock(IRequestHandler.class)));
+		assertEquals(2, foo.mapped);
+		assertEquals(1, bar.mapped);
+		assertEquals(2, unkeyed.mapped);
+	}
+
+	private Request request(String url)
+	{
+		Request request = mock(Request.class);
+		when(request.getUrl()).thenReturn(Url.parse(url));
+		return request;
+	}
+
+	private static class TestMapper implements IMountedRequestMapper
+	{
+		private final List<String> segments;
+
+		private final IRequestHandler handler = mock(IRequestHandler.class);
+
+		private int scored;
+
+		private int mapped;
+
+		private TestMapper(String... segments)
+		{
+			this.segments = List.of(segments);
+		}
+
+		@Override
+		public List<String> getFixedSegments()
+		{
+			return segments;
+		}
+
+		@Override
+		public IRequestHandler mapRequest(Request request)
+		{
+			return matches(request) ? handler : null;
+		}
+
+		@Override
+		public int getCompatibilityScore(Request request)
+		{
+			scored++;
+
+			return matches(request) ? segments.size() : 0;
+		}
+
+		private boolean matches(Request request)
+		{
+			List<String> urlSegments = request.getUrl().getSegments();
+			return urlSegments.size() >= segments.size() &&
+				urlSegments.subList(0, segments.size()).equals(segments);
+		}
+
+		@Override
+		public Object getHandlerKey()
+		{
+			return segments.get(0);
+		}
+
+		@Override
+		public Url mapHandler(IRequestHandler requestHandler)
+		{
+			mapped++;
+
+			return "foo".equals(segments.get(0)) ? Url.parse("foo") : null;
+		}
+	}
 }
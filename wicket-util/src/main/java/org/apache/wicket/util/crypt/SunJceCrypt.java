@@ -21,7 +21,9 @@ import java.security.NoSuchAlgorithmException;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.KeySpec;
+import java.util.Queue;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
@@ -37,6 +39,9 @@ import org.apache.wicket.util.lang.Args;
  * implementation is based around Sun's security providers and uses the <a
  * href="http://www.ietf.org/rfc/rfc2898.txt">PBEWithMD5AndDES</a> method to encrypt and decrypt the
  * data.
+ * <p>
+ * The secret key is generated once for each {@link #getKey() key}, initialized ciphers are reused
+ * for subsequent de-/encryptions.
  * 
  * @author Juergen Donnerstag
  */
@@ -51,6 +56,9 @@ public class SunJceCrypt extends AbstractCrypt
 	private final int iterationCount;
 	
 	private final byte[] salt;
+
+	/** The secret key and ciphers for the current key */
+	private volatile KeyData keyData;
  
 	/**
 	 * Constructor.
@@ -98,10 +106,51 @@ public class SunJceCrypt extends AbstractCrypt
 	protected byte[] crypt(final byte[] input, final int mode)
 		throws GeneralSecurityException
 	{
-		SecretKey key = generateSecretKey();
-		AlgorithmParameterSpec spec = createParameterSpec();
-		Cipher ciph = createCipher(key, spec, mode);
-		return ciph.doFinal(input);
+		KeyData data = getKeyData();
+
+		Queue<Cipher> ciphers;
+		if (mode == Cipher.ENCRYPT_MODE)
+		{
+			ciphers = data.encryptCiphers;
+		}
+		else if (mode == Cipher.DECRYPT_MODE)
+		{
+			ciphers = data.decryptCiphers;
+		}
+		else
+		{
+			return createCipher(data.secretKey, createParameterSpec(), mode).doFinal(input);
+		}
+
+		Cipher ciph = ciphers.poll();
+		if (ciph == null)
+		{
+			ciph = createCipher(data.secretKey, createParameterSpec(), mode);
+		}
+		byte[] result = ciph.doFinal(input);
+
+		// doFinal() resets the cipher to its initialized state, so it can be reused - the pool
+		// does not grow beyond the count of concurrent callers
+		ciphers.offer(ciph);
+
+		return result;
+	}
+
+	/**
+	 * Get the secret key and ciphers for the current key, generating a new secret key if the key
+	 * has changed.
+	 */
+	private KeyData getKeyData() throws GeneralSecurityException
+	{
+		String key = getKey();
+
+		KeyData data = keyData;
+		if (data == null || data.key.equals(key) == false)
+		{
+			data = new KeyData(key, generateSecretKey());
+			keyData = data;
+		}
+		return data;
 	}
 
 	/**
@@ -128,6 +177,8 @@ public class SunJceCrypt extends AbstractCrypt
 	 * <p>
 	 * Note: if you don't provide your own encryption key, the implementation will use a default. Be
 	 * aware that this is potential security risk. Thus make sure you always provide your own one.
+	 * <p>
+	 * The secret key is generated once and kept until the encryption key changes.
 	 *
 	 * @return secretKey the security key generated
 	 * @throws NoSuchAlgorithmException
@@ -144,6 +195,8 @@ public class SunJceCrypt extends AbstractCrypt
 	}
 	
 	/**
+	 * Note: initialized ciphers are reused, so this has to return the same parameters each time.
+	 * 
 	 * @return the parameter spec to be used for the configured crypt method
 	 */
 	protected AlgorithmParameterSpec createParameterSpec()
@@ -159,6 +212,26 @@ public class SunJceCrypt extends AbstractCrypt
 		return new PBEKeySpec(getKey().toCharArray());
 	}
 
+	/**
+	 * The secret key generated for a key and the ciphers initialized with it.
+	 */
+	private static final class KeyData
+	{
+		private final String key;
+
+		private final SecretKey secretKey;
+
+		private final Queue<Cipher> encryptCiphers = new ConcurrentLinkedQueue<>();
+
+		private final Queue<Cipher> decryptCiphers = new ConcurrentLinkedQueue<>();
+
+		private KeyData(String key, SecretKey secretKey)
+		{
+			this.key = key;
+			this.secretKey = secretKey;
+		}
+	}
+
 	/**
 	 * Create a random salt to be used for this crypt. 
 	 * 
@@ -107,6 +107,12 @@ public class UrlDecoder
 
 		Args.notNull(charset, "charset");
 
+		if (source.indexOf('%') == -1 && (decodePlus == false || source.indexOf('+') == -1))
+		{
+			// nothing to decode, most segments and parameters are plain text
+			return source.replace("\0", "NULL");
+		}
+
 		final int length = source.length();
 		final ByteArrayOutputStream bos = new ByteArrayOutputStream(length);
 		boolean changed = false;
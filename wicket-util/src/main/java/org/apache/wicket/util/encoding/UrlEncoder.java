@@ -20,6 +20,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 
 import org.apache.wicket.util.lang.Args;
@@ -207,6 +208,11 @@ public class UrlEncoder
 
 		Args.notNull(charset, "charset");
 
+		if (isAsciiCompatible(charset) && isAllowed(unsafeInput))
+		{
+			return unsafeInput;
+		}
+
 		final byte[] bytes = unsafeInput.getBytes(charset);
 		boolean original = true;
 		for (final byte b : bytes)
@@ -253,4 +259,33 @@ public class UrlEncoder
 		return bos.toString(charset);
 	}
 
+	/**
+	 * Whether all characters of the input are encoded as themselves, so the input can be returned
+	 * without encoding it into bytes first.
+	 *
+	 * @param input
+	 *            string to check
+	 * @return {@code true} if nothing has to be encoded
+	 */
+	private boolean isAllowed(final String input)
+	{
+		for (int i = 0; i < input.length(); i++)
+		{
+			final char c = input.charAt(i);
+			if (c >= 0x80 || !type.isAllowed(c) || c == ' ' || c == '\0')
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return whether the charset encodes ASCII characters as single identical bytes
+	 */
+	private static boolean isAsciiCompatible(final Charset charset)
+	{
+		return StandardCharsets.UTF_8.equals(charset) ||
+			StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.US_ASCII.equals(charset);
+	}
 }
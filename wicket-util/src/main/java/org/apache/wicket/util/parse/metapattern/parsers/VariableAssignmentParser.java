@@ -33,8 +33,17 @@ public final class VariableAssignmentParser extends MetaPatternParser
 	private static final MetaPattern namespace = new OptionalMetaPattern(new MetaPattern[] {
 			MetaPattern.VARIABLE_NAME, MetaPattern.COLON, new OptionalMetaPattern(new MetaPattern[] {MetaPattern.VARIABLE_NAME, MetaPattern.COLON })});
 
+	/** The key of the default pattern */
+	private static final Group defaultKey = newKey();
+
+	/** The value of the default pattern */
+	private static final Group defaultValue = new Group(MetaPattern.STRING);
+
+	/** The default pattern, shared to compile it only once */
+	private static final MetaPattern defaultPattern = newPattern(defaultKey, defaultValue);
+
 	/** The key (lvalue) like "name" or "namespace:name" or "namespace:name:subname" */
-	private final Group key = new Group(new MetaPattern(namespace, MetaPattern.XML_ATTRIBUTE_NAME));
+	private final Group key;
 
 	/** The rvalue of the assignment */
 	private final Group value;
@@ -47,7 +56,11 @@ public final class VariableAssignmentParser extends MetaPatternParser
 	 */
 	public VariableAssignmentParser(final CharSequence input)
 	{
-		this(input, MetaPattern.STRING);
+		super(input);
+
+		key = defaultKey;
+		value = defaultValue;
+		setPattern(defaultPattern);
 	}
 
 	/**
@@ -62,16 +75,28 @@ public final class VariableAssignmentParser extends MetaPatternParser
 	{
 		super(input);
 
+		key = newKey();
+
 		// Create group for value pattern
 		value = new Group(valuePattern);
 
+		setPattern(newPattern(key, value));
+	}
+
+	private static Group newKey()
+	{
+		return new Group(new MetaPattern(namespace, MetaPattern.XML_ATTRIBUTE_NAME));
+	}
+
+	private static MetaPattern newPattern(final Group key, final Group value)
+	{
 		// Pattern for =<value>
 		final MetaPattern variableAssignment = new MetaPattern(MetaPattern.OPTIONAL_WHITESPACE,
 			MetaPattern.EQUALS, MetaPattern.OPTIONAL_WHITESPACE, value);
 
 		// Set parse pattern to <key>=<value>?
-		setPattern(new MetaPattern(MetaPattern.OPTIONAL_WHITESPACE, key, new OptionalMetaPattern(
-			variableAssignment), MetaPattern.OPTIONAL_WHITESPACE));
+		return new MetaPattern(MetaPattern.OPTIONAL_WHITESPACE, key, new OptionalMetaPattern(
+			variableAssignment), MetaPattern.OPTIONAL_WHITESPACE);
 	}
 
 	/**
@@ -17,14 +17,25 @@
 package org.apache.wicket.util.crypt;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 
 import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
 
 @SuppressWarnings("javadoc")
 public class SunJceCryptTest
@@ -43,6 +54,66 @@ public class SunJceCryptTest
 		assertEquals(new String(decrypted), input);
 	}
 
+	/**
+	 * The secret key is generated once per key.
+	 */
+	@Test
+	public void secretKeyPerKey() throws Exception
+	{
+		AtomicInteger generated = new AtomicInteger();
+		SunJceCrypt crypt = new SunJceCrypt(SunJceCrypt.randomSalt(), 1)
+		{
+			@Override
+			protected SecretKey generateSecretKey()
+				throws NoSuchAlgorithmException, InvalidKeySpecException
+			{
+				generated.incrementAndGet();
+				return super.generateSecretKey();
+			}
+		};
+
+		String encrypted = crypt.encryptUrlSafe("input");
+		assertEquals("input", crypt.decryptUrlSafe(encrypted));
+		assertEquals(encrypted, crypt.encryptUrlSafe("input"));
+		assertEquals(1, generated.get());
+
+		crypt.setKey("otherKey");
+		String otherEncrypted = crypt.encryptUrlSafe("input");
+		assertNotEquals(encrypted, otherEncrypted);
+		assertEquals("input", crypt.decryptUrlSafe(otherEncrypted));
+		assertNull(crypt.decryptUrlSafe(encrypted));
+		assertEquals(2, generated.get());
+	}
+
+	/**
+	 * Ciphers are not shared by concurrent callers.
+	 */
+	@Test
+	public void concurrent() throws Exception
+	{
+		SunJceCrypt crypt = new SunJceCrypt(SunJceCrypt.randomSalt(), 1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < 200; i++)
+			{
+				String input = "input" + i;
+				results.add(executor
+					.submit(() -> input.equals(crypt.decryptUrlSafe(crypt.encryptUrlSafe(input)))));
+			}
+			for (Future<Boolean> result : results)
+			{
+				assertTrue(result.get());
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
 	/**
 	 * Uses <em>PBEWithMD5AndTripleDES</em> if unlimited cryptography is installed
 	 */
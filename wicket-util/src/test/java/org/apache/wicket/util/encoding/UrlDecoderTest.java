@@ -22,6 +22,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class UrlDecoderTest
 {
@@ -82,4 +83,16 @@ public class UrlDecoderTest
 		assertEquals("T\u014dky\u014d",
 			UrlDecoder.QUERY_INSTANCE.decode("T\u014dky\u014d", CHARSET));
 	}
+
+	@Test
+	public void undecodedIsSame()
+	{
+		String undecoded = "foo-bar_baz.html";
+		assertSame(undecoded, UrlDecoder.PATH_INSTANCE.decode(undecoded, CHARSET));
+		assertSame(undecoded, UrlDecoder.QUERY_INSTANCE.decode(undecoded, CHARSET));
+
+		assertEquals("foo+bar", UrlDecoder.PATH_INSTANCE.decode("foo+bar", CHARSET));
+		assertEquals("foo bar", UrlDecoder.QUERY_INSTANCE.decode("foo+bar", CHARSET));
+		assertEquals("fooNULLbar", UrlDecoder.PATH_INSTANCE.decode("foo\0bar", CHARSET));
+	}
 }
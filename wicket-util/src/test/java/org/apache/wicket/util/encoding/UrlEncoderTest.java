@@ -23,6 +23,7 @@ import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class UrlEncoderTest
 {
@@ -125,4 +126,15 @@ public class UrlEncoderTest
 		assertEquals("foo+bar", UrlEncoder.QUERY_INSTANCE.encode("foo bar", CHARSET));
 		assertEquals("foo%26bar", UrlEncoder.QUERY_INSTANCE.encode("foo&bar", CHARSET));
 	}
+
+	@Test
+	public void unencodedIsSame()
+	{
+		String unencoded = "foo-bar_baz.html";
+		assertSame(unencoded, UrlEncoder.PATH_INSTANCE.encode(unencoded, CHARSET));
+		assertSame(unencoded, UrlEncoder.QUERY_INSTANCE.encode(unencoded, CHARSET));
+
+		// charset not compatible with ascii
+		assertNotEquals("foo", UrlEncoder.PATH_INSTANCE.encode("foo", StandardCharsets.UTF_16));
+	}
 }
@@ -16,9 +16,11 @@
  */
 package org.apache.wicket.util.parse.metapattern.parsers;
 
+import org.apache.wicket.util.parse.metapattern.MetaPattern;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -98,4 +100,31 @@ class VariableAssignmentParserTest
 		assertEquals("@test4", key);
 		assertEquals("\"test4\"", value);
 	}
+
+	/**
+	 * Parsers share the default pattern but match independently.
+	 */
+	@Test
+	void sharedPattern()
+	{
+		VariableAssignmentParser first = new VariableAssignmentParser("a='1'");
+		VariableAssignmentParser second = new VariableAssignmentParser("b=2 c");
+		VariableAssignmentParser custom = new VariableAssignmentParser("d=\"4\"",
+			MetaPattern.DOUBLE_QUOTED_STRING);
+
+		assertTrue(first.matcher().find(0));
+		assertTrue(second.matcher().find(0));
+		assertTrue(custom.matcher().find(0));
+
+		assertEquals("a", first.getKey());
+		assertEquals("'1'", first.getValue());
+		assertEquals("b", second.getKey());
+		assertEquals("2", second.getValue());
+		assertEquals("d", custom.getKey());
+		assertEquals("\"4\"", custom.getValue());
+
+		assertTrue(second.matcher().find(second.matcher().end(0)));
+		assertEquals("c", second.getKey());
+		assertNull(second.getValue());
+	}
 }